@@ -0,0 +1,146 @@
+package com.calendarevents;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A small JVM harness for the benchmark source set: runs an operation over synthetic input of a given number of
+ * rows, first to warm it up and then for a fixed time, and reports the mean time and allocation of one operation.
+ *
+ * Every result is printed as a JSON line and the results of a class are written together to
+ * {@code <benchmark.reportDir>/<name>.json}. The numbers come from the JVM the unit tests run on, not from ART,
+ * so they compare implementations with each other rather than predict timings on a device.
+ */
+final class Benchmark {
+
+    static final int[] SIZES = new int[]{100, 1000, 10000, 100000};
+
+    private static final long WARMUP_NANOS = Long.getLong("benchmark.warmupMillis", 500) * 1000000L;
+    private static final long MEASURE_NANOS = Long.getLong("benchmark.measureMillis", 1000) * 1000000L;
+    private static final int MIN_OPS = 5;
+
+    interface Operation {
+        /** Runs the operation once over rows of input. The result is kept alive so the work is not optimized away. */
+        Object run(int rows) throws Exception;
+    }
+
+    /** Counts something the measured code does, reported per operation next to its time and allocation. */
+    interface Counter {
+        String name();
+
+        long count();
+    }
+
+    static final class Result {
+        final String name;
+        final int rows;
+        final long ops;
+        final double nsPerOp;
+        // -1 when the JVM cannot count the bytes allocated by a thread
+        final double bytesPerOp;
+        final Counter counter;
+        final double countPerOp;
+
+        Result(String name, int rows, long ops, double nsPerOp, double bytesPerOp, Counter counter, double countPerOp) {
+            this.name = name;
+            this.rows = rows;
+            this.ops = ops;
+            this.nsPerOp = nsPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.counter = counter;
+            this.countPerOp = countPerOp;
+        }
+
+        String toJson() {
+            String json = String.format(Locale.US, "{\"benchmark\":\"%s\",\"rows\":%d,\"ops\":%d,\"nsPerOp\":%.1f,\"bytesPerOp\":%.1f",
+                    name, rows, ops, nsPerOp, bytesPerOp);
+            if (counter != null) {
+                json += String.format(Locale.US, ",\"%sPerOp\":%.1f", counter.name(), countPerOp);
+            }
+            return json + "}";
+        }
+    }
+
+    private final String name;
+    private final List<Result> results = new ArrayList<>();
+    private volatile Object sink;
+
+    Benchmark(String name) {
+        this.name = name;
+    }
+
+    /** Measures the operation at every size in SIZES. */
+    void run(String benchmark, Operation operation) throws Exception {
+        run(benchmark, operation, null);
+    }
+
+    /** Measures the operation at every size in SIZES, along with what counter counts while it runs. */
+    void run(String benchmark, Operation operation, Counter counter) throws Exception {
+        for (int rows : SIZES) {
+            run(benchmark, rows, operation, counter);
+        }
+    }
+
+    Result run(String benchmark, int rows, Operation operation, Counter counter) throws Exception {
+        long deadline = System.nanoTime() + WARMUP_NANOS;
+        for (int i = 0; i < MIN_OPS || System.nanoTime() < deadline; i++) {
+            sink = operation.run(rows);
+        }
+
+        long ops = 0;
+        long countBefore = counter == null ? 0 : counter.count();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink = operation.run(rows);
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (ops < MIN_OPS || elapsed < MEASURE_NANOS);
+        long allocatedAfter = allocatedBytes();
+        long countAfter = counter == null ? 0 : counter.count();
+
+        double bytesPerOp = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : (double) (allocatedAfter - allocatedBefore) / ops;
+        Result result = new Result(benchmark, rows, ops, (double) elapsed / ops, bytesPerOp, counter, (double) (countAfter - countBefore) / ops);
+        results.add(result);
+        System.out.println(result.toJson());
+        return result;
+    }
+
+    /** Writes every result so far to the report directory, as one JSON array. */
+    void writeReport() throws IOException {
+        File directory = new File(System.getProperty("benchmark.reportDir", "build/reports/benchmark"));
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+
+        Writer writer = new FileWriter(new File(directory, name + ".json"));
+        try {
+            writer.write("[\n");
+            for (int i = 0; i < results.size(); i++) {
+                writer.write("  " + results.get(i).toJson() + (i < results.size() - 1 ? ",\n" : "\n"));
+            }
+            writer.write("]\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    // java.lang.management is not in android.jar, which the unit tests compile against, so it is only reached
+    // through reflection on the JVM that runs them
+    private static long allocatedBytes() {
+        try {
+            Object threads = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+            Method allocated = Class.forName("com.sun.management.ThreadMXBean").getMethod("getThreadAllocatedBytes", long.class);
+            return (Long) allocated.invoke(threads, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.calendarevents;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+/**
+ * JavaOnlyMap and JavaOnlyArray that count the calls which cross JNI on their WritableNative counterparts: each
+ * map or array created allocates a native object, and each put or push is a native call.
+ *
+ * The count is what the serializers would cost in JNI crossings on a device, measured on the JVM. The conversion
+ * of the result to JS afterwards is not counted.
+ */
+final class BridgeCallCounter implements EventSerializer.Factory, Benchmark.Counter {
+
+    private long calls;
+
+    @Override
+    public String name() {
+        return "bridgeCalls";
+    }
+
+    @Override
+    public long count() {
+        return calls;
+    }
+
+    @Override
+    public WritableMap createMap() {
+        calls++;
+        return new CountingMap();
+    }
+
+    @Override
+    public WritableArray createArray() {
+        calls++;
+        return new CountingArray();
+    }
+
+    private final class CountingMap extends JavaOnlyMap {
+        @Override
+        public void putNull(String key) {
+            calls++;
+            super.putNull(key);
+        }
+
+        @Override
+        public void putBoolean(String key, boolean value) {
+            calls++;
+            super.putBoolean(key, value);
+        }
+
+        @Override
+        public void putDouble(String key, double value) {
+            calls++;
+            super.putDouble(key, value);
+        }
+
+        @Override
+        public void putInt(String key, int value) {
+            calls++;
+            super.putInt(key, value);
+        }
+
+        @Override
+        public void putString(String key, String value) {
+            calls++;
+            super.putString(key, value);
+        }
+
+        @Override
+        public void putArray(String key, ReadableArray value) {
+            calls++;
+            super.putArray(key, value);
+        }
+
+        @Override
+        public void putMap(String key, ReadableMap value) {
+            calls++;
+            super.putMap(key, value);
+        }
+    }
+
+    private final class CountingArray extends JavaOnlyArray {
+        @Override
+        public void pushNull() {
+            calls++;
+            super.pushNull();
+        }
+
+        @Override
+        public void pushBoolean(boolean value) {
+            calls++;
+            super.pushBoolean(value);
+        }
+
+        @Override
+        public void pushDouble(double value) {
+            calls++;
+            super.pushDouble(value);
+        }
+
+        @Override
+        public void pushInt(int value) {
+            calls++;
+            super.pushInt(value);
+        }
+
+        @Override
+        public void pushString(String value) {
+            calls++;
+            super.pushString(value);
+        }
+
+        @Override
+        public void pushArray(ReadableArray value) {
+            calls++;
+            super.pushArray(value);
+        }
+
+        @Override
+        public void pushMap(ReadableMap value) {
+            calls++;
+            super.pushMap(value);
+        }
+    }
+}
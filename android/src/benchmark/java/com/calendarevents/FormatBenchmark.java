@@ -0,0 +1,203 @@
+package com.calendarevents;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * The string work behind reads and writes at every size in Benchmark.SIZES: date formatting for serialized
+ * events, date parsing for addEvent and the event range, recurrence rules read from and written to RRULE, and
+ * the IN selections of association loading. One operation handles rows values.
+ */
+public class FormatBenchmark {
+
+    private static final String ISO_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+
+    private static final Benchmark benchmark = new Benchmark("FormatBenchmark");
+    private static final HashMap<Integer, long[]> MILLIS = new HashMap<>();
+    private static final HashMap<Integer, String[]> DATES = new HashMap<>();
+    private static final HashMap<Integer, String[]> RRULES = new HashMap<>();
+    private static final HashMap<Integer, List<String>> IDS = new HashMap<>();
+
+    @AfterClass
+    public static void writeReport() throws Exception {
+        benchmark.writeReport();
+    }
+
+    @Test
+    public void formatDates() throws Exception {
+        benchmark.run("IsoDateFormat.format", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                long[] millis = millis(rows);
+                String[] dates = new String[rows];
+                for (int i = 0; i < rows; i++) {
+                    dates[i] = IsoDateFormat.format(millis[i]);
+                }
+                return dates;
+            }
+        });
+    }
+
+    @Test
+    public void parseDates() throws Exception {
+        benchmark.run("IsoDateFormat.parse", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) throws Exception {
+                String[] dates = dates(rows);
+                long sum = 0;
+                for (int i = 0; i < rows; i++) {
+                    sum += IsoDateFormat.parse(dates[i]);
+                }
+                return sum;
+            }
+        });
+    }
+
+    // The SimpleDateFormat and Calendar code IsoDateFormat replaced, with a new formatter per call the way
+    // serializeEvent and addEvent created them: the reference for the two IsoDateFormat benchmarks above.
+
+    @Test
+    public void formatDatesWithSimpleDateFormat() throws Exception {
+        benchmark.run("SimpleDateFormat.format", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                long[] millis = millis(rows);
+                String[] dates = new String[rows];
+                for (int i = 0; i < rows; i++) {
+                    SimpleDateFormat sdf = new SimpleDateFormat(ISO_PATTERN);
+                    sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+                    Calendar date = Calendar.getInstance();
+                    date.setTimeInMillis(millis[i]);
+                    dates[i] = sdf.format(date.getTime());
+                }
+                return dates;
+            }
+        });
+    }
+
+    @Test
+    public void parseDatesWithSimpleDateFormat() throws Exception {
+        benchmark.run("SimpleDateFormat.parse", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) throws Exception {
+                String[] dates = dates(rows);
+                long sum = 0;
+                for (int i = 0; i < rows; i++) {
+                    SimpleDateFormat sdf = new SimpleDateFormat(ISO_PATTERN);
+                    sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+                    Calendar date = Calendar.getInstance();
+                    date.setTime(sdf.parse(dates[i]));
+                    sum += date.getTimeInMillis();
+                }
+                return sum;
+            }
+        });
+    }
+
+    @Test
+    public void parseRecurrenceRules() throws Exception {
+        // a distinct UNTIL per rule, so sizes past the cache measure the parser rather than the cache
+        benchmark.run("RecurrenceRule.parse", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                String[] rrules = rrules(rows);
+                RecurrenceRule[] rules = new RecurrenceRule[rows];
+                for (int i = 0; i < rows; i++) {
+                    rules[i] = RecurrenceRule.parse(rrules[i]);
+                }
+                return rules;
+            }
+        });
+    }
+
+    @Test
+    public void createRecurrenceRules() throws Exception {
+        final String[] byDay = new String[]{"MO", "WE", "FR"};
+
+        // what createRecurrenceRule builds from the recurrenceRule of saveEvent
+        benchmark.run("RecurrenceRule.toString", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                String[] rrules = new String[rows];
+                for (int i = 0; i < rows; i++) {
+                    rrules[i] = new RecurrenceRule("WEEKLY", i % 4 + 1, null, i + 1, byDay, null, "MO", null).toString();
+                }
+                return rrules;
+            }
+        });
+    }
+
+    @Test
+    public void selectEventIds() throws Exception {
+        benchmark.run("Selection.whereIn", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                List<Selection> selections = new ArrayList<>();
+                for (List<String> chunk : Selection.inChunks(ids(rows))) {
+                    Selection selection = new Selection().whereIn("event_id", chunk);
+                    selection.sql();
+                    selection.args();
+                    selections.add(selection);
+                }
+                return selections;
+            }
+        });
+    }
+
+    private static long[] millis(int rows) {
+        long[] millis = MILLIS.get(rows);
+        if (millis == null) {
+            millis = new long[rows];
+            for (int i = 0; i < rows; i++) {
+                millis[i] = SyntheticEvents.START + i * 37L * 60 * 1000;
+            }
+            MILLIS.put(rows, millis);
+        }
+        return millis;
+    }
+
+    private static String[] dates(int rows) {
+        String[] dates = DATES.get(rows);
+        if (dates == null) {
+            long[] millis = millis(rows);
+            dates = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                dates[i] = IsoDateFormat.format(millis[i]);
+            }
+            DATES.put(rows, dates);
+        }
+        return dates;
+    }
+
+    private static String[] rrules(int rows) {
+        String[] rrules = RRULES.get(rows);
+        if (rrules == null) {
+            long[] millis = millis(rows);
+            rrules = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                rrules[i] = "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;UNTIL=" + IsoDateFormat.formatRRuleDate(millis[i], null) + ";WKST=MO";
+            }
+            RRULES.put(rows, rrules);
+        }
+        return rrules;
+    }
+
+    private static List<String> ids(int rows) {
+        List<String> ids = IDS.get(rows);
+        if (ids == null) {
+            ids = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                ids.add(String.valueOf(100000 + i));
+            }
+            IDS.put(rows, ids);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,160 @@
+package com.calendarevents;
+
+import android.database.Cursor;
+import android.os.CancellationSignal;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * EventSerializer over synthetic instances at every size in Benchmark.SIZES. One operation serializes all the
+ * rows of a cursor, or all the calendars of a listing.
+ */
+public class SerializerBenchmark {
+
+    private static final Benchmark benchmark = new Benchmark("SerializerBenchmark");
+    private static final EventSerializer serializer = new EventSerializer(SyntheticEvents.JAVA_ONLY);
+    private static final HashMap<Integer, EventAssociations> ASSOCIATIONS = new HashMap<>();
+    private static final HashMap<Integer, List<CalendarRow>> CALENDARS = new HashMap<>();
+
+    @AfterClass
+    public static void writeReport() throws Exception {
+        benchmark.writeReport();
+    }
+
+    // The two formats of findEvents, on the same rows. Besides time and allocation they report the calls a
+    // device would make into the native maps and arrays.
+
+    @Test
+    public void serializeEvents() throws Exception {
+        final BridgeCallCounter counter = new BridgeCallCounter();
+        final EventSerializer serializer = new EventSerializer(counter);
+
+        benchmark.run("serializeEvents", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                return serializer.serializeEvents(SyntheticEvents.instances(rows), EventFields.ALL, associations(rows), ReadRequest.NONE);
+            }
+        }, counter);
+    }
+
+    @Test
+    public void serializeEventsColumnar() throws Exception {
+        final BridgeCallCounter counter = new BridgeCallCounter();
+        final EventSerializer serializer = new EventSerializer(counter);
+
+        benchmark.run("serializeEventsColumnar", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                return serializer.serializeEventsColumnar(SyntheticEvents.instances(rows), EventFields.ALL, associations(rows), ReadRequest.NONE);
+            }
+        }, counter);
+    }
+
+    @Test
+    public void serializeEventsWithListFields() throws Exception {
+        final EventFields fields = EventFields.of(EventFields.TITLE, EventFields.START_DATE, EventFields.END_DATE, EventFields.ALL_DAY);
+        final BridgeCallCounter counter = new BridgeCallCounter();
+        final EventSerializer serializer = new EventSerializer(counter);
+
+        benchmark.run("serializeEvents.listFields", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                return serializer.serializeEvents(SyntheticEvents.instances(rows), fields, new EventAssociations(), ReadRequest.NONE);
+            }
+        }, counter);
+    }
+
+    @Test
+    public void serializeEventsColumnarWithListFields() throws Exception {
+        final EventFields fields = EventFields.of(EventFields.TITLE, EventFields.START_DATE, EventFields.END_DATE, EventFields.ALL_DAY);
+        final BridgeCallCounter counter = new BridgeCallCounter();
+        final EventSerializer serializer = new EventSerializer(counter);
+
+        benchmark.run("serializeEventsColumnar.listFields", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                return serializer.serializeEventsColumnar(SyntheticEvents.instances(rows), fields, new EventAssociations(), ReadRequest.NONE);
+            }
+        }, counter);
+    }
+
+    @Test
+    public void serializeEventCalendar() throws Exception {
+        benchmark.run("serializeEventCalendar", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                return serializer.serializeEventCalendars(calendars(rows));
+            }
+        });
+    }
+
+    @Test
+    public void calendarAllowedAvailabilitiesFromDBString() throws Exception {
+        benchmark.run("calendarAllowedAvailabilitiesFromDBString", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                List<CalendarRow> calendars = calendars(rows);
+                List<Object> results = new ArrayList<>(calendars.size());
+                for (CalendarRow calendar : calendars) {
+                    results.add(serializer.calendarAllowedAvailabilitiesFromDBString(calendar.allowedAvailability));
+                }
+                return results;
+            }
+        });
+    }
+
+    @Test
+    public void loadAssociations() throws Exception {
+        final EventAssociations.Source source = new EventAssociations.Source() {
+            @Override
+            public Cursor queryAttendees(Selection selection, CancellationSignal signal) {
+                return FakeCursor.of(EventAssociations.ATTENDEE_PROJECTION, new Object[0][]);
+            }
+
+            @Override
+            public Cursor queryReminders(Selection selection, CancellationSignal signal) {
+                return FakeCursor.of(EventAssociations.REMINDER_PROJECTION, new Object[0][]);
+            }
+
+            @Override
+            public HashMap<String, CalendarRow> calendars() {
+                return SyntheticEvents.calendars();
+            }
+        };
+
+        // the id collection and the chunked selections, with providers that answer at once
+        benchmark.run("EventAssociations.load", new Benchmark.Operation() {
+            @Override
+            public Object run(int rows) {
+                return EventAssociations.load(source, SyntheticEvents.instances(rows), EventFields.ALL, Integer.MAX_VALUE, ReadRequest.NONE);
+            }
+        });
+    }
+
+    // built once per size, outside the measured operations
+    private static EventAssociations associations(int rows) {
+        EventAssociations associations = ASSOCIATIONS.get(rows);
+        if (associations == null) {
+            associations = SyntheticEvents.associations(rows);
+            ASSOCIATIONS.put(rows, associations);
+        }
+        return associations;
+    }
+
+    private static List<CalendarRow> calendars(int rows) {
+        List<CalendarRow> calendars = CALENDARS.get(rows);
+        if (calendars == null) {
+            calendars = new ArrayList<>(rows);
+            for (int i = 1; i <= rows; i++) {
+                calendars.add(SyntheticEvents.calendar(i));
+            }
+            CALENDARS.put(rows, calendars);
+        }
+        return calendars;
+    }
+}
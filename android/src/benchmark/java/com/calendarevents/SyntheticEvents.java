@@ -0,0 +1,121 @@
+package com.calendarevents;
+
+import android.database.Cursor;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Instances rows, calendars, attendees and reminders shaped like a busy calendar, for the benchmarks: five
+ * calendars, two attendees per event, reminders on every other event and a recurrence rule on every fourth.
+ */
+final class SyntheticEvents {
+
+    static final long START = 1767225600000L; // 2026-01-01T00:00:00Z
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final int CALENDARS = 5;
+
+    private static final String[] RRULES = new String[]{
+            "FREQ=WEEKLY;BYDAY=MO,WE,FR;UNTIL=20271231T235959Z",
+            "FREQ=DAILY;COUNT=10",
+            "FREQ=MONTHLY;INTERVAL=2;BYDAY=TU;BYSETPOS=2",
+            "FREQ=YEARLY;WKST=MO"
+    };
+
+    /** Maps and arrays that live on the JVM heap, the way WritableNative* live in native memory. */
+    static final EventSerializer.Factory JAVA_ONLY = new EventSerializer.Factory() {
+        @Override
+        public WritableMap createMap() {
+            return new JavaOnlyMap();
+        }
+
+        @Override
+        public WritableArray createArray() {
+            return new JavaOnlyArray();
+        }
+    };
+
+    private static final HashMap<Integer, Object[][]> ROWS = new HashMap<>();
+
+    /** A fresh cursor over count instances rows in EventFields.INSTANCES_PROJECTION, before the first row. */
+    static Cursor instances(int count) {
+        Object[][] rows = ROWS.get(count);
+        if (rows == null) {
+            rows = new Object[count][];
+            for (int i = 0; i < count; i++) {
+                long begin = START + i * HOUR / 2;
+                boolean recurring = i % 4 == 0;
+                rows[i] = new Object[]{
+                        String.valueOf(i),
+                        "Event " + i,
+                        i % 3 == 0 ? "Notes for event " + i : null,
+                        begin,
+                        begin + HOUR,
+                        i % 10 == 0 ? 1 : 0,
+                        i % 2 == 0 ? "Room " + (i % 50) : null,
+                        recurring ? RRULES[(i / 4) % RRULES.length] : null,
+                        String.valueOf(i % CALENDARS + 1),
+                        i % 3,
+                        i % 2 == 0 ? 1 : 0,
+                        null,
+                        String.valueOf(i),
+                        recurring ? "PT1H" : null,
+                        null
+                };
+            }
+            ROWS.put(count, rows);
+        }
+
+        return FakeCursor.of(EventFields.INSTANCES_PROJECTION, rows);
+    }
+
+    /** The associations of the first count events of instances(count), as EventAssociations.load leaves them. */
+    static EventAssociations associations(int count) {
+        EventAssociations associations = new EventAssociations();
+        associations.calendars = calendars();
+
+        for (int i = 0; i < count; i++) {
+            String eventID = String.valueOf(i);
+            ArrayList<String[]> attendees = new ArrayList<>();
+            attendees.add(new String[]{"Organizer " + i, "organizer" + i + "@example.com", "1", "2", "1", null, null});
+            attendees.add(new String[]{"Guest " + i, "guest" + i + "@example.com", "1", "1", "3", null, null});
+            associations.attendees.put(eventID, attendees);
+
+            if (i % 2 == 0) {
+                ArrayList<Integer> reminders = new ArrayList<>();
+                reminders.add(10);
+                reminders.add(60);
+                associations.reminders.put(eventID, reminders);
+            }
+        }
+
+        return associations;
+    }
+
+    static HashMap<String, CalendarRow> calendars() {
+        HashMap<String, CalendarRow> calendars = new HashMap<>();
+        for (int i = 1; i <= CALENDARS; i++) {
+            calendars.put(String.valueOf(i), calendar(i));
+        }
+        return calendars;
+    }
+
+    static CalendarRow calendar(int i) {
+        CalendarRow row = new CalendarRow();
+        row.id = String.valueOf(i);
+        row.title = "Calendar " + i;
+        row.source = "user" + i + "@example.com";
+        row.isPrimary = i == 1 ? "1" : "0";
+        row.accessLevel = 700;
+        // some providers store the names instead of the constants
+        row.allowedAvailability = i % 2 == 0 ? "AVAILABILITY_BUSY,AVAILABILITY_FREE" : "0,1,2";
+        row.type = "com.google";
+        row.color = 0x3F51B5 + i;
+        return row;
+    }
+}
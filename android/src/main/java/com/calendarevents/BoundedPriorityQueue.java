@@ -0,0 +1,95 @@
+package com.calendarevents;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A PriorityBlockingQueue that holds at most capacity elements, for the executor queue: offer() returns false
+ * once it is full and the executor rejects the task.
+ *
+ * A slot is reserved before an element goes in and given back when one comes out, so that concurrent offers never
+ * overshoot the capacity the way a size() check followed by an insert can. Elements leave through poll, take,
+ * remove, drainTo and clear; removing through the iterator or removeAll/retainAll leaks the slot and is not used
+ * by ThreadPoolExecutor as configured here.
+ */
+final class BoundedPriorityQueue<E> extends PriorityBlockingQueue<E> {
+
+    private final Semaphore slots;
+
+    BoundedPriorityQueue(int capacity) {
+        this.slots = new Semaphore(capacity);
+    }
+
+    @Override
+    public boolean offer(E element) {
+        if (!slots.tryAcquire()) {
+            return false;
+        }
+
+        boolean added = false;
+        try {
+            added = super.offer(element);
+        } finally {
+            if (!added) {
+                slots.release();
+            }
+        }
+        return added;
+    }
+
+    @Override
+    public E poll() {
+        return released(super.poll());
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return released(super.poll(timeout, unit));
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return released(super.take());
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        if (super.remove(element)) {
+            slots.release();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> collection, int maxElements) {
+        int drained = super.drainTo(collection, maxElements);
+        slots.release(drained);
+        return drained;
+    }
+
+    @Override
+    public void clear() {
+        drainTo(new ArrayList<E>());
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return slots.availablePermits();
+    }
+
+    private E released(E element) {
+        if (element != null) {
+            slots.release();
+        }
+        return element;
+    }
+}
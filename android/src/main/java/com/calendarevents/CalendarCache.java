@@ -0,0 +1,189 @@
+package com.calendarevents;
+
+import android.content.ContentResolver;
+import android.content.ContentUris;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.os.CancellationSignal;
+import android.provider.CalendarContract;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calendar rows keyed by calendar id, so serializing events does not query the calendars table once per event.
+ *
+ * The cache is filled with one scan of the calendars table and dropped whenever the provider reports a change
+ * under Calendars.CONTENT_URI. A load that races with a change is returned to its caller but not kept.
+ *
+ * Provider queries run outside the monitor, so a slow query never blocks readers of the cached rows: calls that
+ * miss together each query, and the generation check decides whether a result may be kept.
+ */
+final class CalendarCache {
+
+    private final ContentResolver resolver;
+    private final String[] projection;
+    private final PerformanceStats performanceStats;
+
+    // bumped on every change notification, a load only stores its rows when it is unchanged
+    private final AtomicInteger generation = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final ContentObserver observer = new ContentObserver(null) {
+        @Override
+        public void onChange(boolean selfChange) {
+            invalidate();
+        }
+    };
+
+    private LinkedHashMap<String, CalendarRow> rows;
+    private boolean observing;
+
+    CalendarCache(ContentResolver resolver, String[] projection, PerformanceStats performanceStats) {
+        this.resolver = resolver;
+        this.projection = projection;
+        this.performanceStats = performanceStats;
+    }
+
+    /** The calendar with the given id, or null when there is none. */
+    CalendarRow get(String calendarID) {
+        boolean complete;
+        synchronized (this) {
+            if (rows != null && rows.containsKey(calendarID)) {
+                hits.incrementAndGet();
+                return rows.get(calendarID);
+            }
+            complete = rows != null;
+        }
+
+        misses.incrementAndGet();
+
+        if (!complete) {
+            LinkedHashMap<String, CalendarRow> loaded = load(null);
+            if (loaded.containsKey(calendarID)) {
+                return loaded.get(calendarID);
+            }
+        }
+
+        // not in a complete scan: either a calendar created since, or an id that does not exist
+        int loadGeneration = generation.get();
+        CalendarRow row = null;
+        Cursor cursor = performanceStats.query(resolver, "query.calendar", ContentUris.withAppendedId(CalendarContract.Calendars.CONTENT_URI, Long.parseLong(calendarID)), projection, null, null, null);
+
+        if (cursor != null && cursor.moveToFirst()) {
+            row = CalendarRow.fromCursor(cursor);
+        }
+        if (cursor != null) {
+            cursor.close();
+        }
+
+        synchronized (this) {
+            if (row != null && rows != null && loadGeneration == generation.get()) {
+                rows.put(row.id, row);
+            }
+        }
+
+        return row;
+    }
+
+    /** Every calendar, keyed by id. The returned map is a copy. */
+    HashMap<String, CalendarRow> all() {
+        synchronized (this) {
+            if (rows != null) {
+                hits.incrementAndGet();
+                return new HashMap<>(rows);
+            }
+        }
+
+        misses.incrementAndGet();
+        return new HashMap<>(load(null));
+    }
+
+    /**
+     * Queries every calendar, in provider order, and keeps the result when no change was reported meanwhile.
+     * Used by findCalendars so an explicit listing always reads the provider and refreshes the cache.
+     */
+    List<CalendarRow> reload(CancellationSignal signal) {
+        return new ArrayList<>(load(signal).values());
+    }
+
+    void invalidate() {
+        generation.incrementAndGet();
+        invalidations.incrementAndGet();
+        synchronized (this) {
+            rows = null;
+        }
+    }
+
+    /** Stops observing the provider, the cache is not used afterwards. */
+    synchronized void close() {
+        generation.incrementAndGet();
+        if (observing) {
+            resolver.unregisterContentObserver(observer);
+            observing = false;
+        }
+        rows = null;
+    }
+
+    long hitCount() {
+        return hits.get();
+    }
+
+    long missCount() {
+        return misses.get();
+    }
+
+    long invalidationCount() {
+        return invalidations.get();
+    }
+
+    synchronized int size() {
+        return rows == null ? 0 : rows.size();
+    }
+
+    private LinkedHashMap<String, CalendarRow> load(CancellationSignal signal) {
+        boolean observed = observe();
+        int loadGeneration = generation.get();
+        LinkedHashMap<String, CalendarRow> loaded = new LinkedHashMap<>();
+
+        Cursor cursor = performanceStats.query(resolver, "query.calendars", CalendarContract.Calendars.CONTENT_URI, projection, null, null, null, signal);
+
+        while (cursor != null && cursor.moveToNext()) {
+            CalendarRow calendar = CalendarRow.fromCursor(cursor);
+            loaded.put(calendar.id, calendar);
+        }
+
+        if (cursor != null) {
+            cursor.close();
+        }
+
+        // without an observer nothing would ever invalidate the rows, so they are not kept
+        synchronized (this) {
+            if (observed && loadGeneration == generation.get()) {
+                rows = loaded;
+            }
+        }
+
+        return loaded;
+    }
+
+    private synchronized boolean observe() {
+        if (!observing) {
+            try {
+                resolver.registerContentObserver(CalendarContract.Calendars.CONTENT_URI, true, observer);
+                observing = true;
+            } catch (SecurityException e) {
+                Log.d("RNCalendarEvents", "Could not observe calendar changes, calendars will not be cached", e);
+            }
+        }
+
+        return observing;
+    }
+}
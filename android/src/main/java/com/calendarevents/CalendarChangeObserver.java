@@ -0,0 +1,116 @@
+package com.calendarevents;
+
+import android.content.ContentResolver;
+import android.database.ContentObserver;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.provider.CalendarContract;
+
+/**
+ * Watches the events and instances tables while at least one JS listener is subscribed, and reports bursts
+ * of provider notifications (a sync adapter run, a bulk save) as a single change.
+ *
+ * A change is reported once notifications stop for DEBOUNCE_MILLIS, or at the latest MAX_DELAY_MILLIS after
+ * the first notification of a burst that keeps going.
+ */
+final class CalendarChangeObserver {
+
+    interface Listener {
+        void onCalendarChanged(int notifications);
+    }
+
+    static final long DEBOUNCE_MILLIS = 500;
+    static final long MAX_DELAY_MILLIS = 5000;
+
+    private final ContentResolver resolver;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private final ContentObserver observer = new ContentObserver(null) {
+        @Override
+        public void onChange(boolean selfChange) {
+            notified();
+        }
+    };
+
+    private final Runnable report = new Runnable() {
+        @Override
+        public void run() {
+            int notifications;
+            synchronized (CalendarChangeObserver.this) {
+                notifications = pendingNotifications;
+                pendingNotifications = 0;
+                if (notifications == 0 || subscribers == 0) {
+                    return;
+                }
+            }
+            listener.onCalendarChanged(notifications);
+        }
+    };
+
+    private int subscribers;
+    private int pendingNotifications;
+    private long burstStart;
+
+    CalendarChangeObserver(ContentResolver resolver, Listener listener) {
+        this.resolver = resolver;
+        this.listener = listener;
+    }
+
+    /** Registers the observer for the first subscriber. Throws SecurityException without calendar access. */
+    synchronized void subscribe() {
+        if (subscribers == 0) {
+            resolver.registerContentObserver(CalendarContract.Events.CONTENT_URI, true, observer);
+            try {
+                resolver.registerContentObserver(CalendarContract.Instances.CONTENT_URI, true, observer);
+            } catch (RuntimeException e) {
+                resolver.unregisterContentObserver(observer);
+                throw e;
+            }
+        }
+        subscribers++;
+    }
+
+    /** Unregisters the observer when the last subscriber leaves. Extra calls are ignored. */
+    synchronized void unsubscribe() {
+        if (subscribers == 0) {
+            return;
+        }
+
+        subscribers--;
+        if (subscribers == 0) {
+            stop();
+        }
+    }
+
+    synchronized void close() {
+        if (subscribers > 0) {
+            subscribers = 0;
+            stop();
+        }
+    }
+
+    private void stop() {
+        resolver.unregisterContentObserver(observer);
+        handler.removeCallbacks(report);
+        pendingNotifications = 0;
+    }
+
+    private synchronized void notified() {
+        if (subscribers == 0) {
+            return;
+        }
+
+        long now = SystemClock.uptimeMillis();
+        if (pendingNotifications == 0) {
+            burstStart = now;
+        }
+        pendingNotifications++;
+
+        // keep pushing the report back while the burst goes on, up to MAX_DELAY_MILLIS after it started
+        long reportAt = Math.min(now + DEBOUNCE_MILLIS, burstStart + MAX_DELAY_MILLIS);
+        handler.removeCallbacks(report);
+        handler.postAtTime(report, reportAt);
+    }
+}
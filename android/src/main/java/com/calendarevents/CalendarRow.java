@@ -0,0 +1,39 @@
+package com.calendarevents;
+
+import android.database.Cursor;
+import android.util.Log;
+
+/**
+ * Snapshot of a calendars row, read with the same accessors serializeEventCalendar used on the cursor so the
+ * row can outlive its cursor and be serialized once per event.
+ */
+final class CalendarRow {
+    String id;
+    String title;
+    String source;
+    String isPrimary;
+    int accessLevel;
+    String allowedAvailability;
+    String type;
+    Integer color;
+
+    static CalendarRow fromCursor(Cursor cursor) {
+        CalendarRow row = new CalendarRow();
+
+        row.id = cursor.getString(0);
+        row.title = cursor.getString(1);
+        row.source = cursor.getString(2);
+        row.isPrimary = cursor.getString(3);
+        row.accessLevel = cursor.getInt(4);
+        row.allowedAvailability = cursor.getString(5);
+        row.type = cursor.getString(6);
+
+        try {
+            row.color = cursor.getInt(7);
+        } catch (Exception e) {
+            Log.d("RNCalendarEvents", "Error parsing calendar color", e);
+        }
+
+        return row;
+    }
+}
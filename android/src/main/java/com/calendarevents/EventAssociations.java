@@ -0,0 +1,164 @@
+package com.calendarevents;
+
+import android.database.Cursor;
+import android.os.CancellationSignal;
+import android.provider.CalendarContract;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * The calendars, attendees and reminders of a batch of events, keyed by calendar or event id.
+ *
+ * They are loaded with one query per table (chunked on the event ids) instead of three queries per event, and
+ * looked up while the events are serialized.
+ */
+final class EventAssociations {
+
+    static final String[] ATTENDEE_PROJECTION = new String[]{
+            CalendarContract.Attendees._ID,
+            CalendarContract.Attendees.EVENT_ID,
+            CalendarContract.Attendees.ATTENDEE_NAME,
+            CalendarContract.Attendees.ATTENDEE_EMAIL,
+            CalendarContract.Attendees.ATTENDEE_TYPE,
+            CalendarContract.Attendees.ATTENDEE_RELATIONSHIP,
+            CalendarContract.Attendees.ATTENDEE_STATUS,
+            CalendarContract.Attendees.ATTENDEE_IDENTITY,
+            CalendarContract.Attendees.ATTENDEE_ID_NAMESPACE
+    };
+
+    static final String[] REMINDER_PROJECTION = new String[]{
+            CalendarContract.Reminders.EVENT_ID,
+            CalendarContract.Reminders.MINUTES,
+            CalendarContract.Reminders.METHOD
+    };
+
+    /** Where the associated rows are read from, the provider in the module. */
+    interface Source {
+        /** ATTENDEE_PROJECTION rows of the attendees matching the selection. */
+        Cursor queryAttendees(Selection selection, CancellationSignal signal);
+
+        /** REMINDER_PROJECTION rows of the reminders matching the selection. */
+        Cursor queryReminders(Selection selection, CancellationSignal signal);
+
+        /** Every calendar, keyed by id. */
+        HashMap<String, CalendarRow> calendars();
+    }
+
+    HashMap<String, CalendarRow> calendars = new HashMap<>();
+    HashMap<String, ArrayList<String[]>> attendees = new HashMap<>();
+    HashMap<String, ArrayList<Integer>> reminders = new HashMap<>();
+
+    /**
+     * Loads the associations of the first maxRows events in the cursor, from the current position on. Only the
+     * tables behind the requested fields are queried, and reminders only for events with HAS_ALARM set. The cursor
+     * is moved back to where it was before returning.
+     */
+    static EventAssociations load(Source source, Cursor cursor, EventFields fields, int maxRows, ReadRequest request) {
+        EventAssociations associations = new EventAssociations();
+        if (!fields.has(EventFields.CALENDAR) && !fields.has(EventFields.ATTENDEES) && !fields.has(EventFields.ALARMS)) {
+            return associations;
+        }
+
+        LinkedHashSet<String> eventIDs = new LinkedHashSet<>();
+        LinkedHashSet<String> alarmEventIDs = new LinkedHashSet<>();
+        int hasAlarmColumn = cursor.getColumnIndex(CalendarContract.Events.HAS_ALARM);
+        int position = cursor.getPosition();
+        int rows = 0;
+
+        while (rows++ < maxRows && cursor.moveToNext()) {
+            String eventID = cursor.getString(0);
+            eventIDs.add(eventID);
+            if (hasAlarmColumn != -1 && cursor.getInt(hasAlarmColumn) > 0) {
+                alarmEventIDs.add(eventID);
+            }
+        }
+        cursor.moveToPosition(position);
+
+        if (eventIDs.isEmpty()) {
+            return associations;
+        }
+
+        if (fields.has(EventFields.CALENDAR)) {
+            associations.calendars = source.calendars();
+        }
+        if (fields.has(EventFields.ATTENDEES)) {
+            associations.attendees = loadAttendees(source, new ArrayList<>(eventIDs), request);
+        }
+        if (fields.has(EventFields.ALARMS)) {
+            associations.reminders = loadReminders(source, new ArrayList<>(alarmEventIDs), request);
+        }
+
+        return associations;
+    }
+
+    /** The name, email, type, relationship, status, identity and id namespace of an ATTENDEE_PROJECTION row. */
+    static String[] attendeeRow(Cursor cursor) {
+        return new String[]{
+                cursor.getString(2),
+                cursor.getString(3),
+                cursor.getString(4),
+                cursor.getString(5),
+                cursor.getString(6),
+                cursor.getString(7),
+                cursor.getString(8)
+        };
+    }
+
+    private static HashMap<String, ArrayList<String[]>> loadAttendees(Source source, ArrayList<String> eventIDs, ReadRequest request) {
+        HashMap<String, ArrayList<String[]>> results = new HashMap<>();
+
+        for (List<String> chunk : Selection.inChunks(eventIDs)) {
+            request.throwIfCancelled();
+            Cursor cursor = source.queryAttendees(new Selection().whereIn(CalendarContract.Attendees.EVENT_ID, chunk), request.signal());
+
+            while (cursor != null && cursor.moveToNext()) {
+                String eventID = cursor.getString(1);
+                ArrayList<String[]> attendees = results.get(eventID);
+                if (attendees == null) {
+                    attendees = new ArrayList<>();
+                    results.put(eventID, attendees);
+                }
+                attendees.add(attendeeRow(cursor));
+            }
+
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        return results;
+    }
+
+    private static HashMap<String, ArrayList<Integer>> loadReminders(Source source, ArrayList<String> eventIDs, ReadRequest request) {
+        HashMap<String, ArrayList<Integer>> results = new HashMap<>();
+
+        for (List<String> chunk : Selection.inChunks(eventIDs)) {
+            request.throwIfCancelled();
+            Cursor cursor = source.queryReminders(new Selection().whereIn(CalendarContract.Reminders.EVENT_ID, chunk), request.signal());
+
+            while (cursor != null && cursor.moveToNext()) {
+                String eventID = cursor.getString(0);
+                ArrayList<Integer> reminders = results.get(eventID);
+                if (reminders == null) {
+                    reminders = new ArrayList<>();
+                    results.put(eventID, reminders);
+                }
+                try {
+                    reminders.add(cursor.getInt(1));
+                } catch (Exception e) {
+                    Log.d("RNCalendarEvents", "Error parsing event minutes", e);
+                }
+            }
+
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+
+        return results;
+    }
+}
@@ -0,0 +1,50 @@
+package com.calendarevents;
+
+import android.database.Cursor;
+import android.provider.CalendarContract;
+
+/**
+ * Column positions of an events or instances cursor, resolved once per cursor since the projection
+ * depends on the requested fields. Columns missing from the projection are -1.
+ */
+final class EventColumns {
+    int title;
+    int description;
+    int start;
+    int end;
+    int allDay;
+    int location;
+    int rrule;
+    int calendarId;
+    int availability;
+    int hasAlarm;
+    int originalId;
+    int duration;
+    int syncId;
+
+    static EventColumns fromCursor(Cursor cursor) {
+        EventColumns columns = new EventColumns();
+
+        columns.title = cursor.getColumnIndex(CalendarContract.Events.TITLE);
+        columns.description = cursor.getColumnIndex(CalendarContract.Events.DESCRIPTION);
+        columns.start = cursor.getColumnIndex(CalendarContract.Instances.BEGIN);
+        if (columns.start == -1) {
+            columns.start = cursor.getColumnIndex(CalendarContract.Events.DTSTART);
+        }
+        columns.end = cursor.getColumnIndex(CalendarContract.Instances.END);
+        if (columns.end == -1) {
+            columns.end = cursor.getColumnIndex(CalendarContract.Events.DTEND);
+        }
+        columns.allDay = cursor.getColumnIndex(CalendarContract.Events.ALL_DAY);
+        columns.location = cursor.getColumnIndex(CalendarContract.Events.EVENT_LOCATION);
+        columns.rrule = cursor.getColumnIndex(CalendarContract.Events.RRULE);
+        columns.calendarId = cursor.getColumnIndex(CalendarContract.Events.CALENDAR_ID);
+        columns.availability = cursor.getColumnIndex(CalendarContract.Events.AVAILABILITY);
+        columns.hasAlarm = cursor.getColumnIndex(CalendarContract.Events.HAS_ALARM);
+        columns.originalId = cursor.getColumnIndex(CalendarContract.Events.ORIGINAL_ID);
+        columns.duration = cursor.getColumnIndex(CalendarContract.Events.DURATION);
+        columns.syncId = cursor.getColumnIndex(CalendarContract.Instances.ORIGINAL_SYNC_ID);
+
+        return columns;
+    }
+}
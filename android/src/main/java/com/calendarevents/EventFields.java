@@ -0,0 +1,186 @@
+package com.calendarevents;
+
+import android.provider.CalendarContract;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * The event fields a caller asked for through the `fields` option, and the provider columns needed to
+ * serialize them. Without a `fields` option every field is serialized, from the full projections.
+ */
+final class EventFields {
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String DESCRIPTION = "description";
+    static final String START_DATE = "startDate";
+    static final String END_DATE = "endDate";
+    static final String ALL_DAY = "allDay";
+    static final String LOCATION = "location";
+    static final String AVAILABILITY = "availability";
+    static final String RECURRENCE = "recurrence";
+    static final String RECURRENCE_RULE = "recurrenceRule";
+    static final String CALENDAR = "calendar";
+    static final String CALENDAR_ID = "calendarId";
+    static final String ATTENDEES = "attendees";
+    static final String ALARMS = "alarms";
+    static final String ORIGINAL_ID = "originalId";
+    static final String SYNC_ID = "syncId";
+
+    static final EventFields ALL = new EventFields(null);
+
+    static final String[] INSTANCES_PROJECTION = new String[]{
+            CalendarContract.Instances.EVENT_ID,
+            CalendarContract.Instances.TITLE,
+            CalendarContract.Instances.DESCRIPTION,
+            CalendarContract.Instances.BEGIN,
+            CalendarContract.Instances.END,
+            CalendarContract.Instances.ALL_DAY,
+            CalendarContract.Instances.EVENT_LOCATION,
+            CalendarContract.Instances.RRULE,
+            CalendarContract.Instances.CALENDAR_ID,
+            CalendarContract.Instances.AVAILABILITY,
+            CalendarContract.Instances.HAS_ALARM,
+            CalendarContract.Instances.ORIGINAL_ID,
+            CalendarContract.Instances.EVENT_ID,
+            CalendarContract.Instances.DURATION,
+            CalendarContract.Instances.ORIGINAL_SYNC_ID,
+    };
+
+    static final String[] EVENTS_PROJECTION = new String[]{
+            CalendarContract.Events._ID,
+            CalendarContract.Events.TITLE,
+            CalendarContract.Events.DESCRIPTION,
+            CalendarContract.Events.DTSTART,
+            CalendarContract.Events.DTEND,
+            CalendarContract.Events.ALL_DAY,
+            CalendarContract.Events.EVENT_LOCATION,
+            CalendarContract.Events.RRULE,
+            CalendarContract.Events.CALENDAR_ID,
+            CalendarContract.Events.AVAILABILITY,
+            CalendarContract.Events.HAS_ALARM,
+            CalendarContract.Instances.DURATION
+    };
+
+    // null means every field
+    private final HashSet<String> fields;
+
+    private EventFields(HashSet<String> fields) {
+        this.fields = fields;
+    }
+
+    static EventFields fromOptions(ReadableMap options) {
+        if (options == null || !options.hasKey("fields") || options.isNull("fields")) {
+            return ALL;
+        }
+
+        ReadableArray requested = options.getArray("fields");
+        HashSet<String> fields = new HashSet<>();
+        fields.add(ID);
+        for (int i = 0; i < requested.size(); i++) {
+            fields.add(requested.getString(i));
+        }
+
+        return new EventFields(fields);
+    }
+
+    static EventFields of(String... names) {
+        HashSet<String> fields = new HashSet<>();
+        fields.add(ID);
+        for (String name : names) {
+            fields.add(name);
+        }
+
+        return new EventFields(fields);
+    }
+
+    boolean isAll() {
+        return fields == null;
+    }
+
+    boolean has(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    // true only when the field was explicitly asked for, for fields that are not part of the default shape
+    boolean requested(String field) {
+        return fields != null && fields.contains(field);
+    }
+
+    boolean hasRecurrence() {
+        return has(RECURRENCE) || has(RECURRENCE_RULE);
+    }
+
+    boolean hasCalendar() {
+        return has(CALENDAR) || requested(CALENDAR_ID);
+    }
+
+    String[] instancesProjection() {
+        if (isAll()) {
+            return INSTANCES_PROJECTION;
+        }
+
+        return projection(CalendarContract.Instances.EVENT_ID, CalendarContract.Instances.BEGIN, CalendarContract.Instances.END, true);
+    }
+
+    String[] eventsProjection() {
+        if (isAll()) {
+            return EVENTS_PROJECTION;
+        }
+
+        return projection(CalendarContract.Events._ID, CalendarContract.Events.DTSTART, CalendarContract.Events.DTEND, false);
+    }
+
+    // the id column always comes first, serializeEvent reads it by position
+    private String[] projection(String idColumn, String startColumn, String endColumn, boolean instances) {
+        List<String> columns = new ArrayList<>();
+        columns.add(idColumn);
+
+        if (has(TITLE)) {
+            columns.add(CalendarContract.Events.TITLE);
+        }
+        if (has(DESCRIPTION)) {
+            columns.add(CalendarContract.Events.DESCRIPTION);
+        }
+        if (has(START_DATE) || has(ALARMS)) {
+            columns.add(startColumn);
+        }
+        if (has(END_DATE)) {
+            columns.add(endColumn);
+        }
+        if (has(ALL_DAY)) {
+            columns.add(CalendarContract.Events.ALL_DAY);
+        }
+        if (has(LOCATION)) {
+            columns.add(CalendarContract.Events.EVENT_LOCATION);
+        }
+        if (hasRecurrence()) {
+            columns.add(CalendarContract.Events.RRULE);
+        }
+        if (has(RECURRENCE_RULE)) {
+            columns.add(CalendarContract.Events.DURATION);
+        }
+        if (hasCalendar()) {
+            columns.add(CalendarContract.Events.CALENDAR_ID);
+        }
+        if (has(AVAILABILITY)) {
+            columns.add(CalendarContract.Events.AVAILABILITY);
+        }
+        if (has(ALARMS)) {
+            columns.add(CalendarContract.Events.HAS_ALARM);
+        }
+        if (instances && has(ORIGINAL_ID)) {
+            columns.add(CalendarContract.Instances.ORIGINAL_ID);
+        }
+        if (instances && has(SYNC_ID)) {
+            columns.add(CalendarContract.Instances.ORIGINAL_SYNC_ID);
+        }
+
+        return columns.toArray(new String[columns.size()]);
+    }
+}
@@ -0,0 +1,383 @@
+package com.calendarevents;
+
+import android.content.ContentResolver;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.provider.CalendarContract;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Instance rows of recently read ranges, kept per day so that overlapping windows (swiping between weeks) are
+ * assembled from cached days plus one query for the days missing.
+ *
+ * Rows are kept as read from the provider rather than serialized: native maps are consumed when they cross
+ * the bridge, so serialized events cannot be handed out twice. What is saved is the provider IPC.
+ *
+ * Days are evicted least recently used first once their estimated size goes over the budget, and everything is
+ * dropped whenever the provider reports a change anywhere under the calendar authority. A budget of 0 disables
+ * the cache.
+ */
+final class EventRangeCache {
+
+    interface Loader {
+        /** The instances with BEGIN < end and END >= start, with PROJECTION. */
+        Cursor load(long start, long end);
+    }
+
+    /** Where change notifications come from, the calendar provider in the module. */
+    interface Changes {
+        /** Calls invalidate on the cache for every change until stop, false when changes cannot be observed. */
+        boolean observe(EventRangeCache cache);
+
+        void stop();
+    }
+
+    static final String[] PROJECTION;
+    static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    // wider windows are not worth keeping day by day, they are read straight from the provider
+    static final int MAX_WINDOW_DAYS = 62;
+
+    private static final int BEGIN_COLUMN;
+    private static final int END_COLUMN;
+    private static final int INSTANCE_ID_COLUMN;
+    // rough per-row and per-value overhead of the Java objects holding a row
+    private static final int ROW_OVERHEAD_BYTES = 32;
+    private static final int VALUE_OVERHEAD_BYTES = 40;
+
+    static {
+        String[] columns = EventFields.INSTANCES_PROJECTION;
+        PROJECTION = Arrays.copyOf(columns, columns.length + 1);
+        PROJECTION[columns.length] = CalendarContract.Instances._ID;
+        BEGIN_COLUMN = Arrays.asList(PROJECTION).indexOf(CalendarContract.Instances.BEGIN);
+        END_COLUMN = Arrays.asList(PROJECTION).indexOf(CalendarContract.Instances.END);
+        INSTANCE_ID_COLUMN = columns.length;
+    }
+
+    private static final class Day {
+        final ArrayList<Object[]> rows;
+        final long bytes;
+
+        Day(ArrayList<Object[]> rows, long bytes) {
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+    }
+
+    private final Changes changes;
+
+    // bumped on every change notification, a load only stores its rows when it is unchanged
+    private final AtomicInteger generation = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // keyed by calendars key and day number, in access order
+    private final LinkedHashMap<String, Day> days = new LinkedHashMap<>(16, 0.75f, true);
+    private long budget;
+    private long bytes;
+    private boolean observing;
+
+    EventRangeCache(ContentResolver resolver) {
+        this(new ProviderChanges(resolver));
+    }
+
+    EventRangeCache(Changes changes) {
+        this.changes = changes;
+    }
+
+    /** Sets the memory budget in bytes, 0 disables the cache and drops its rows. */
+    synchronized void setBudget(long budget) {
+        this.budget = Math.max(0, budget);
+        if (this.budget == 0) {
+            stopObserving();
+            days.clear();
+            bytes = 0;
+        } else {
+            evict();
+        }
+    }
+
+    synchronized boolean isEnabled() {
+        return budget > 0;
+    }
+
+    /**
+     * The instances of calendarsKey with BEGIN < end and END >= start, ordered by BEGIN, with PROJECTION.
+     * Days not cached are read through loader in one query. Returns null when the cache is disabled or the
+     * window is too wide, the caller then queries the provider itself.
+     */
+    Cursor query(String calendarsKey, long start, long end, Loader loader) {
+        ArrayList<Object[]> rows = queryRows(calendarsKey, start, end, loader);
+        if (rows == null) {
+            return null;
+        }
+
+        MatrixCursor cursor = new MatrixCursor(PROJECTION, rows.size());
+        for (Object[] row : rows) {
+            cursor.addRow(row);
+        }
+        return cursor;
+    }
+
+    /** The rows of query, before they are wrapped in a cursor. */
+    ArrayList<Object[]> queryRows(String calendarsKey, long start, long end, Loader loader) {
+        long firstDay = floorDay(start);
+        long lastDay = floorDay(end);
+        if (end < start || lastDay - firstDay + 1 > MAX_WINDOW_DAYS) {
+            return null;
+        }
+
+        ArrayList<ArrayList<Object[]>> found = new ArrayList<>();
+        long missingFirst = Long.MAX_VALUE;
+        long missingLast = Long.MIN_VALUE;
+        int loadGeneration;
+
+        synchronized (this) {
+            if (budget == 0 || !observe()) {
+                return null;
+            }
+            loadGeneration = generation.get();
+
+            for (long day = firstDay; day <= lastDay; day++) {
+                Day cached = days.get(key(calendarsKey, day));
+                if (cached != null) {
+                    hits.incrementAndGet();
+                    found.add(cached.rows);
+                } else {
+                    misses.incrementAndGet();
+                    missingFirst = Math.min(missingFirst, day);
+                    missingLast = Math.max(missingLast, day);
+                }
+            }
+        }
+
+        if (missingFirst <= missingLast) {
+            // one query over the span of missing days, even when some cached days sit in between
+            ArrayList<Object[]> rows = load(loader, missingFirst * DAY_MILLIS, (missingLast + 1) * DAY_MILLIS);
+            found.add(rows);
+            store(calendarsKey, missingFirst, missingLast, rows, loadGeneration);
+        }
+
+        return assemble(found, start, end);
+    }
+
+    void invalidate() {
+        generation.incrementAndGet();
+        invalidations.incrementAndGet();
+        synchronized (this) {
+            days.clear();
+            bytes = 0;
+        }
+    }
+
+    /** Stops observing the provider, the cache is not used afterwards. */
+    synchronized void close() {
+        setBudget(0);
+    }
+
+    long hitCount() {
+        return hits.get();
+    }
+
+    long missCount() {
+        return misses.get();
+    }
+
+    long evictionCount() {
+        return evictions.get();
+    }
+
+    long invalidationCount() {
+        return invalidations.get();
+    }
+
+    synchronized long byteCount() {
+        return bytes;
+    }
+
+    synchronized int dayCount() {
+        return days.size();
+    }
+
+    private static ArrayList<Object[]> load(Loader loader, long start, long end) {
+        ArrayList<Object[]> rows = new ArrayList<>();
+        Cursor cursor = loader.load(start, end);
+        if (cursor == null) {
+            return rows;
+        }
+
+        try {
+            while (cursor.moveToNext()) {
+                Object[] row = new Object[PROJECTION.length];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = cursor.getString(i);
+                }
+                rows.add(row);
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return rows;
+    }
+
+    // files every row under each loaded day it overlaps, with the provider's BEGIN < end AND END >= start rule
+    private synchronized void store(String calendarsKey, long firstDay, long lastDay, ArrayList<Object[]> rows, int loadGeneration) {
+        if (budget == 0 || loadGeneration != generation.get()) {
+            return;
+        }
+
+        int dayCount = (int) (lastDay - firstDay + 1);
+        ArrayList<ArrayList<Object[]>> dayRows = new ArrayList<>(dayCount);
+        long[] dayBytes = new long[dayCount];
+        for (int i = 0; i < dayCount; i++) {
+            dayRows.add(new ArrayList<Object[]>());
+        }
+
+        for (Object[] row : rows) {
+            long rowBytes = estimateBytes(row);
+            long from = Math.max(firstDay, floorDay(millis(row, BEGIN_COLUMN)));
+            long to = Math.min(lastDay, floorDay(millis(row, END_COLUMN)));
+
+            for (long day = from; day <= to; day++) {
+                dayRows.get((int) (day - firstDay)).add(row);
+                dayBytes[(int) (day - firstDay)] += rowBytes;
+            }
+        }
+
+        for (int i = 0; i < dayCount; i++) {
+            String key = key(calendarsKey, firstDay + i);
+            Day previous = days.put(key, new Day(dayRows.get(i), dayBytes[i]));
+            if (previous != null) {
+                bytes -= previous.bytes;
+            }
+            bytes += dayBytes[i];
+        }
+
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Day>> eldest = days.entrySet().iterator();
+        while (bytes > budget && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().bytes;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static ArrayList<Object[]> assemble(ArrayList<ArrayList<Object[]>> found, long start, long end) {
+        // long events sit in every day they cover, keep each instance once
+        HashSet<Object> seen = new HashSet<>();
+        ArrayList<Object[]> rows = new ArrayList<>();
+
+        for (ArrayList<Object[]> dayRows : found) {
+            for (Object[] row : dayRows) {
+                if (millis(row, BEGIN_COLUMN) < end && millis(row, END_COLUMN) >= start && seen.add(row[INSTANCE_ID_COLUMN])) {
+                    rows.add(row);
+                }
+            }
+        }
+
+        Collections.sort(rows, new Comparator<Object[]>() {
+            @Override
+            public int compare(Object[] a, Object[] b) {
+                long difference = millis(a, BEGIN_COLUMN) - millis(b, BEGIN_COLUMN);
+                if (difference == 0) {
+                    difference = millis(a, INSTANCE_ID_COLUMN) - millis(b, INSTANCE_ID_COLUMN);
+                }
+                return difference < 0 ? -1 : (difference > 0 ? 1 : 0);
+            }
+        });
+
+        return rows;
+    }
+
+    private boolean observe() {
+        if (!observing) {
+            observing = changes.observe(this);
+        }
+
+        return observing;
+    }
+
+    private void stopObserving() {
+        if (observing) {
+            changes.stop();
+            observing = false;
+        }
+    }
+
+    private static long estimateBytes(Object[] row) {
+        long size = ROW_OVERHEAD_BYTES + 8L * row.length;
+        for (Object value : row) {
+            if (value != null) {
+                size += VALUE_OVERHEAD_BYTES + 2L * value.toString().length();
+            }
+        }
+        return size;
+    }
+
+    private static long millis(Object[] row, int column) {
+        return row[column] == null ? 0 : Long.parseLong(row[column].toString());
+    }
+
+    private static long floorDay(long millis) {
+        long day = millis / DAY_MILLIS;
+        return millis % DAY_MILLIS < 0 ? day - 1 : day;
+    }
+
+    private static String key(String calendarsKey, long day) {
+        return calendarsKey + ":" + day;
+    }
+
+    /** Changes anywhere under the calendar authority. */
+    private static final class ProviderChanges implements Changes {
+        private final ContentResolver resolver;
+        private ContentObserver observer;
+
+        ProviderChanges(ContentResolver resolver) {
+            this.resolver = resolver;
+        }
+
+        @Override
+        public boolean observe(final EventRangeCache cache) {
+            observer = new ContentObserver(null) {
+                @Override
+                public void onChange(boolean selfChange) {
+                    cache.invalidate();
+                }
+            };
+
+            try {
+                resolver.registerContentObserver(CalendarContract.CONTENT_URI, true, observer);
+                return true;
+            } catch (SecurityException e) {
+                Log.d("RNCalendarEvents", "Could not observe calendar changes, event ranges will not be cached", e);
+                observer = null;
+                return false;
+            }
+        }
+
+        @Override
+        public void stop() {
+            if (observer != null) {
+                resolver.unregisterContentObserver(observer);
+                observer = null;
+            }
+        }
+    }
+}
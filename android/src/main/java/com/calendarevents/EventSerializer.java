@@ -0,0 +1,477 @@
+package com.calendarevents;
+
+import android.database.Cursor;
+import android.provider.CalendarContract;
+
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.bridge.WritableNativeArray;
+import com.facebook.react.bridge.WritableNativeMap;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Turns event, calendar, attendee and reminder rows into the maps and arrays sent to JS.
+ *
+ * The maps and arrays come from a Factory: the module uses the native bridge types, while the benchmarks run the
+ * same code on the JVM with JavaOnlyMap and JavaOnlyArray. Cursors are read from their current position and never
+ * closed here, and associations must have been loaded for the rows serialized.
+ */
+final class EventSerializer {
+
+    interface Factory {
+        WritableMap createMap();
+
+        WritableArray createArray();
+    }
+
+    static final Factory NATIVE = new Factory() {
+        @Override
+        public WritableMap createMap() {
+            return new WritableNativeMap();
+        }
+
+        @Override
+        public WritableArray createArray() {
+            return new WritableNativeArray();
+        }
+    };
+
+    private final Factory factory;
+
+    EventSerializer(Factory factory) {
+        this.factory = factory;
+    }
+
+    /** The remaining rows of the cursor as event maps. */
+    WritableArray serializeEvents(Cursor cursor, EventFields fields, EventAssociations associations, ReadRequest request) {
+        WritableArray results = factory.createArray();
+        EventColumns columns = EventColumns.fromCursor(cursor);
+        int rows = 0;
+
+        while (cursor.moveToNext()) {
+            if (rows % ReadRequest.CHECK_INTERVAL == 0) {
+                request.throwIfCancelled();
+            }
+            results.pushMap(serializeEvent(cursor, columns, fields, associations));
+            rows++;
+        }
+
+        return results;
+    }
+
+    /** The current row of the cursor as an event map. */
+    WritableMap serializeEvent(Cursor cursor, EventColumns columns, EventFields fields, EventAssociations associations) {
+        WritableMap event = factory.createMap();
+
+        boolean allDay = false;
+        String startDateUTC = "";
+        String endDateUTC = "";
+
+        if (fields.has(EventFields.START_DATE) && cursor.getString(columns.start) != null) {
+            startDateUTC = IsoDateFormat.format(Long.parseLong(cursor.getString(columns.start)));
+        }
+
+        if (fields.has(EventFields.END_DATE) && cursor.getString(columns.end) != null) {
+            endDateUTC = IsoDateFormat.format(Long.parseLong(cursor.getString(columns.end)));
+        }
+
+        if (fields.has(EventFields.ALL_DAY) && cursor.getString(columns.allDay) != null) {
+            allDay = cursor.getInt(columns.allDay) != 0;
+        }
+
+        if (fields.hasRecurrence() && cursor.getString(columns.rrule) != null) {
+            RecurrenceRule rule = RecurrenceRule.parse(cursor.getString(columns.rrule));
+
+            if (rule.frequency != null && fields.has(EventFields.RECURRENCE)) {
+                event.putString("recurrence", rule.frequency.toLowerCase());
+            }
+            if (fields.has(EventFields.RECURRENCE_RULE)) {
+                event.putMap("recurrenceRule", serializeRecurrenceRule(cursor, columns, rule));
+            }
+        }
+
+        event.putString("id", cursor.getString(0));
+        if (fields.hasCalendar()) {
+            String calendarID = cursor.getString(columns.calendarId);
+            if (fields.has(EventFields.CALENDAR)) {
+                event.putMap("calendar", serializeEventCalendar(associations.calendars.get(calendarID)));
+            }
+            if (fields.requested(EventFields.CALENDAR_ID)) {
+                event.putString("calendarId", calendarID);
+            }
+        }
+        if (fields.has(EventFields.TITLE)) {
+            event.putString("title", cursor.getString(columns.title));
+        }
+        if (fields.has(EventFields.DESCRIPTION)) {
+            event.putString("description", cursor.getString(columns.description));
+        }
+        if (fields.has(EventFields.START_DATE)) {
+            event.putString("startDate", startDateUTC);
+        }
+        if (fields.has(EventFields.END_DATE)) {
+            event.putString("endDate", endDateUTC);
+        }
+        if (fields.has(EventFields.ALL_DAY)) {
+            event.putBoolean("allDay", allDay);
+        }
+        if (fields.has(EventFields.LOCATION)) {
+            event.putString("location", cursor.getString(columns.location));
+        }
+        if (fields.has(EventFields.AVAILABILITY)) {
+            event.putString("availability", availabilityStringMatchingConstant(cursor.getInt(columns.availability)));
+        }
+        if (fields.has(EventFields.ATTENDEES)) {
+            event.putArray("attendees", serializeAttendees(associations.attendees.get(cursor.getString(0))));
+        }
+
+        if (fields.has(EventFields.ALARMS)) {
+            if (cursor.getInt(columns.hasAlarm) > 0) {
+                event.putArray("alarms", serializeReminders(associations.reminders.get(cursor.getString(0)), Long.parseLong(cursor.getString(columns.start))));
+            } else {
+                event.putArray("alarms", factory.createArray());
+            }
+        }
+
+        if (fields.has(EventFields.ORIGINAL_ID) && columns.originalId != -1 && cursor.getString(columns.originalId) != null) {
+            event.putString("originalId", cursor.getString(columns.originalId));
+        }
+
+        if (fields.has(EventFields.SYNC_ID) && columns.syncId != -1 && cursor.getString(columns.syncId) != null) {
+            event.putString("syncId", cursor.getString(columns.syncId));
+        }
+
+        return event;
+    }
+
+    WritableMap serializeRecurrenceRule(Cursor cursor, EventColumns columns, RecurrenceRule rule) {
+        WritableMap recurrenceRule = factory.createMap();
+
+        if (rule.frequency != null) {
+            recurrenceRule.putString("frequency", rule.frequency.toLowerCase());
+        }
+
+        if (columns.duration != -1 && cursor.getString(columns.duration) != null) {
+            recurrenceRule.putString("duration", cursor.getString(columns.duration));
+        }
+
+        if (rule.interval != null) {
+            recurrenceRule.putInt("interval", rule.interval);
+        }
+
+        if (rule.until != null) {
+            try {
+                long until = IsoDateFormat.parseRRuleDate(rule.until, TimeZone.getDefault());
+                recurrenceRule.putString("endDate", IsoDateFormat.format(until));
+            } catch (ParseException e) {
+                e.printStackTrace();
+            }
+        } else if (rule.count != null) {
+            recurrenceRule.putInt("occurrence", rule.count);
+        }
+
+        if (rule.byDay != null) {
+            WritableArray daysOfWeek = factory.createArray();
+            for (String day : rule.byDay) {
+                daysOfWeek.pushString(day);
+            }
+            recurrenceRule.putArray("daysOfWeek", daysOfWeek);
+        }
+
+        if (rule.weekStart != null) {
+            recurrenceRule.putString("weekStart", rule.weekStart);
+        }
+
+        Integer weekPositionInMonth = rule.weekPositionInMonth();
+        if (weekPositionInMonth != null) {
+            recurrenceRule.putInt("weekPositionInMonth", weekPositionInMonth);
+        }
+
+        return recurrenceRule;
+    }
+
+    /**
+     * The remaining rows of the cursor as one array per field, all in cursor order: `length`, then `id` and every
+     * requested field, with dates as epoch milliseconds. Calendars are sent once each, in a `calendars` map
+     * keyed by calendar id, instead of once per event.
+     */
+    WritableMap serializeEventsColumnar(Cursor cursor, EventFields fields, EventAssociations associations, ReadRequest request) {
+        WritableMap result = factory.createMap();
+        EventColumns columns = EventColumns.fromCursor(cursor);
+        int rows = 0;
+
+        WritableArray ids = factory.createArray();
+        WritableArray calendarIds = fields.hasCalendar() ? factory.createArray() : null;
+        WritableArray titles = fields.has(EventFields.TITLE) ? factory.createArray() : null;
+        WritableArray descriptions = fields.has(EventFields.DESCRIPTION) ? factory.createArray() : null;
+        WritableArray startDates = fields.has(EventFields.START_DATE) ? factory.createArray() : null;
+        WritableArray endDates = fields.has(EventFields.END_DATE) ? factory.createArray() : null;
+        WritableArray allDays = fields.has(EventFields.ALL_DAY) ? factory.createArray() : null;
+        WritableArray locations = fields.has(EventFields.LOCATION) ? factory.createArray() : null;
+        WritableArray availabilities = fields.has(EventFields.AVAILABILITY) ? factory.createArray() : null;
+        WritableArray recurrences = fields.has(EventFields.RECURRENCE) ? factory.createArray() : null;
+        WritableArray recurrenceRules = fields.has(EventFields.RECURRENCE_RULE) ? factory.createArray() : null;
+        WritableArray attendees = fields.has(EventFields.ATTENDEES) ? factory.createArray() : null;
+        WritableArray alarms = fields.has(EventFields.ALARMS) ? factory.createArray() : null;
+        WritableArray originalIds = fields.has(EventFields.ORIGINAL_ID) && columns.originalId != -1 ? factory.createArray() : null;
+        WritableArray syncIds = fields.has(EventFields.SYNC_ID) && columns.syncId != -1 ? factory.createArray() : null;
+        LinkedHashSet<String> calendarIDs = new LinkedHashSet<>();
+
+        while (cursor.moveToNext()) {
+            if (rows % ReadRequest.CHECK_INTERVAL == 0) {
+                request.throwIfCancelled();
+            }
+            String eventID = cursor.getString(0);
+            ids.pushString(eventID);
+
+            if (calendarIds != null) {
+                String calendarID = cursor.getString(columns.calendarId);
+                calendarIds.pushString(calendarID);
+                calendarIDs.add(calendarID);
+            }
+            if (titles != null) {
+                titles.pushString(cursor.getString(columns.title));
+            }
+            if (descriptions != null) {
+                descriptions.pushString(cursor.getString(columns.description));
+            }
+            if (startDates != null) {
+                pushMillis(startDates, cursor, columns.start);
+            }
+            if (endDates != null) {
+                pushMillis(endDates, cursor, columns.end);
+            }
+            if (allDays != null) {
+                allDays.pushBoolean(cursor.getInt(columns.allDay) != 0);
+            }
+            if (locations != null) {
+                locations.pushString(cursor.getString(columns.location));
+            }
+            if (availabilities != null) {
+                availabilities.pushString(availabilityStringMatchingConstant(cursor.getInt(columns.availability)));
+            }
+            if (recurrences != null || recurrenceRules != null) {
+                String rrule = cursor.getString(columns.rrule);
+                RecurrenceRule rule = rrule == null ? null : RecurrenceRule.parse(rrule);
+
+                if (recurrences != null) {
+                    recurrences.pushString(rule == null || rule.frequency == null ? null : rule.frequency.toLowerCase());
+                }
+                if (recurrenceRules != null) {
+                    if (rule == null) {
+                        recurrenceRules.pushNull();
+                    } else {
+                        recurrenceRules.pushMap(serializeRecurrenceRule(cursor, columns, rule));
+                    }
+                }
+            }
+            if (attendees != null) {
+                attendees.pushArray(serializeAttendees(associations.attendees.get(eventID)));
+            }
+            if (alarms != null) {
+                if (cursor.getInt(columns.hasAlarm) > 0) {
+                    alarms.pushArray(serializeReminders(associations.reminders.get(eventID), Long.parseLong(cursor.getString(columns.start))));
+                } else {
+                    alarms.pushArray(factory.createArray());
+                }
+            }
+            if (originalIds != null) {
+                originalIds.pushString(cursor.getString(columns.originalId));
+            }
+            if (syncIds != null) {
+                syncIds.pushString(cursor.getString(columns.syncId));
+            }
+            rows++;
+        }
+
+        result.putInt("length", rows);
+        result.putArray("id", ids);
+        putColumn(result, "calendarId", calendarIds);
+        putColumn(result, "title", titles);
+        putColumn(result, "description", descriptions);
+        putColumn(result, "startDate", startDates);
+        putColumn(result, "endDate", endDates);
+        putColumn(result, "allDay", allDays);
+        putColumn(result, "location", locations);
+        putColumn(result, "availability", availabilities);
+        putColumn(result, "recurrence", recurrences);
+        putColumn(result, "recurrenceRule", recurrenceRules);
+        putColumn(result, "attendees", attendees);
+        putColumn(result, "alarms", alarms);
+        putColumn(result, "originalId", originalIds);
+        putColumn(result, "syncId", syncIds);
+
+        if (fields.has(EventFields.CALENDAR)) {
+            WritableMap calendars = factory.createMap();
+            for (String calendarID : calendarIDs) {
+                calendars.putMap(calendarID, serializeEventCalendar(associations.calendars.get(calendarID)));
+            }
+            result.putMap("calendars", calendars);
+        }
+
+        return result;
+    }
+
+    /** The columnar result of a query that returned no cursor. */
+    WritableMap emptyColumnar() {
+        WritableMap result = factory.createMap();
+        result.putInt("length", 0);
+        result.putArray("id", factory.createArray());
+        return result;
+    }
+
+    private static void pushMillis(WritableArray array, Cursor cursor, int column) {
+        if (cursor.isNull(column)) {
+            array.pushNull();
+        } else {
+            array.pushDouble(cursor.getLong(column));
+        }
+    }
+
+    private static void putColumn(WritableMap result, String name, WritableArray column) {
+        if (column != null) {
+            result.putArray(name, column);
+        }
+    }
+
+    WritableArray serializeEventCalendars(List<CalendarRow> calendars) {
+        WritableArray results = factory.createArray();
+
+        for (CalendarRow calendar : calendars) {
+            results.pushMap(serializeEventCalendar(calendar));
+        }
+
+        return results;
+    }
+
+    WritableMap serializeEventCalendar(CalendarRow row) {
+
+        if (row == null) {
+            return null;
+        }
+
+        WritableMap calendar = factory.createMap();
+
+        calendar.putString("id", row.id);
+        calendar.putString("title", row.title);
+        calendar.putString("source", row.source);
+        calendar.putArray("allowedAvailabilities", calendarAllowedAvailabilitiesFromDBString(row.allowedAvailability));
+        calendar.putString("type", row.type);
+
+        String colorHex = "#FFFFFF";
+        if (row.color != null) {
+            colorHex = String.format("#%06X", (0xFFFFFF & row.color));
+        }
+        calendar.putString("color", colorHex);
+
+        if (row.isPrimary != null) {
+            calendar.putBoolean("isPrimary", row.isPrimary.equals("1"));
+        }
+
+        int accesslevel = row.accessLevel;
+
+        if (accesslevel == CalendarContract.Calendars.CAL_ACCESS_ROOT ||
+                accesslevel == CalendarContract.Calendars.CAL_ACCESS_OWNER ||
+                accesslevel == CalendarContract.Calendars.CAL_ACCESS_EDITOR ||
+                accesslevel == CalendarContract.Calendars.CAL_ACCESS_CONTRIBUTOR) {
+            calendar.putBoolean("allowsModifications", true);
+        } else {
+            calendar.putBoolean("allowsModifications", false);
+        }
+
+        return calendar;
+    }
+
+    WritableArray serializeAttendees(ArrayList<String[]> attendees) {
+
+        WritableArray results = factory.createArray();
+
+        if (attendees == null) {
+            return results;
+        }
+
+        for (String[] row : attendees) {
+
+            WritableMap attendee = factory.createMap();
+
+            attendee.putString("name", row[0]);
+            attendee.putString("email", row[1]);
+            attendee.putString("type", row[2]);
+            attendee.putString("relationship", row[3]);
+            attendee.putString("status", row[4]);
+            attendee.putString("identity", row[5]);
+            attendee.putString("id_namespace", row[6]);
+            results.pushMap(attendee);
+        }
+
+        return results;
+    }
+
+    WritableArray serializeReminders(ArrayList<Integer> reminders, long startDate) {
+        WritableArray results = factory.createArray();
+
+        if (reminders == null) {
+            return results;
+        }
+
+        for (Integer minutes : reminders) {
+            WritableMap alarm = factory.createMap();
+            alarm.putString("date", IsoDateFormat.format(startDate + minutes * 60000L));
+            results.pushMap(alarm);
+        }
+
+        return results;
+    }
+
+    WritableArray calendarAllowedAvailabilitiesFromDBString(String dbString) {
+        WritableArray availabilitiesStrings = factory.createArray();
+        for(String availabilityStr: dbString.split(",")) {
+            int availabilityId = -1;
+
+            try {
+                availabilityId = Integer.parseInt(availabilityStr);
+            } catch(NumberFormatException e) {
+                // Some devices seem to just use strings.
+                if (availabilityStr.equals("AVAILABILITY_BUSY")) {
+                    availabilityId = CalendarContract.Events.AVAILABILITY_BUSY;
+                } else if (availabilityStr.equals("AVAILABILITY_FREE")) {
+                    availabilityId = CalendarContract.Events.AVAILABILITY_FREE;
+                } else if (availabilityStr.equals("AVAILABILITY_TENTATIVE")) {
+                    availabilityId = CalendarContract.Events.AVAILABILITY_TENTATIVE;
+                }
+            }
+
+            switch(availabilityId) {
+                case CalendarContract.Events.AVAILABILITY_BUSY:
+                    availabilitiesStrings.pushString("busy");
+                    break;
+                case CalendarContract.Events.AVAILABILITY_FREE:
+                    availabilitiesStrings.pushString("free");
+                    break;
+                case CalendarContract.Events.AVAILABILITY_TENTATIVE:
+                    availabilitiesStrings.pushString("tentative");
+                    break;
+            }
+        }
+
+        return availabilitiesStrings;
+    }
+
+    static String availabilityStringMatchingConstant(Integer constant)
+    {
+        switch(constant) {
+            case CalendarContract.Events.AVAILABILITY_BUSY:
+            default:
+                return "busy";
+            case CalendarContract.Events.AVAILABILITY_FREE:
+                return "free";
+            case CalendarContract.Events.AVAILABILITY_TENTATIVE:
+                return "tentative";
+        }
+    }
+}
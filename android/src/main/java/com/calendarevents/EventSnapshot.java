@@ -0,0 +1,204 @@
+package com.calendarevents;
+
+import android.database.Cursor;
+import android.os.CancellationSignal;
+import android.provider.CalendarContract;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fingerprint of every event in a set of calendars, used to tell which events were added, updated or deleted
+ * between two calls of findEventsChangedSince without serializing them.
+ *
+ * Rows are kept as two parallel arrays sorted by event id, so diffing two snapshots is a single merge pass.
+ * The fingerprint covers the event row, its attendees and its reminders. DIRTY alone cannot stand in for the
+ * last two: it stays 1 on local calendars and between two edits before a sync, so an attendee or reminder edit
+ * of a dirty event leaves the event row unchanged. Attendee and reminder rows are loaded in chunks of event ids
+ * and folded into the fingerprint with an order independent sum.
+ */
+final class EventSnapshot {
+
+    static final String[] PROJECTION = new String[]{
+            CalendarContract.Events._ID,
+            CalendarContract.Events.DIRTY,
+            CalendarContract.Events._SYNC_ID,
+            CalendarContract.Events.TITLE,
+            CalendarContract.Events.DESCRIPTION,
+            CalendarContract.Events.DTSTART,
+            CalendarContract.Events.DTEND,
+            CalendarContract.Events.ALL_DAY,
+            CalendarContract.Events.EVENT_LOCATION,
+            CalendarContract.Events.EVENT_TIMEZONE,
+            CalendarContract.Events.RRULE,
+            CalendarContract.Events.RDATE,
+            CalendarContract.Events.EXRULE,
+            CalendarContract.Events.EXDATE,
+            CalendarContract.Events.DURATION,
+            CalendarContract.Events.CALENDAR_ID,
+            CalendarContract.Events.AVAILABILITY,
+            CalendarContract.Events.HAS_ALARM,
+            CalendarContract.Events.STATUS,
+            CalendarContract.Events.ORIGINAL_ID,
+            CalendarContract.Events.ORIGINAL_INSTANCE_TIME
+    };
+
+    private static final int HAS_ALARM_COLUMN = 17;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** The calendars the snapshot was taken for, empty for all calendars. */
+    final String calendarsKey;
+    private final long[] ids;
+    private final long[] fingerprints;
+
+    /** Where the snapshot rows are read from, the provider in the module. */
+    interface Source {
+        /** PROJECTION rows of the events matching the selection, sorted by _ID. */
+        Cursor queryEvents(String selection, String[] selectionArgs, CancellationSignal signal);
+
+        /** EventAssociations.ATTENDEE_PROJECTION rows of the attendees matching the selection. */
+        Cursor queryAttendees(Selection selection, CancellationSignal signal);
+
+        /** EventAssociations.REMINDER_PROJECTION rows of the reminders matching the selection. */
+        Cursor queryReminders(Selection selection, CancellationSignal signal);
+    }
+
+    private EventSnapshot(String calendarsKey, long[] ids, long[] fingerprints) {
+        this.calendarsKey = calendarsKey;
+        this.ids = ids;
+        this.fingerprints = fingerprints;
+    }
+
+    static EventSnapshot query(Source source, String calendarsKey, String selection, String[] selectionArgs, ReadRequest request) {
+        Cursor cursor = source.queryEvents(selection, selectionArgs, request.signal());
+
+        if (cursor == null) {
+            return new EventSnapshot(calendarsKey, new long[0], new long[0]);
+        }
+
+        long[] ids;
+        long[] fingerprints;
+        ArrayList<String> eventIDs = new ArrayList<>();
+        ArrayList<String> alarmEventIDs = new ArrayList<>();
+
+        try {
+            int count = cursor.getCount();
+            ids = new long[count];
+            fingerprints = new long[count];
+            int rows = 0;
+
+            while (rows < count && cursor.moveToNext()) {
+                if (rows % ReadRequest.CHECK_INTERVAL == 0) {
+                    request.throwIfCancelled();
+                }
+                ids[rows] = cursor.getLong(0);
+                fingerprints[rows] = fingerprint(cursor, 1);
+                eventIDs.add(cursor.getString(0));
+                if (cursor.getInt(HAS_ALARM_COLUMN) > 0) {
+                    alarmEventIDs.add(cursor.getString(0));
+                }
+                rows++;
+            }
+
+            if (rows < count) {
+                ids = Arrays.copyOf(ids, rows);
+                fingerprints = Arrays.copyOf(fingerprints, rows);
+            }
+        } finally {
+            cursor.close();
+        }
+
+        for (List<String> chunk : Selection.inChunks(eventIDs)) {
+            request.throwIfCancelled();
+            fold(source.queryAttendees(new Selection().whereIn(CalendarContract.Attendees.EVENT_ID, chunk), request.signal()), 1, ids, fingerprints, request);
+        }
+        // an event without HAS_ALARM has no reminders, and turning it off changes the event row
+        for (List<String> chunk : Selection.inChunks(alarmEventIDs)) {
+            request.throwIfCancelled();
+            fold(source.queryReminders(new Selection().whereIn(CalendarContract.Reminders.EVENT_ID, chunk), request.signal()), 0, ids, fingerprints, request);
+        }
+
+        return new EventSnapshot(calendarsKey, ids, fingerprints);
+    }
+
+    // adds the fingerprint of every row to the one of its event, so rows may come back in any order
+    private static void fold(Cursor cursor, int eventIdColumn, long[] ids, long[] fingerprints, ReadRequest request) {
+        if (cursor == null) {
+            return;
+        }
+
+        try {
+            int rows = 0;
+            while (cursor.moveToNext()) {
+                if (rows++ % ReadRequest.CHECK_INTERVAL == 0) {
+                    request.throwIfCancelled();
+                }
+                int index = Arrays.binarySearch(ids, cursor.getLong(eventIdColumn));
+                if (index >= 0) {
+                    fingerprints[index] += fingerprint(cursor, 0) * FNV_PRIME;
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /** Every event id of the snapshot, for callers without a previous snapshot to diff against. */
+    ArrayList<String> eventIDs() {
+        ArrayList<String> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(Long.toString(id));
+        }
+        return result;
+    }
+
+    /** Adds the ids added, updated and deleted since previous to the given lists. */
+    void diff(EventSnapshot previous, ArrayList<String> added, ArrayList<String> updated, ArrayList<String> deleted) {
+        int i = 0;
+        int j = 0;
+
+        while (i < ids.length || j < previous.ids.length) {
+            if (j == previous.ids.length || (i < ids.length && ids[i] < previous.ids[j])) {
+                added.add(Long.toString(ids[i++]));
+            } else if (i == ids.length || previous.ids[j] < ids[i]) {
+                deleted.add(Long.toString(previous.ids[j++]));
+            } else {
+                if (fingerprints[i] != previous.fingerprints[j]) {
+                    updated.add(Long.toString(ids[i]));
+                }
+                i++;
+                j++;
+            }
+        }
+    }
+
+    // 64 bit FNV-1a over every column from the first one on, with a marker telling nulls apart from empty strings
+    private static long fingerprint(Cursor cursor, int firstColumn) {
+        long hash = FNV_OFFSET_BASIS;
+        int columns = cursor.getColumnCount();
+
+        for (int column = firstColumn; column < columns; column++) {
+            String value = cursor.getString(column);
+
+            if (value == null) {
+                hash = (hash ^ 0xff) * FNV_PRIME;
+            } else {
+                for (int k = 0; k < value.length(); k++) {
+                    char c = value.charAt(k);
+                    hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+                    hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+                }
+            }
+            hash = (hash ^ 0xfe) * FNV_PRIME;
+        }
+
+        return hash;
+    }
+}
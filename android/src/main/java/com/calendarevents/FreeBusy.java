@@ -0,0 +1,199 @@
+package com.calendarevents;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Collects busy intervals clipped to a range and merges the overlapping ones, then optionally finds free slots
+ * between them.
+ *
+ * Begins and ends are kept in two primitive arrays and sorted independently: the union of intervals only
+ * depends on how many of them are open at each point, so a sweep over both sorted arrays finds it without
+ * sorting pairs.
+ */
+final class FreeBusy {
+
+    private final long rangeStart;
+    private final long rangeEnd;
+    private final long granularity;
+    private final long padding;
+    private final Calendar utcDay = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    private final Calendar localDay;
+
+    private long[] begins;
+    private long[] ends;
+    private int count;
+
+    /**
+     * Intervals are widened by padding millis on each side, then to multiples of granularity millis from
+     * rangeStart (0 keeps them exact). All-day intervals are placed on the days of zone.
+     */
+    FreeBusy(long rangeStart, long rangeEnd, long granularity, long padding, TimeZone zone, int capacity) {
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.granularity = granularity;
+        this.padding = padding;
+        this.localDay = Calendar.getInstance(zone);
+        this.begins = new long[Math.max(capacity, 16)];
+        this.ends = new long[begins.length];
+    }
+
+    void add(long begin, long end) {
+        begin = Math.max(begin - padding, rangeStart);
+        end = Math.min(end + padding, rangeEnd);
+
+        if (granularity > 0) {
+            begin = rangeStart + (begin - rangeStart) / granularity * granularity;
+            end = Math.min(rangeEnd, rangeStart + (end - rangeStart + granularity - 1) / granularity * granularity);
+        }
+
+        if (end <= begin) {
+            return;
+        }
+
+        if (count == begins.length) {
+            begins = Arrays.copyOf(begins, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        begins[count] = begin;
+        ends[count] = end;
+        count++;
+    }
+
+    /** Adds an all-day instance, stored as UTC days, as the same days in the zone. */
+    void addAllDay(long begin, long end) {
+        add(localMidnight(begin), localMidnight(end));
+    }
+
+    private long localMidnight(long utcMidnight) {
+        utcDay.setTimeInMillis(utcMidnight);
+        localDay.clear();
+        localDay.set(utcDay.get(Calendar.YEAR), utcDay.get(Calendar.MONTH), utcDay.get(Calendar.DAY_OF_MONTH));
+        return localDay.getTimeInMillis();
+    }
+
+    /** The merged busy intervals as {begin0, end0, begin1, end1, ...}, ordered and disjoint. */
+    long[] merge() {
+        Arrays.sort(begins, 0, count);
+        Arrays.sort(ends, 0, count);
+
+        long[] merged = new long[count * 2];
+        int size = 0;
+        int open = 0;
+        int i = 0;
+        int j = 0;
+
+        while (j < count) {
+            // begins go first on ties so that touching intervals are joined
+            if (i < count && begins[i] <= ends[j]) {
+                if (open++ == 0) {
+                    merged[size++] = begins[i];
+                }
+                i++;
+            } else {
+                if (--open == 0) {
+                    merged[size++] = ends[j];
+                }
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(merged, size);
+    }
+
+    /** The zone of id, for the IDs TimeZone knows. It falls back to GMT for the others, which are rejected. */
+    static TimeZone timeZone(String id) {
+        TimeZone zone = TimeZone.getTimeZone(id);
+        if ("GMT".equals(zone.getID()) && !"GMT".equals(id)) {
+            throw new IllegalArgumentException("invalid time zone: " + id);
+        }
+        return zone;
+    }
+
+    /**
+     * The windows of the range, as {begin0, end0, ...}, between startMinute and endMinute of each day of zone
+     * whose Calendar.DAY_OF_WEEK is set in days. A window ending at or before its start minute ends the next day.
+     */
+    static long[] workingWindows(long rangeStart, long rangeEnd, TimeZone zone, int startMinute, int endMinute, boolean[] days) {
+        Calendar day = Calendar.getInstance(zone);
+        day.setTimeInMillis(rangeStart);
+        day.set(Calendar.HOUR_OF_DAY, 0);
+        day.set(Calendar.MINUTE, 0);
+        day.set(Calendar.SECOND, 0);
+        day.set(Calendar.MILLISECOND, 0);
+        // a window opened the day before may still run at the start of the range
+        day.add(Calendar.DAY_OF_MONTH, -1);
+
+        long[] windows = new long[16];
+        int size = 0;
+        Calendar time = Calendar.getInstance(zone);
+
+        while (day.getTimeInMillis() < rangeEnd) {
+            if (days[day.get(Calendar.DAY_OF_WEEK)]) {
+                time.setTimeInMillis(day.getTimeInMillis());
+                time.set(Calendar.HOUR_OF_DAY, startMinute / 60);
+                time.set(Calendar.MINUTE, startMinute % 60);
+                long begin = Math.max(time.getTimeInMillis(), rangeStart);
+
+                if (endMinute <= startMinute) {
+                    time.add(Calendar.DAY_OF_MONTH, 1);
+                }
+                time.set(Calendar.HOUR_OF_DAY, endMinute / 60);
+                time.set(Calendar.MINUTE, endMinute % 60);
+                long end = Math.min(time.getTimeInMillis(), rangeEnd);
+
+                if (end > begin) {
+                    if (size == windows.length) {
+                        windows = Arrays.copyOf(windows, size * 2);
+                    }
+                    windows[size++] = begin;
+                    windows[size++] = end;
+                }
+            }
+            day.add(Calendar.DAY_OF_MONTH, 1);
+        }
+
+        return Arrays.copyOf(windows, size);
+    }
+
+    /**
+     * Back to back slots of duration millis, as {begin0, end0, ...}, inside the ordered windows and outside the
+     * merged busy intervals. Each free gap is filled from its start. At most maxResults slots.
+     */
+    static long[] freeSlots(long[] busy, long[] windows, long duration, int maxResults) {
+        long[] slots = new long[Math.min(maxResults, 64) * 2];
+        int size = 0;
+        int first = 0;
+
+        for (int w = 0; w < windows.length && size < maxResults * 2; w += 2) {
+            long free = windows[w];
+            long windowEnd = windows[w + 1];
+
+            // windows are ordered, busy time over before this one is over before the next ones too
+            while (first < busy.length && busy[first + 1] <= free) {
+                first += 2;
+            }
+
+            for (int b = first; free < windowEnd && size < maxResults * 2; b += 2) {
+                long gapEnd = b < busy.length ? Math.min(busy[b], windowEnd) : windowEnd;
+
+                while (free + duration <= gapEnd && size < maxResults * 2) {
+                    if (size == slots.length) {
+                        slots = Arrays.copyOf(slots, size * 2);
+                    }
+                    slots[size++] = free;
+                    slots[size++] = free + duration;
+                    free += duration;
+                }
+
+                if (b >= busy.length) {
+                    break;
+                }
+                free = Math.max(free, busy[b + 1]);
+            }
+        }
+
+        return Arrays.copyOf(slots, size);
+    }
+}
@@ -0,0 +1,244 @@
+package com.calendarevents;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Thread-safe formatting and parsing of the two date formats the module exchanges with JS and the provider:
+ * `yyyy-MM-dd'T'HH:mm:ss.SSS'Z'` and the RRULE `yyyyMMdd'T'HHmmss'Z'`.
+ *
+ * Works on epoch millis with day arithmetic instead of a Calendar, so formatting only allocates the returned
+ * String. Values the fast path does not cover (years outside 0-9999, dates before the Gregorian cutover,
+ * unexpected input) go through SimpleDateFormat so results stay identical to it.
+ */
+final class IsoDateFormat {
+
+    static final String ISO_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+    static final String RRULE_PATTERN = "yyyyMMdd'T'HHmmss'Z'";
+
+    private static final int ISO_LENGTH = 24;
+    private static final int RRULE_LENGTH = 16;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+    // SimpleDateFormat switches to the Julian calendar before 1582-10-15T00:00:00Z
+    private static final long GREGORIAN_CUTOVER = -12219292800000L;
+    // 9999-12-31T23:59:59.999Z, the last instant with a four digit year
+    private static final long MAX_FAST_MILLIS = 253402300799999L;
+
+    private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[ISO_LENGTH];
+        }
+    };
+
+    private IsoDateFormat() {
+    }
+
+    /** Formats millis as `yyyy-MM-dd'T'HH:mm:ss.SSS'Z'` in UTC. */
+    static String format(long millis) {
+        if (millis < GREGORIAN_CUTOVER || millis > MAX_FAST_MILLIS) {
+            return slowFormat(ISO_PATTERN, null, millis);
+        }
+        return formatFields(millis, false);
+    }
+
+    /** Parses `yyyy-MM-dd'T'HH:mm:ss.SSS'Z'` as UTC. */
+    static long parse(String value) throws ParseException {
+        return parse(value, null);
+    }
+
+    /**
+     * Parses `yyyy-MM-dd'T'HH:mm:ss.SSS'Z'` as a time in zone, UTC when zone is null. The trailing Z is
+     * treated as a literal, like the SimpleDateFormat it replaces.
+     */
+    static long parse(String value, TimeZone zone) throws ParseException {
+        long millis = parseFields(value, false, zone);
+        if (millis == Long.MIN_VALUE) {
+            return slowParse(ISO_PATTERN, zone, value);
+        }
+        return millis;
+    }
+
+    /** Formats millis as an RRULE `yyyyMMdd'T'HHmmss'Z'` date in zone, UTC when zone is null. */
+    static String formatRRuleDate(long millis, TimeZone zone) {
+        long local = zone == null ? millis : millis + zone.getOffset(millis);
+        if (millis < GREGORIAN_CUTOVER || local < GREGORIAN_CUTOVER || local > MAX_FAST_MILLIS) {
+            return slowFormat(RRULE_PATTERN, zone, millis);
+        }
+        return formatFields(local, true);
+    }
+
+    /** Parses an RRULE `yyyyMMdd'T'HHmmss'Z'` date as a time in zone, UTC when zone is null. */
+    static long parseRRuleDate(String value, TimeZone zone) throws ParseException {
+        long millis = parseFields(value, true, zone);
+        if (millis == Long.MIN_VALUE) {
+            return slowParse(RRULE_PATTERN, zone, value);
+        }
+        return millis;
+    }
+
+    private static String formatFields(long millis, boolean rrule) {
+        // Math.floorDiv needs API 24
+        long days = millis / MILLIS_PER_DAY;
+        if (millis % MILLIS_PER_DAY < 0) {
+            days--;
+        }
+        int millisOfDay = (int) (millis - days * MILLIS_PER_DAY);
+
+        // civil_from_days, http://howardhinnant.github.io/date_algorithms.html
+        long z = days + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = (int) (z - era * 146097);
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = (int) (yoe + era * 400) + (month <= 2 ? 1 : 0);
+
+        int hour = millisOfDay / 3600000;
+        int minute = (millisOfDay / 60000) % 60;
+        int second = (millisOfDay / 1000) % 60;
+        int milli = millisOfDay % 1000;
+
+        char[] buffer = BUFFER.get();
+        int pos = 0;
+
+        pos = writeDigits(buffer, pos, year, 4);
+        if (!rrule) {
+            buffer[pos++] = '-';
+        }
+        pos = writeDigits(buffer, pos, month, 2);
+        if (!rrule) {
+            buffer[pos++] = '-';
+        }
+        pos = writeDigits(buffer, pos, day, 2);
+        buffer[pos++] = 'T';
+        pos = writeDigits(buffer, pos, hour, 2);
+        if (!rrule) {
+            buffer[pos++] = ':';
+        }
+        pos = writeDigits(buffer, pos, minute, 2);
+        if (!rrule) {
+            buffer[pos++] = ':';
+        }
+        pos = writeDigits(buffer, pos, second, 2);
+        if (!rrule) {
+            buffer[pos++] = '.';
+            pos = writeDigits(buffer, pos, milli, 3);
+        }
+        buffer[pos++] = 'Z';
+
+        return new String(buffer, 0, pos);
+    }
+
+    private static int writeDigits(char[] buffer, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+
+    // Returns Long.MIN_VALUE when the value is not in the exact expected shape, callers then fall back
+    // to SimpleDateFormat and its lenient parsing.
+    private static long parseFields(String value, boolean rrule, TimeZone zone) {
+        if (value == null || value.length() != (rrule ? RRULE_LENGTH : ISO_LENGTH)) {
+            return Long.MIN_VALUE;
+        }
+
+        int year;
+        int month;
+        int day;
+        int hour;
+        int minute;
+        int second;
+        int milli = 0;
+
+        if (rrule) {
+            if (value.charAt(8) != 'T' || value.charAt(15) != 'Z') {
+                return Long.MIN_VALUE;
+            }
+            year = readDigits(value, 0, 4);
+            month = readDigits(value, 4, 2);
+            day = readDigits(value, 6, 2);
+            hour = readDigits(value, 9, 2);
+            minute = readDigits(value, 11, 2);
+            second = readDigits(value, 13, 2);
+        } else {
+            if (value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != 'T'
+                    || value.charAt(13) != ':' || value.charAt(16) != ':' || value.charAt(19) != '.'
+                    || value.charAt(23) != 'Z') {
+                return Long.MIN_VALUE;
+            }
+            year = readDigits(value, 0, 4);
+            month = readDigits(value, 5, 2);
+            day = readDigits(value, 8, 2);
+            hour = readDigits(value, 11, 2);
+            minute = readDigits(value, 14, 2);
+            second = readDigits(value, 17, 2);
+            milli = readDigits(value, 20, 3);
+        }
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || milli < 0) {
+            return Long.MIN_VALUE;
+        }
+
+        // days_from_civil, http://howardhinnant.github.io/date_algorithms.html
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        long days = (long) era * 146097 + doe - 719468;
+
+        long local = days * MILLIS_PER_DAY + hour * 3600000L + minute * 60000L + second * 1000L + milli;
+        long millis = local;
+
+        if (zone != null) {
+            int offset = zone.getOffset(local - zone.getOffset(local));
+            millis = local - offset;
+            // local times in or next to an offset transition are skipped or ambiguous, leave those to the
+            // Calendar so they resolve the same way as before
+            if (zone.getOffset(millis - MILLIS_PER_DAY) != offset || zone.getOffset(millis + MILLIS_PER_DAY) != offset) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        if (millis < GREGORIAN_CUTOVER || local < GREGORIAN_CUTOVER) {
+            return Long.MIN_VALUE;
+        }
+
+        return millis;
+    }
+
+    private static int readDigits(String value, int start, int width) {
+        int result = 0;
+        for (int i = start; i < start + width; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static SimpleDateFormat slowDateFormat(String pattern, TimeZone zone) {
+        SimpleDateFormat sdf = new SimpleDateFormat(pattern);
+        sdf.setTimeZone(zone == null ? TimeZone.getTimeZone("GMT") : zone);
+        return sdf;
+    }
+
+    private static String slowFormat(String pattern, TimeZone zone, long millis) {
+        return slowDateFormat(pattern, zone).format(new Date(millis));
+    }
+
+    private static long slowParse(String pattern, TimeZone zone, String value) throws ParseException {
+        return slowDateFormat(pattern, zone).parse(value).getTime();
+    }
+}
@@ -0,0 +1,166 @@
+package com.calendarevents;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Build;
+import android.os.CancellationSignal;
+import android.os.Trace;
+
+import com.facebook.react.bridge.WritableNativeArray;
+import com.facebook.react.bridge.WritableNativeMap;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Opt-in timing of the module: how long bridge calls wait for and run on the executor, how long provider calls
+ * take and how many rows they return, and how long serialization takes. Each measurement is also a trace
+ * section, so it lines up with the rest of the app in a systrace or Perfetto capture.
+ *
+ * Disabled by default. begin() then costs a single volatile read and end() returns at once.
+ */
+final class PerformanceStats {
+
+    // histogram bucket upper bounds, the last bucket holds everything slower
+    private static final long[] BUCKET_BOUNDS_MICROS = new long[]{
+            100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 100000, 250000, 500000, 1000000
+    };
+
+    private static final class Metric {
+        long count;
+        long totalNanos;
+        long maxNanos;
+        long rows;
+        final long[] buckets = new long[BUCKET_BOUNDS_MICROS.length + 1];
+    }
+
+    private volatile boolean enabled;
+    // guarded by this, sorted so the stats read the same from one call to the next
+    private final TreeMap<String, Metric> metrics = new TreeMap<>();
+    private long since = System.currentTimeMillis();
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** Starts a measurement. Returns the token to hand to end(), 0 when disabled. */
+    long begin(String name) {
+        if (!enabled) {
+            return 0;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(name);
+        }
+        long start = System.nanoTime();
+        return start == 0 ? 1 : start;
+    }
+
+    void end(String name, long token) {
+        end(name, token, -1);
+    }
+
+    /** Ends the measurement started by begin(), rows is -1 when the call returns none. */
+    void end(String name, long token, long rows) {
+        if (token == 0) {
+            return;
+        }
+
+        long nanos = System.nanoTime() - token;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+        record(name, nanos, rows);
+    }
+
+    /** Records a duration measured by the caller, such as the time a task waited in the executor queue. */
+    synchronized void record(String name, long nanos, long rows) {
+        Metric metric = metrics.get(name);
+        if (metric == null) {
+            metric = new Metric();
+            metrics.put(name, metric);
+        }
+
+        metric.count++;
+        metric.totalNanos += nanos;
+        metric.maxNanos = Math.max(metric.maxNanos, nanos);
+        if (rows > 0) {
+            metric.rows += rows;
+        }
+
+        long micros = nanos / 1000;
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MICROS.length && micros > BUCKET_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        metric.buckets[bucket]++;
+    }
+
+    /**
+     * A provider query measured under name. When enabled, the first window of rows is filled here so that the
+     * IPC is counted in the query rather than in whoever reads the cursor first.
+     */
+    Cursor query(ContentResolver cr, String name, Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+        return query(cr, name, uri, projection, selection, selectionArgs, sortOrder, null);
+    }
+
+    Cursor query(ContentResolver cr, String name, Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder, CancellationSignal signal) {
+        long token = begin(name);
+        long rows = -1;
+
+        try {
+            Cursor cursor = cr.query(uri, projection, selection, selectionArgs, sortOrder, signal);
+            if (token != 0 && cursor != null) {
+                rows = cursor.getCount();
+            }
+            return cursor;
+        } finally {
+            end(name, token, rows);
+        }
+    }
+
+    synchronized void reset() {
+        metrics.clear();
+        since = System.currentTimeMillis();
+    }
+
+    synchronized WritableNativeMap toMap() {
+        WritableNativeMap result = new WritableNativeMap();
+        result.putBoolean("enabled", enabled);
+        result.putString("since", IsoDateFormat.format(since));
+
+        WritableNativeArray bounds = new WritableNativeArray();
+        for (long bound : BUCKET_BOUNDS_MICROS) {
+            bounds.pushDouble(bound / 1000.0);
+        }
+        result.putArray("histogramBounds", bounds);
+
+        WritableNativeMap values = new WritableNativeMap();
+        for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+            Metric metric = entry.getValue();
+
+            WritableNativeMap value = new WritableNativeMap();
+            value.putDouble("count", metric.count);
+            value.putDouble("totalMillis", metric.totalNanos / 1e6);
+            value.putDouble("meanMillis", metric.totalNanos / 1e6 / metric.count);
+            value.putDouble("maxMillis", metric.maxNanos / 1e6);
+            value.putDouble("rows", metric.rows);
+
+            WritableNativeArray histogram = new WritableNativeArray();
+            for (long bucket : metric.buckets) {
+                histogram.pushDouble(bucket);
+            }
+            value.putArray("histogram", histogram);
+
+            values.putMap(entry.getKey(), value);
+        }
+        result.putMap("metrics", values);
+
+        return result;
+    }
+}
@@ -0,0 +1,135 @@
+package com.calendarevents;
+
+import android.os.Process;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableNativeMap;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bridge work in the executor queue, taken by priority class and then in call order, so that a read painting
+ * the screen does not wait behind a queue of bulk writes. A task already running is never interrupted.
+ *
+ * Background tasks also run at background thread priority, leaving the CPU to the UI and JS threads.
+ */
+final class PriorityTask implements Runnable, Comparable<PriorityTask> {
+
+    static final int INTERACTIVE = 0;
+    static final int NORMAL = 1;
+    static final int BACKGROUND = 2;
+    static final String[] NAMES = new String[]{"interactive", "normal", "background"};
+
+    /** Queue depth and queue waits of each class, counted whether performance stats are enabled or not. */
+    static final class Stats {
+        private final AtomicInteger[] queued = new AtomicInteger[NAMES.length];
+        private final AtomicInteger[] maxQueued = new AtomicInteger[NAMES.length];
+        private final AtomicLong[] started = new AtomicLong[NAMES.length];
+        private final AtomicLong[] waitNanos = new AtomicLong[NAMES.length];
+        private final AtomicLong[] maxWaitNanos = new AtomicLong[NAMES.length];
+
+        Stats() {
+            for (int i = 0; i < NAMES.length; i++) {
+                queued[i] = new AtomicInteger();
+                maxQueued[i] = new AtomicInteger();
+                started[i] = new AtomicLong();
+                waitNanos[i] = new AtomicLong();
+                maxWaitNanos[i] = new AtomicLong();
+            }
+        }
+
+        void queued(int priority) {
+            int depth = queued[priority].incrementAndGet();
+            int max = maxQueued[priority].get();
+            while (depth > max && !maxQueued[priority].compareAndSet(max, depth)) {
+                max = maxQueued[priority].get();
+            }
+        }
+
+        /** A task that was counted queued but never reached the executor. */
+        void rejected(int priority) {
+            queued[priority].decrementAndGet();
+        }
+
+        void started(int priority, long nanos) {
+            queued[priority].decrementAndGet();
+            started[priority].incrementAndGet();
+            waitNanos[priority].addAndGet(nanos);
+            long max = maxWaitNanos[priority].get();
+            while (nanos > max && !maxWaitNanos[priority].compareAndSet(max, nanos)) {
+                max = maxWaitNanos[priority].get();
+            }
+        }
+
+        WritableNativeMap toMap() {
+            WritableNativeMap result = new WritableNativeMap();
+            for (int i = 0; i < NAMES.length; i++) {
+                long count = started[i].get();
+                WritableNativeMap value = new WritableNativeMap();
+                value.putInt("queued", queued[i].get());
+                value.putInt("maxQueued", maxQueued[i].get());
+                value.putDouble("started", count);
+                value.putDouble("meanWaitMillis", count == 0 ? 0 : waitNanos[i].get() / 1e6 / count);
+                value.putDouble("maxWaitMillis", maxWaitNanos[i].get() / 1e6);
+                result.putMap(NAMES[i], value);
+            }
+            return result;
+        }
+    }
+
+    final int priority;
+    private final long sequence;
+    private final long queuedAt = System.nanoTime();
+    private final Runnable task;
+    private final Stats stats;
+
+    PriorityTask(int priority, long sequence, Runnable task, Stats stats) {
+        this.priority = priority;
+        this.sequence = sequence;
+        this.task = task;
+        this.stats = stats;
+    }
+
+    /** The `priority` option of a call, defaultPriority when it has none. */
+    static int fromOptions(ReadableMap options, int defaultPriority) {
+        if (options == null || !options.hasKey("priority") || options.isNull("priority")) {
+            return defaultPriority;
+        }
+
+        String name = options.getString("priority");
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown priority: " + name);
+    }
+
+    @Override
+    public void run() {
+        stats.started(priority, System.nanoTime() - queuedAt);
+
+        if (priority != BACKGROUND) {
+            task.run();
+            return;
+        }
+
+        int tid = Process.myTid();
+        int threadPriority = Process.getThreadPriority(tid);
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        try {
+            task.run();
+        } finally {
+            Process.setThreadPriority(threadPriority);
+        }
+    }
+
+    @Override
+    public int compareTo(PriorityTask other) {
+        if (priority != other.priority) {
+            return priority < other.priority ? -1 : 1;
+        }
+        return sequence < other.sequence ? -1 : (sequence > other.sequence ? 1 : 0);
+    }
+}
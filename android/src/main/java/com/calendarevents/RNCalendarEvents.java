@@ -1,17 +1,26 @@
 package com.calendarevents;
 
 import android.app.Activity;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentResolver;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.Intent;
+import android.content.OperationApplicationException;
 import android.content.pm.PackageManager;
 import android.content.SharedPreferences;
 import android.Manifest;
 import android.net.Uri;
+import android.os.CancellationSignal;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.OperationCanceledException;
+import android.os.RemoteException;
 import android.provider.CalendarContract;
 import androidx.core.content.ContextCompat;
 import android.database.Cursor;
+import android.database.MatrixCursor;
 import android.accounts.Account;
 import android.accounts.AccountManager;
 
@@ -28,17 +37,32 @@ import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.WritableNativeArray;
 import com.facebook.react.bridge.WritableNativeMap;
 import com.facebook.react.bridge.Dynamic;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
 import com.facebook.react.modules.core.PermissionAwareActivity;
 import com.facebook.react.modules.core.PermissionListener;
 
 import java.sql.Array;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import android.util.Log;
 
 public class RNCalendarEvents extends ReactContextBaseJavaModule implements PermissionListener {
@@ -47,10 +71,134 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
     private final ReactContext reactContext;
     private static final String RNC_PREFS = "REACT_NATIVE_CALENDAR_PREFERENCES";
     private static final HashMap<Integer, Promise> permissionsPromises = new HashMap<>();
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int DEFAULT_BULK_BATCH_SIZE = 50;
+    private static final int MAX_BULK_BATCH_SIZE = 500;
+    // an event with attendees and alarms is several operations, a batch is also ended once it holds this many so
+    // that its transaction and binder parcel stay bounded
+    private static final int MAX_BATCH_OPERATIONS = 500;
+    private static final String BULK_PROGRESS_EVENT = "RNCalendarEventsBulkProgress";
+    private static final String CALENDAR_CHANGED_EVENT = "calendarChanged";
+    // snapshots are a few bytes per event, keep the latest ones so a couple of consumers can sync independently
+    private static final int MAX_EVENT_SNAPSHOTS = 4;
+    // events columns read for in-memory expansion, ahead of the columns of the requested projection
+    private static final String[] EXPANSION_PROJECTION = new String[]{
+            CalendarContract.Events._ID,
+            CalendarContract.Events.DTSTART,
+            CalendarContract.Events.DTEND,
+            CalendarContract.Events.DURATION,
+            CalendarContract.Events.RRULE,
+            CalendarContract.Events.RDATE,
+            CalendarContract.Events.EXRULE,
+            CalendarContract.Events.EXDATE,
+            CalendarContract.Events.EVENT_TIMEZONE,
+            CalendarContract.Events.ALL_DAY,
+            CalendarContract.Events.STATUS,
+            CalendarContract.Events.ORIGINAL_ID,
+            CalendarContract.Events.ORIGINAL_INSTANCE_TIME
+    };
+    private static final int EXPANSION_ID = 0;
+    private static final int EXPANSION_DTSTART = 1;
+    private static final int EXPANSION_DTEND = 2;
+    private static final int EXPANSION_DURATION = 3;
+    private static final int EXPANSION_RRULE = 4;
+    private static final int EXPANSION_RDATE = 5;
+    private static final int EXPANSION_EXRULE = 6;
+    private static final int EXPANSION_EXDATE = 7;
+    private static final int EXPANSION_TIMEZONE = 8;
+    private static final int EXPANSION_ALL_DAY = 9;
+    private static final int EXPANSION_STATUS = 10;
+    private static final int EXPANSION_ORIGINAL_ID = 11;
+    private static final int EXPANSION_ORIGINAL_INSTANCE_TIME = 12;
+    private static final int DEFAULT_MAX_SLOTS = 100;
+    private static final int MAX_SLOTS = 10000;
+    private static final String[] FREE_BUSY_PROJECTION = new String[]{
+            CalendarContract.Instances.BEGIN,
+            CalendarContract.Instances.END,
+            CalendarContract.Instances.ALL_DAY
+    };
+
+    // provider work is queued behind a few shared threads instead of one new thread per bridge call
+    static final int DEFAULT_POOL_SIZE = 2;
+    private static final int EXECUTOR_QUEUE_CAPACITY = 256;
+    private static final long EXECUTOR_KEEP_ALIVE_SECONDS = 30;
+    // prefetches are best effort: a few of them at most are running or queued, later ones are skipped
+    private static final int MAX_PREFETCHES = 4;
+    private static final long PREFETCH_CHUNK_MILLIS = 7L * 24 * 60 * 60 * 1000;
+    private final ThreadPoolExecutor executor;
+    private final PriorityTask.Stats taskStats = new PriorityTask.Stats();
+    private final AtomicLong taskSequence = new AtomicLong();
+    private final AtomicInteger prefetches = new AtomicInteger();
+    // cancelled and replaced by cancelPrefetch, stopping the query in progress of every prefetch started before
+    private final AtomicReference<CancellationSignal> prefetchSignal = new AtomicReference<>(new CancellationSignal());
+    private final CalendarCache calendarCache;
+    private final CalendarChangeObserver changeObserver;
+    private final PerformanceStats performanceStats = new PerformanceStats();
+    private final SingleFlight readFlights = new SingleFlight();
+    // reads with a requestId or a timeout, from the bridge call until they settle
+    private final HashSet<ReadRequest> readRequests = new HashSet<>();
+    private final Handler deadlineHandler = new Handler(Looper.getMainLooper());
+    private final EventRangeCache eventRangeCache;
+    private final LinkedHashMap<String, EventSnapshot> eventSnapshots = new LinkedHashMap<String, EventSnapshot>(MAX_EVENT_SNAPSHOTS + 1, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, EventSnapshot> eldest) {
+            return size() > MAX_EVENT_SNAPSHOTS;
+        }
+    };
+    // tokens of an earlier process are unknown here rather than mistaken for a current snapshot
+    private final String snapshotTokenPrefix = Long.toString(System.currentTimeMillis(), 36);
+    private long snapshotCount;
+    private final EventSerializer eventSerializer = new EventSerializer(EventSerializer.NATIVE);
+    private final EventAssociations.Source associationSource = new EventAssociations.Source() {
+        @Override
+        public Cursor queryAttendees(Selection selection, CancellationSignal signal) {
+            return performanceStats.query(reactContext.getContentResolver(), "query.attendees", CalendarContract.Attendees.CONTENT_URI, EventAssociations.ATTENDEE_PROJECTION, selection.sql(), selection.args(), null, signal);
+        }
+
+        @Override
+        public Cursor queryReminders(Selection selection, CancellationSignal signal) {
+            return performanceStats.query(reactContext.getContentResolver(), "query.reminders", CalendarContract.Reminders.CONTENT_URI, EventAssociations.REMINDER_PROJECTION, selection.sql(), selection.args(), null, signal);
+        }
+
+        @Override
+        public HashMap<String, CalendarRow> calendars() {
+            return calendarCache.all();
+        }
+    };
+    private final EventSnapshot.Source snapshotSource = new EventSnapshot.Source() {
+        @Override
+        public Cursor queryEvents(String selection, String[] selectionArgs, CancellationSignal signal) {
+            return performanceStats.query(reactContext.getContentResolver(), "query.snapshot", CalendarContract.Events.CONTENT_URI, EventSnapshot.PROJECTION, selection, selectionArgs,
+                    CalendarContract.Events._ID + " ASC", signal);
+        }
+
+        @Override
+        public Cursor queryAttendees(Selection selection, CancellationSignal signal) {
+            return associationSource.queryAttendees(selection, signal);
+        }
+
+        @Override
+        public Cursor queryReminders(Selection selection, CancellationSignal signal) {
+            return associationSource.queryReminders(selection, signal);
+        }
+    };
 
     public RNCalendarEvents(ReactApplicationContext reactContext) {
+        this(reactContext, DEFAULT_POOL_SIZE);
+    }
+
+    public RNCalendarEvents(ReactApplicationContext reactContext, int poolSize) {
         super(reactContext);
         this.reactContext = reactContext;
+        this.executor = createExecutor(Math.max(1, poolSize));
+        this.calendarCache = new CalendarCache(reactContext.getContentResolver(), calendarProjection(), performanceStats);
+        this.eventRangeCache = new EventRangeCache(reactContext.getContentResolver());
+        this.changeObserver = new CalendarChangeObserver(reactContext.getContentResolver(), new CalendarChangeObserver.Listener() {
+            @Override
+            public void onCalendarChanged(int notifications) {
+                emitCalendarChanged(notifications);
+            }
+        });
     }
 
     @Override
@@ -58,6 +206,116 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
         return "RNCalendarEvents";
     }
 
+    @Override
+    public void onCatalystInstanceDestroy() {
+        super.onCatalystInstanceDestroy();
+        executor.shutdownNow();
+        prefetchSignal.get().cancel();
+        deadlineHandler.removeCallbacksAndMessages(null);
+        calendarCache.close();
+        eventRangeCache.close();
+        changeObserver.close();
+    }
+
+    /**
+     * Bounded pool shared by every bridge method, taking queued PriorityTasks by priority. When the queue is
+     * full, execute() throws RejectedExecutionException and the calling method rejects its promise.
+     */
+    private static ThreadPoolExecutor createExecutor(int poolSize) {
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "RNCalendarEvents-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+                EXECUTOR_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new BoundedPriorityQueue<Runnable>(EXECUTOR_QUEUE_CAPACITY),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * Runs a bridge method's work on the executor at a PriorityTask priority, timing its wait in the queue and
+     * its run when stats are enabled.
+     */
+    private void execute(final String method, final int priority, final Runnable task) {
+        Runnable run = task;
+
+        if (performanceStats.isEnabled()) {
+            final long queued = System.nanoTime();
+            run = new Runnable() {
+                @Override
+                public void run() {
+                    long wait = System.nanoTime() - queued;
+                    performanceStats.record("wait." + method, wait, -1);
+                    performanceStats.record("queue." + PriorityTask.NAMES[priority], wait, -1);
+                    String name = "call." + method;
+                    long token = performanceStats.begin(name);
+                    try {
+                        task.run();
+                    } finally {
+                        performanceStats.end(name, token);
+                    }
+                }
+            };
+        }
+
+        taskStats.queued(priority);
+        try {
+            executor.execute(new PriorityTask(priority, taskSequence.incrementAndGet(), run, taskStats));
+        } catch (RejectedExecutionException e) {
+            taskStats.rejected(priority);
+            throw e;
+        }
+    }
+
+    /** Makes a read cancellable by cancelRequest and posts its deadline, until finishRequest. */
+    private void startRequest(ReadRequest request) {
+        if (request == ReadRequest.NONE) {
+            return;
+        }
+
+        synchronized (readRequests) {
+            readRequests.add(request);
+        }
+        if (request.timeout() > 0) {
+            deadlineHandler.postDelayed(request.expiry(), request.timeout());
+        }
+    }
+
+    private void finishRequest(ReadRequest request) {
+        if (request == ReadRequest.NONE) {
+            return;
+        }
+
+        deadlineHandler.removeCallbacks(request.expiry());
+        synchronized (readRequests) {
+            readRequests.remove(request);
+        }
+    }
+
+    private static String cancelledMessage(ReadRequest request, OperationCanceledException e) {
+        return request.reason() != null ? request.reason() : e.getMessage();
+    }
+
+    private ContentProviderResult[] applyBatch(ContentResolver cr, ArrayList<ContentProviderOperation> ops) throws RemoteException, OperationApplicationException {
+        long token = performanceStats.begin("provider.applyBatch");
+        try {
+            return cr.applyBatch(CalendarContract.AUTHORITY, ops);
+        } finally {
+            performanceStats.end("provider.applyBatch", token, ops.size());
+        }
+    }
+
     //region Calendar Permissions
     private void requestCalendarPermission(boolean readOnly, final Promise promise)
     {
@@ -134,16 +392,10 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
 
     //endregion
 
-    private WritableNativeArray findEventCalendars() {
-
-        Cursor cursor;
-        ContentResolver cr = reactContext.getContentResolver();
-
-        Uri uri = CalendarContract.Calendars.CONTENT_URI;
-
+    private String[] calendarProjection() {
         String IS_PRIMARY = CalendarContract.Calendars.IS_PRIMARY == null ? "0" : CalendarContract.Calendars.IS_PRIMARY;
 
-        cursor = cr.query(uri, new String[]{
+        return new String[]{
                 CalendarContract.Calendars._ID,
                 CalendarContract.Calendars.CALENDAR_DISPLAY_NAME,
                 CalendarContract.Calendars.ACCOUNT_NAME,
@@ -152,39 +404,17 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
                 CalendarContract.Calendars.ALLOWED_AVAILABILITY,
                 CalendarContract.Calendars.ACCOUNT_TYPE,
                 CalendarContract.Calendars.CALENDAR_COLOR
-        }, null, null, null);
-
-        return serializeEventCalendars(cursor);
+        };
     }
 
-    private WritableNativeMap findCalendarById(String calendarID) {
-
-        WritableNativeMap result;
-        Cursor cursor;
-        ContentResolver cr = reactContext.getContentResolver();
-        Uri uri = ContentUris.withAppendedId(CalendarContract.Calendars.CONTENT_URI, Long.parseLong(calendarID));
-
-        String IS_PRIMARY = CalendarContract.Calendars.IS_PRIMARY == null ? "0" : CalendarContract.Calendars.IS_PRIMARY;
-
-        cursor = cr.query(uri, new String[]{
-                CalendarContract.Calendars._ID,
-                CalendarContract.Calendars.CALENDAR_DISPLAY_NAME,
-                CalendarContract.Calendars.ACCOUNT_NAME,
-                IS_PRIMARY,
-                CalendarContract.Calendars.CALENDAR_ACCESS_LEVEL,
-                CalendarContract.Calendars.ALLOWED_AVAILABILITY,
-                CalendarContract.Calendars.ACCOUNT_TYPE,
-                CalendarContract.Calendars.CALENDAR_COLOR
-        }, null, null, null);
-
-        if (cursor != null && cursor.moveToFirst()) {
-            result = serializeEventCalendar(cursor);
-            cursor.close();
-        } else {
-            result = null;
-        }
+    private WritableArray findEventCalendars(ReadRequest request) {
+        List<CalendarRow> calendars = calendarCache.reload(request.signal());
+        request.throwIfCancelled();
+        return eventSerializer.serializeEventCalendars(calendars);
+    }
 
-        return result;
+    private WritableMap findCalendarById(String calendarID) {
+        return eventSerializer.serializeEventCalendar(calendarCache.get(calendarID));
     }
 
     private Integer calAccessConstantMatchingString(String string) {
@@ -271,7 +501,14 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
 
         Uri calendarsUri = uriBuilder.build();
 
-        Uri calendarUri = cr.insert(calendarsUri, calendarValues);
+        long token = performanceStats.begin("provider.insertCalendar");
+        Uri calendarUri;
+        try {
+            calendarUri = cr.insert(calendarsUri, calendarValues);
+        } finally {
+            performanceStats.end("provider.insertCalendar", token, 1);
+        }
+        calendarCache.invalidate();
         return Long.parseLong(calendarUri.getLastPathSegment());
     }
 
@@ -282,7 +519,13 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
             ContentResolver cr = reactContext.getContentResolver();
 
             Uri uri = ContentUris.withAppendedId(CalendarContract.Calendars.CONTENT_URI, Long.parseLong(calendarID));
-            rows = cr.delete(uri, null, null);
+            long token = performanceStats.begin("provider.deleteCalendar");
+            try {
+                rows = cr.delete(uri, null, null);
+            } finally {
+                performanceStats.end("provider.deleteCalendar", token, rows);
+            }
+            calendarCache.invalidate();
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -291,309 +534,829 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
         return rows > 0;
     }
 
-    private WritableNativeArray findAttendeesByEventId(String eventID) {
-        WritableNativeArray result;
-        Cursor cursor;
-        ContentResolver cr = reactContext.getContentResolver();
-        String query = "(" + CalendarContract.Attendees.EVENT_ID + " = ?)";
-        String[] args = new String[]{eventID};
-
-        cursor = cr.query(CalendarContract.Attendees.CONTENT_URI, new String[]{
-                CalendarContract.Attendees._ID,
-                CalendarContract.Attendees.EVENT_ID,
-                CalendarContract.Attendees.ATTENDEE_NAME,
-                CalendarContract.Attendees.ATTENDEE_EMAIL,
-                CalendarContract.Attendees.ATTENDEE_TYPE,
-                CalendarContract.Attendees.ATTENDEE_RELATIONSHIP,
-                CalendarContract.Attendees.ATTENDEE_STATUS,
-                CalendarContract.Attendees.ATTENDEE_IDENTITY,
-                CalendarContract.Attendees.ATTENDEE_ID_NAMESPACE
-        }, query, args, null);
-
-        if (cursor != null && cursor.moveToFirst()) {
-            result = serializeAttendeeCalendar(cursor);
-            cursor.close();
-        } else {
-            WritableNativeArray emptyAttendees = new WritableNativeArray();
-            result = emptyAttendees;
+    /**
+     * Loads the calendars, attendees and reminders of the first maxRows events in the cursor with one query per
+     * table (chunked on the event ids) instead of three queries per row. The cursor is rewound before returning.
+     */
+    private EventAssociations findEventAssociations(Cursor cursor, EventFields fields, int maxRows, ReadRequest request) {
+        if (cursor == null) {
+            return null;
         }
 
-        return result;
+        return EventAssociations.load(associationSource, cursor, fields, maxRows, request);
     }
 
     //region Event Accessors
-    private WritableNativeArray findEvents(Dynamic startDate, Dynamic endDate, ReadableArray calendars) {
-        String dateFormat = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
-        SimpleDateFormat sdf = new SimpleDateFormat(dateFormat);
-        sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
-
-        Calendar eStartDate = Calendar.getInstance();
-        Calendar eEndDate = Calendar.getInstance();
+    private long[] findEventsRange(Dynamic startDate, Dynamic endDate) {
+        long now = System.currentTimeMillis();
+        long[] range = new long[]{now, now};
 
         try {
             if (startDate.getType() == ReadableType.String) {
-                eStartDate.setTime(sdf.parse(startDate.asString()));
+                range[0] = IsoDateFormat.parse(startDate.asString());
             } else if (startDate.getType() == ReadableType.Number) {
-                eStartDate.setTimeInMillis((long)startDate.asDouble());
+                range[0] = (long)startDate.asDouble();
             }
 
             if (endDate.getType() == ReadableType.String) {
-                eEndDate.setTime(sdf.parse(endDate.asString()));
+                range[1] = IsoDateFormat.parse(endDate.asString());
             } else if (endDate.getType() == ReadableType.Number) {
-                eEndDate.setTimeInMillis((long)endDate.asDouble());
+                range[1] = (long)endDate.asDouble();
             }
         } catch (ParseException e) {
             e.printStackTrace();
         }
 
-        Cursor cursor;
+        return range;
+    }
+
+    /**
+     * The distinct calendar ids of a calendars argument. A selection binds each of them, so more than
+     * Selection.MAX_IN_ARGS are rejected before they reach SQLite's variable limit.
+     */
+    private static List<String> calendarIDs(ReadableArray calendars) {
+        LinkedHashSet<String> calendarIDs = new LinkedHashSet<>();
+        for (int i = 0; i < calendars.size(); i++) {
+            calendarIDs.add(calendars.getString(i));
+        }
+        if (calendarIDs.size() > Selection.MAX_IN_ARGS) {
+            throw new IllegalArgumentException("at most " + Selection.MAX_IN_ARGS + " calendars can be selected, got " + calendarIDs.size());
+        }
+        return new ArrayList<>(calendarIDs);
+    }
+
+    private Selection instancesSelection(long startDate, long endDate, ReadableArray calendars) {
+        Selection selection = new Selection()
+                .where(CalendarContract.Instances.BEGIN + " < ?", endDate)
+                .where(CalendarContract.Instances.END + " >= ?", startDate)
+                .where(CalendarContract.Instances.VISIBLE + " = 1")
+                .where(CalendarContract.Instances.STATUS + " IS NOT " + CalendarContract.Events.STATUS_CANCELED);
+
+        if (calendars.size() > 0) {
+            selection.whereIn(CalendarContract.Instances.CALENDAR_ID, calendarIDs(calendars));
+        }
+
+        return selection;
+    }
+
+    private Cursor queryInstances(long startDate, long endDate, String[] projection, Selection selection, String sortOrder, CancellationSignal signal) {
         ContentResolver cr = reactContext.getContentResolver();
 
         Uri.Builder uriBuilder = CalendarContract.Instances.CONTENT_URI.buildUpon();
-        ContentUris.appendId(uriBuilder, eStartDate.getTimeInMillis());
-        ContentUris.appendId(uriBuilder, eEndDate.getTimeInMillis());
+        ContentUris.appendId(uriBuilder, startDate);
+        ContentUris.appendId(uriBuilder, endDate);
 
         Uri uri = uriBuilder.build();
 
-        String selection = "((" + CalendarContract.Instances.BEGIN + " < " + eEndDate.getTimeInMillis() + ") " +
-                "AND (" + CalendarContract.Instances.END + " >= " + eStartDate.getTimeInMillis() + ") " +
-                "AND (" + CalendarContract.Instances.VISIBLE + " = 1) " +
-                "AND (" + CalendarContract.Instances.STATUS + " IS NOT " + CalendarContract.Events.STATUS_CANCELED + ") ";
+        return performanceStats.query(cr, "query.instances", uri, projection, selection.sql(), selection.args(), sortOrder, signal);
+    }
 
-        if (calendars.size() > 0) {
-            String calendarQuery = "AND (";
-            for (int i = 0; i < calendars.size(); i++) {
-                calendarQuery += CalendarContract.Instances.CALENDAR_ID + " = " + calendars.getString(i);
-                if (i != calendars.size() - 1) {
-                    calendarQuery += " OR ";
-                }
-            }
-            calendarQuery += ")";
-            selection += calendarQuery;
+    /** The events of the range as an array of events, or as a map of columns with the columnar format. */
+    private Object findEvents(Dynamic startDate, Dynamic endDate, ReadableArray calendars, ReadableMap options, ReadRequest request) {
+        EventFields fields = EventFields.fromOptions(options);
+        long[] range = findEventsRange(startDate, endDate);
+        Cursor cursor = null;
+
+        if (options != null && options.hasKey("expansion") && "local".equals(options.getString("expansion"))) {
+            cursor = expandInstances(range[0], range[1], calendars, fields.instancesProjection(), request);
+        }
+        if (cursor == null) {
+            cursor = findCachedInstances(range[0], range[1], calendars, request.signal());
+        }
+        if (cursor == null) {
+            Selection selection = instancesSelection(range[0], range[1], calendars);
+            cursor = queryInstances(range[0], range[1], fields.instancesProjection(), selection, null, request.signal());
         }
 
-        selection += ")";
+        EventAssociations associations;
+        try {
+            associations = findEventAssociations(cursor, fields, Integer.MAX_VALUE, request);
+        } catch (OperationCanceledException e) {
+            if (cursor != null) {
+                cursor.close();
+            }
+            throw e;
+        }
 
-        cursor = cr.query(uri, new String[]{
-                CalendarContract.Instances.EVENT_ID,
-                CalendarContract.Instances.TITLE,
-                CalendarContract.Instances.DESCRIPTION,
-                CalendarContract.Instances.BEGIN,
-                CalendarContract.Instances.END,
-                CalendarContract.Instances.ALL_DAY,
-                CalendarContract.Instances.EVENT_LOCATION,
-                CalendarContract.Instances.RRULE,
-                CalendarContract.Instances.CALENDAR_ID,
-                CalendarContract.Instances.AVAILABILITY,
-                CalendarContract.Instances.HAS_ALARM,
-                CalendarContract.Instances.ORIGINAL_ID,
-                CalendarContract.Instances.EVENT_ID,
-                CalendarContract.Instances.DURATION,
-                CalendarContract.Instances.ORIGINAL_SYNC_ID,
-        }, selection, null, null);
+        if (options != null && options.hasKey("format") && "columnar".equals(options.getString("format"))) {
+            return serializeEventsColumnar(cursor, fields, associations, request);
+        }
+        return serializeEvents(cursor, fields, associations, request);
+    }
 
+    /**
+     * Busy time of the range as ordered, disjoint {startDate, endDate} ranges, merged from every instance that is
+     * not marked free. Only the columns needed for the merge are read.
+     */
+    private WritableNativeArray findFreeBusy(Dynamic startDate, Dynamic endDate, ReadableArray calendars, ReadableMap options, ReadRequest request) {
+        long[] range = findEventsRange(startDate, endDate);
+        long granularity = 0;
+        if (options != null && options.hasKey("granularity")) {
+            granularity = (long) (options.getDouble("granularity") * 60 * 1000);
+        }
 
-        return serializeEvents(cursor);
+        long[] busy = findBusyIntervals(range[0], range[1], calendars, granularity, 0, TimeZone.getDefault(), request);
+        return serializeIntervals(busy);
     }
 
-    private WritableNativeMap findEventById(String eventID) {
-
-        WritableNativeMap result;
-        Cursor cursor = null;
-        ContentResolver cr = reactContext.getContentResolver();
-        Uri uri = ContentUris.withAppendedId(CalendarContract.Events.CONTENT_URI, Long.parseLong(eventID));
+    /**
+     * Back to back slots of durationMinutes in the range, free in every given calendar, and within the working
+     * hours of the options when there are some.
+     */
+    private WritableNativeArray findAvailableSlots(Dynamic startDate, Dynamic endDate, ReadableArray calendars, double durationMinutes, ReadableMap options, ReadRequest request) {
+        long[] range = findEventsRange(startDate, endDate);
+        long duration = (long) (durationMinutes * 60 * 1000);
+        if (duration <= 0) {
+            throw new IllegalArgumentException("durationMinutes must be positive");
+        }
+
+        TimeZone zone = TimeZone.getDefault();
+        long buffer = 0;
+        int maxResults = DEFAULT_MAX_SLOTS;
+        ReadableMap workingHours = null;
+
+        if (options != null) {
+            if (options.hasKey("timeZone")) {
+                zone = FreeBusy.timeZone(options.getString("timeZone"));
+            }
+            if (options.hasKey("bufferMinutes")) {
+                buffer = (long) (options.getDouble("bufferMinutes") * 60 * 1000);
+            }
+            if (options.hasKey("maxResults")) {
+                maxResults = Math.max(0, Math.min(options.getInt("maxResults"), MAX_SLOTS));
+            }
+            if (options.hasKey("workingHours")) {
+                workingHours = options.getMap("workingHours");
+            }
+        }
 
-        String selection = "((" + CalendarContract.Events.DELETED + " != 1))";
+        long[] windows;
+        if (workingHours != null) {
+            boolean[] days = new boolean[8];
+            if (workingHours.hasKey("daysOfWeek")) {
+                ReadableArray daysOfWeek = workingHours.getArray("daysOfWeek");
+                for (int i = 0; i < daysOfWeek.size(); i++) {
+                    days[calendarDayOfWeek(daysOfWeek.getString(i))] = true;
+                }
+            } else {
+                Arrays.fill(days, true);
+            }
 
-        cursor = cr.query(uri, new String[]{
-                CalendarContract.Events._ID,
-                CalendarContract.Events.TITLE,
-                CalendarContract.Events.DESCRIPTION,
-                CalendarContract.Events.DTSTART,
-                CalendarContract.Events.DTEND,
-                CalendarContract.Events.ALL_DAY,
-                CalendarContract.Events.EVENT_LOCATION,
-                CalendarContract.Events.RRULE,
-                CalendarContract.Events.CALENDAR_ID,
-                CalendarContract.Events.AVAILABILITY,
-                CalendarContract.Events.HAS_ALARM,
-                CalendarContract.Instances.DURATION
-        }, selection, null, null);
-
-        if (cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            result = serializeEvent(cursor);
+            windows = FreeBusy.workingWindows(range[0], range[1], zone,
+                    minuteOfDay(workingHours.getString("startTime")), minuteOfDay(workingHours.getString("endTime")), days);
         } else {
-            result = null;
+            windows = new long[]{range[0], range[1]};
         }
 
-        cursor.close();
-
-        return result;
+        long[] busy = findBusyIntervals(range[0], range[1], calendars, 0, buffer, zone, request);
+        return serializeIntervals(FreeBusy.freeSlots(busy, windows, duration, maxResults));
     }
 
-    private WritableNativeMap findEventInstanceById(String eventID) {
-
-        WritableNativeMap result;
-        Cursor cursor;
-        ContentResolver cr = reactContext.getContentResolver();
+    /**
+     * Merged busy intervals of the range from every instance that is not marked free, widened by padding on each
+     * side. Only the columns needed for the merge are read.
+     */
+    private long[] findBusyIntervals(long startDate, long endDate, ReadableArray calendars, long granularity, long padding, TimeZone zone, ReadRequest request) {
+        // instances just outside the range still reach into it once padded
+        Selection selection = instancesSelection(startDate - padding, endDate + padding, calendars)
+                .where(CalendarContract.Instances.AVAILABILITY + " != " + CalendarContract.Events.AVAILABILITY_FREE);
 
-        Uri.Builder uriBuilder = CalendarContract.Instances.CONTENT_URI.buildUpon();
-        ContentUris.appendId(uriBuilder, Long.MIN_VALUE);
-        ContentUris.appendId(uriBuilder, Long.MAX_VALUE);
-        Uri uri = uriBuilder.build();
+        Cursor cursor = queryInstances(startDate - padding, endDate + padding, FREE_BUSY_PROJECTION, selection, null, request.signal());
+        if (cursor == null) {
+            return new long[0];
+        }
 
-        String selection = "(Instances._ID = " + eventID + ")";
-
-        cursor = cr.query(uri, new String[]{
-                CalendarContract.Instances._ID,
-                CalendarContract.Instances.TITLE,
-                CalendarContract.Instances.DESCRIPTION,
-                CalendarContract.Instances.BEGIN,
-                CalendarContract.Instances.END,
-                CalendarContract.Instances.ALL_DAY,
-                CalendarContract.Instances.EVENT_LOCATION,
-                CalendarContract.Instances.RRULE,
-                CalendarContract.Instances.CALENDAR_ID,
-                CalendarContract.Instances.AVAILABILITY,
-                CalendarContract.Instances.HAS_ALARM,
-                CalendarContract.Instances.ORIGINAL_ID,
-                CalendarContract.Instances.EVENT_ID,
-                CalendarContract.Instances.DURATION
-        }, selection, null, null);
-
-        if (cursor != null && cursor.moveToFirst()) {
-            result = serializeEvent(cursor);
+        FreeBusy freeBusy = new FreeBusy(startDate, endDate, granularity, padding, zone, cursor.getCount());
+        try {
+            int rows = 0;
+            while (cursor.moveToNext()) {
+                if (rows++ % ReadRequest.CHECK_INTERVAL == 0) {
+                    request.throwIfCancelled();
+                }
+                if (cursor.getInt(2) == 1) {
+                    freeBusy.addAllDay(cursor.getLong(0), cursor.getLong(1));
+                } else {
+                    freeBusy.add(cursor.getLong(0), cursor.getLong(1));
+                }
+            }
+        } finally {
             cursor.close();
-        } else {
-            result = null;
         }
 
-        return result;
+        return freeBusy.merge();
     }
 
-    private long addEvent(String title, ReadableMap details, ReadableMap options) throws ParseException {
-        String dateFormat = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
-        SimpleDateFormat sdf = new SimpleDateFormat(dateFormat);
-        boolean skipTimezone = false;
-        if(details.hasKey("skipAndroidTimezone") && details.getBoolean("skipAndroidTimezone")){
-            skipTimezone = true;
-        }
-        if(!skipTimezone){
-            sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+    private static WritableNativeArray serializeIntervals(long[] intervals) {
+        WritableNativeArray results = new WritableNativeArray();
+        for (int i = 0; i < intervals.length; i += 2) {
+            WritableNativeMap interval = new WritableNativeMap();
+            interval.putString("startDate", IsoDateFormat.format(intervals[i]));
+            interval.putString("endDate", IsoDateFormat.format(intervals[i + 1]));
+            results.pushMap(interval);
         }
-        ContentResolver cr = reactContext.getContentResolver();
-        ContentValues eventValues = new ContentValues();
+        return results;
+    }
 
-        if (title != null) {
-            eventValues.put(CalendarContract.Events.TITLE, title);
+    // "HH:mm", "24:00" being the end of the day
+    private static int minuteOfDay(String time) {
+        int colon = time.indexOf(':');
+        int hours = Integer.parseInt(colon == -1 ? time : time.substring(0, colon));
+        int minutes = colon == -1 ? 0 : Integer.parseInt(time.substring(colon + 1));
+        if (hours < 0 || minutes < 0 || minutes > 59 || hours * 60 + minutes > 24 * 60) {
+            throw new IllegalArgumentException("invalid time of day: " + time);
         }
+        return hours * 60 + minutes;
+    }
 
-        if (details.hasKey("description")) {
-            eventValues.put(CalendarContract.Events.DESCRIPTION, details.getString("description"));
+    // the RRULE day names used by daysOfWeek
+    private static int calendarDayOfWeek(String day) {
+        switch (day.toUpperCase()) {
+            case "SU": return Calendar.SUNDAY;
+            case "MO": return Calendar.MONDAY;
+            case "TU": return Calendar.TUESDAY;
+            case "WE": return Calendar.WEDNESDAY;
+            case "TH": return Calendar.THURSDAY;
+            case "FR": return Calendar.FRIDAY;
+            case "SA": return Calendar.SATURDAY;
+            default: throw new IllegalArgumentException("invalid day of week: " + day);
         }
+    }
 
-        if (details.hasKey("location")) {
-            eventValues.put(CalendarContract.Events.EVENT_LOCATION, details.getString("location"));
+    /** Instances of the range through the event range cache, null when it is disabled or does not take the range. */
+    private Cursor findCachedInstances(long startDate, long endDate, final ReadableArray calendars, final CancellationSignal signal) {
+        if (!eventRangeCache.isEnabled()) {
+            return null;
         }
 
-        if (details.hasKey("startDate")) {
-            Calendar startCal = Calendar.getInstance();
-            ReadableType type = details.getType("startDate");
+        ArrayList<String> calendarIDs = new ArrayList<>();
+        for (int i = 0; i < calendars.size(); i++) {
+            calendarIDs.add(calendars.getString(i));
+        }
+        Collections.sort(calendarIDs);
 
-            try {
-                if (type == ReadableType.String) {
-                    startCal.setTime(sdf.parse(details.getString("startDate")));
-                    eventValues.put(CalendarContract.Events.DTSTART, startCal.getTimeInMillis());
-                } else if (type == ReadableType.Number) {
-                    eventValues.put(CalendarContract.Events.DTSTART, (long)details.getDouble("startDate"));
-                }
-            } catch (ParseException e) {
-                e.printStackTrace();
-                throw e;
+        return eventRangeCache.query(calendarIDs.toString(), startDate, endDate, new EventRangeCache.Loader() {
+            @Override
+            public Cursor load(long start, long end) {
+                return queryInstances(start, end, EventRangeCache.PROJECTION, instancesSelection(start, end, calendars), null, signal);
             }
-        }
+        });
+    }
 
-        if (details.hasKey("endDate")) {
-            Calendar endCal = Calendar.getInstance();
-            ReadableType type = details.getType("endDate");
+    /**
+     * Reads [start, endDate) into the event range cache a week at a time. Each week is a BACKGROUND task queued
+     * once the previous week is read, so that bridge calls made meanwhile are taken first and a prefetch never
+     * holds the queue. Resolves promise with false when cancelled, when the queue is full or when the cache stops
+     * taking the range.
+     */
+    private void prefetchEvents(final long start, final long endDate, final ReadableArray calendars,
+                                final CancellationSignal signal, final Promise promise) {
+        try {
+            execute("prefetchEvents", PriorityTask.BACKGROUND, new Runnable() {
+                @Override
+                public void run() {
+                    long end = Math.min(endDate, start + PREFETCH_CHUNK_MILLIS);
+                    try {
+                        Cursor cursor = signal.isCanceled() ? null : findCachedInstances(start, end, calendars, signal);
+                        if (cursor == null) {
+                            finishPrefetch(promise, false);
+                            return;
+                        }
+                        cursor.close();
+                    } catch (OperationCanceledException e) {
+                        finishPrefetch(promise, false);
+                        return;
+                    } catch (Throwable t) {
+                        prefetches.decrementAndGet();
+                        Log.e("RNCalendarEvents prefetch error", t.getMessage(), t);
+                        promise.reject("prefetch error", t.getMessage(), t);
+                        return;
+                    }
 
-            try {
-                if (type == ReadableType.String) {
-                    endCal.setTime(sdf.parse(details.getString("endDate")));
-                    eventValues.put(CalendarContract.Events.DTEND, endCal.getTimeInMillis());
-                } else if (type == ReadableType.Number) {
-                    eventValues.put(CalendarContract.Events.DTEND, (long)details.getDouble("endDate"));
+                    if (end < endDate) {
+                        prefetchEvents(end, endDate, calendars, signal, promise);
+                    } else {
+                        finishPrefetch(promise, true);
+                    }
                 }
-            } catch (ParseException e) {
-                e.printStackTrace();
-                throw e;
-            }
+            });
+        } catch (RejectedExecutionException e) {
+            // the queue is full of bridge calls, the prefetch gives way
+            finishPrefetch(promise, false);
         }
+    }
 
-        if (details.hasKey("recurrence")) {
-            String rule = createRecurrenceRule(details.getString("recurrence"), null, null, null, null, null, null);
-            if (rule != null) {
-                eventValues.put(CalendarContract.Events.RRULE, rule);
-            }
+    private void finishPrefetch(Promise promise, boolean complete) {
+        prefetches.decrementAndGet();
+        promise.resolve(complete);
+    }
+
+    /**
+     * Drops the read flights and cached days a write makes stale. Called when the write is queued and again once
+     * it is applied: a read may run ahead of a queued write, and the provider's change notification comes later.
+     */
+    private void invalidateReads() {
+        readFlights.invalidate();
+        eventRangeCache.invalidate();
+    }
+
+    /** Identical findAllEvents calls get identical keys: same range, same calendars in any order, same options. */
+    private String eventsFlightKey(Dynamic startDate, Dynamic endDate, ReadableArray calendars, ReadableMap options) {
+        long[] range = findEventsRange(startDate, endDate);
+        ArrayList<String> calendarIDs = new ArrayList<>();
+        for (int i = 0; i < calendars.size(); i++) {
+            calendarIDs.add(calendars.getString(i));
         }
+        Collections.sort(calendarIDs);
 
-        if (details.hasKey("recurrenceRule")) {
-            ReadableMap recurrenceRule = details.getMap("recurrenceRule");
+        return "findAllEvents:" + range[0] + ":" + range[1] + ":" + calendarIDs + ":" + optionsKey(options);
+    }
 
-            if (recurrenceRule.hasKey("frequency")) {
-                String frequency = recurrenceRule.getString("frequency");
-                String duration = "PT1H";
-                Integer interval = null;
-                Integer occurrence = null;
-                String endDate = null;
-                ReadableArray daysOfWeek = null;
-                String weekStart = null;
-                Integer weekPositionInMonth = null;
+    private static String optionsKey(ReadableMap options) {
+        return options == null ? "" : new TreeMap<>(options.toHashMap()).toString();
+    }
 
-                if (recurrenceRule.hasKey("interval")) {
-                    interval = recurrenceRule.getInt("interval");
-                }
+    /**
+     * Instances of the range expanded in memory from the events table with RecurrenceExpander, as a cursor with
+     * the given instances projection ordered by BEGIN. The provider's instances table is neither read nor grown.
+     * Returns null when an event in the range uses recurrence features the expander does not cover.
+     */
+    private Cursor expandInstances(long startDate, long endDate, ReadableArray calendars, String[] projection, ReadRequest request) {
+        ContentResolver cr = reactContext.getContentResolver();
 
-                if (recurrenceRule.hasKey("duration")) {
-                    duration = recurrenceRule.getString("duration");
-                }
+        Selection selection = new Selection()
+                .where(CalendarContract.Events.DELETED + " = 0")
+                .where(CalendarContract.Events.VISIBLE + " = 1")
+                .where("(" + CalendarContract.Events.DTSTART + " < ? AND (" + CalendarContract.Events.LAST_DATE + " IS NULL OR " + CalendarContract.Events.LAST_DATE + " >= ?)) " +
+                        "OR (" + CalendarContract.Events.ORIGINAL_ID + " IS NOT NULL AND " + CalendarContract.Events.ORIGINAL_INSTANCE_TIME + " < ?)", endDate, startDate, endDate);
 
-                if (recurrenceRule.hasKey("occurrence")) {
-                    occurrence = recurrenceRule.getInt("occurrence");
-                }
+        if (calendars.size() > 0) {
+            selection.whereIn(CalendarContract.Events.CALENDAR_ID, calendarIDs(calendars));
+        }
 
-                if (recurrenceRule.hasKey("endDate")) {
-                    ReadableType type = recurrenceRule.getType("endDate");
-                    SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+        // the expansion columns, then the events column behind each column of the instances projection
+        String[] columns = Arrays.copyOf(EXPANSION_PROJECTION, EXPANSION_PROJECTION.length + projection.length);
+        for (int i = 0; i < projection.length; i++) {
+            String column = projection[i];
+            if (column.equals(CalendarContract.Instances.EVENT_ID) || column.equals(CalendarContract.Instances.BEGIN) || column.equals(CalendarContract.Instances.END)) {
+                column = CalendarContract.Events._ID;
+            }
+            columns[EXPANSION_PROJECTION.length + i] = column;
+        }
 
-                    if (type == ReadableType.String) {
-                        endDate = format.format(sdf.parse(recurrenceRule.getString("endDate")));
-                    } else if (type == ReadableType.Number) {
-                        Calendar calendar = Calendar.getInstance();
-                        calendar.setTimeInMillis((long)recurrenceRule.getDouble("endDate"));
-                        endDate = format.format(calendar.getTime());
+        Cursor cursor = performanceStats.query(cr, "query.expansion", CalendarContract.Events.CONTENT_URI, columns, selection.sql(), selection.args(), null, request.signal());
+        if (cursor == null) {
+            return null;
+        }
+
+        ArrayList<String[]> rows = new ArrayList<>();
+        HashMap<String, ArrayList<Long>> exceptionTimes = new HashMap<>();
+
+        try {
+            while (cursor.moveToNext()) {
+                String[] row = new String[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    row[i] = cursor.getString(i);
+                }
+                rows.add(row);
+
+                // exceptions, cancelled or not, replace the occurrence of their original event
+                if (row[EXPANSION_ORIGINAL_ID] != null && row[EXPANSION_ORIGINAL_INSTANCE_TIME] != null) {
+                    ArrayList<Long> times = exceptionTimes.get(row[EXPANSION_ORIGINAL_ID]);
+                    if (times == null) {
+                        times = new ArrayList<>();
+                        exceptionTimes.put(row[EXPANSION_ORIGINAL_ID], times);
                     }
+                    times.add(Long.parseLong(row[EXPANSION_ORIGINAL_INSTANCE_TIME]));
                 }
+            }
+        } finally {
+            cursor.close();
+        }
 
-                if (recurrenceRule.hasKey("daysOfWeek")) {
-                    daysOfWeek = recurrenceRule.getArray("daysOfWeek");
-                }
+        ArrayList<Object[]> instances = new ArrayList<>();
 
-                if (recurrenceRule.hasKey("weekStart")) {
-                    weekStart = recurrenceRule.getString("weekStart");
+        try {
+            for (String[] row : rows) {
+                request.throwIfCancelled();
+                if (row[EXPANSION_DTSTART] == null || String.valueOf(CalendarContract.Events.STATUS_CANCELED).equals(row[EXPANSION_STATUS])) {
+                    continue;
                 }
-
-                if (recurrenceRule.hasKey("weekPositionInMonth")) {
-                    weekPositionInMonth = recurrenceRule.getInt("weekPositionInMonth");
+                if (row[EXPANSION_EXRULE] != null) {
+                    throw new RecurrenceExpander.UnsupportedRuleException("EXRULE");
                 }
 
-                String rule = createRecurrenceRule(frequency, interval, endDate, occurrence, daysOfWeek, weekStart, weekPositionInMonth);
-                if (duration != null) {
-                    eventValues.put(CalendarContract.Events.DURATION, duration);
+                long dtstart = Long.parseLong(row[EXPANSION_DTSTART]);
+                long duration = 0;
+                if (row[EXPANSION_DURATION] != null) {
+                    duration = RecurrenceExpander.parseDuration(row[EXPANSION_DURATION]);
+                } else if (row[EXPANSION_DTEND] != null) {
+                    duration = Long.parseLong(row[EXPANSION_DTEND]) - dtstart;
                 }
-                if (rule != null) {
-                    eventValues.put(CalendarContract.Events.RRULE, rule);
+
+                // all-day events are stored in UTC
+                TimeZone zone = "1".equals(row[EXPANSION_ALL_DAY]) || row[EXPANSION_TIMEZONE] == null
+                        ? TimeZone.getTimeZone("UTC")
+                        : TimeZone.getTimeZone(row[EXPANSION_TIMEZONE]);
+
+                long[] begins = RecurrenceExpander.expand(dtstart, duration, zone, row[EXPANSION_RRULE], row[EXPANSION_RDATE], row[EXPANSION_EXDATE], startDate, endDate);
+                ArrayList<Long> replaced = exceptionTimes.get(row[EXPANSION_ID]);
+
+                for (long begin : begins) {
+                    if (replaced != null && replaced.contains(begin)) {
+                        continue;
+                    }
+
+                    Object[] instance = new Object[projection.length];
+                    for (int i = 0; i < projection.length; i++) {
+                        if (projection[i].equals(CalendarContract.Instances.BEGIN)) {
+                            instance[i] = begin;
+                        } else if (projection[i].equals(CalendarContract.Instances.END)) {
+                            instance[i] = begin + duration;
+                        } else {
+                            instance[i] = row[EXPANSION_PROJECTION.length + i];
+                        }
+                    }
+                    instances.add(instance);
+                }
+            }
+        } catch (RecurrenceExpander.UnsupportedRuleException e) {
+            Log.d("RNCalendarEvents", "Falling back to provider instances: " + e.getMessage());
+            return null;
+        }
+
+        final int beginColumn = Arrays.asList(projection).indexOf(CalendarContract.Instances.BEGIN);
+        if (beginColumn != -1) {
+            Collections.sort(instances, new Comparator<Object[]>() {
+                @Override
+                public int compare(Object[] a, Object[] b) {
+                    long difference = (Long) a[beginColumn] - (Long) b[beginColumn];
+                    return difference < 0 ? -1 : (difference > 0 ? 1 : 0);
+                }
+            });
+        }
+
+        MatrixCursor result = new MatrixCursor(projection, instances.size());
+        for (Object[] instance : instances) {
+            result.addRow(instance);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns at most `limit` instances ordered by (BEGIN, Instances._ID) together with an opaque token
+     * pointing after the last returned instance, or a null token once the range is exhausted.
+     */
+    private WritableNativeMap findEventsPage(Dynamic startDate, Dynamic endDate, ReadableArray calendars, ReadableMap options, ReadRequest request) {
+        int limit = DEFAULT_PAGE_SIZE;
+        if (options.hasKey("limit") && !options.isNull("limit")) {
+            limit = Math.max(1, options.getInt("limit"));
+        }
+
+        long[] range = findEventsRange(startDate, endDate);
+        Selection selection = instancesSelection(range[0], range[1], calendars);
+
+        if (options.hasKey("cursorToken") && !options.isNull("cursorToken")) {
+            long[] position = parsePageToken(options.getString("cursorToken"));
+            selection.where("(" + CalendarContract.Instances.BEGIN + " > ?) " +
+                    "OR (" + CalendarContract.Instances.BEGIN + " = ? AND Instances._id > ?)", position[0], position[0], position[1]);
+        }
+
+        EventFields fields = EventFields.fromOptions(options);
+        String[] fieldsProjection = fields.instancesProjection();
+        String[] projection = Arrays.copyOf(fieldsProjection, fieldsProjection.length + 2);
+        int beginColumn = fieldsProjection.length;
+        int instanceIdColumn = fieldsProjection.length + 1;
+        projection[beginColumn] = CalendarContract.Instances.BEGIN;
+        projection[instanceIdColumn] = CalendarContract.Instances._ID;
+
+        // Not every provider accepts a LIMIT clause smuggled into the sort order, so the page is cut while
+        // reading; rows past the page are never serialized or sent over the bridge.
+        Cursor cursor = queryInstances(range[0], range[1], projection, selection,
+                CalendarContract.Instances.BEGIN + " ASC, Instances._id ASC", request.signal());
+
+        WritableNativeArray events = new WritableNativeArray();
+        String nextToken = null;
+
+        if (cursor != null) {
+            try {
+                EventAssociations associations = findEventAssociations(cursor, fields, limit, request);
+                EventColumns columns = EventColumns.fromCursor(cursor);
+                int count = 0;
+                long lastBegin = 0;
+                long lastInstanceId = 0;
+
+                while (count < limit && cursor.moveToNext()) {
+                    if (count % ReadRequest.CHECK_INTERVAL == 0) {
+                        request.throwIfCancelled();
+                    }
+                    events.pushMap(eventSerializer.serializeEvent(cursor, columns, fields, associations));
+                    lastBegin = cursor.getLong(beginColumn);
+                    lastInstanceId = cursor.getLong(instanceIdColumn);
+                    count++;
+                }
+
+                if (count == limit && cursor.moveToNext()) {
+                    nextToken = lastBegin + ":" + lastInstanceId;
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        WritableNativeMap page = new WritableNativeMap();
+        page.putArray("events", events);
+        page.putString("cursorToken", nextToken);
+
+        return page;
+    }
+
+    /**
+     * Instances of the range matching query, ordered by start date, from offset and at most limit of them.
+     * The provider's full text search covers titles, descriptions, locations and attendees.
+     */
+    private WritableNativeArray searchEvents(String query, Dynamic startDate, Dynamic endDate, ReadableArray calendars, ReadableMap options, ReadRequest request) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("search query is empty");
+        }
+
+        int limit = DEFAULT_PAGE_SIZE;
+        int offset = 0;
+        if (options.hasKey("limit") && !options.isNull("limit")) {
+            limit = Math.max(1, options.getInt("limit"));
+        }
+        if (options.hasKey("offset") && !options.isNull("offset")) {
+            offset = Math.max(0, options.getInt("offset"));
+        }
+
+        long[] range = findEventsRange(startDate, endDate);
+        Selection selection = instancesSelection(range[0], range[1], calendars);
+        EventFields fields = EventFields.fromOptions(options);
+
+        Uri.Builder uriBuilder = CalendarContract.Instances.CONTENT_SEARCH_URI.buildUpon();
+        ContentUris.appendId(uriBuilder, range[0]);
+        ContentUris.appendId(uriBuilder, range[1]);
+        uriBuilder.appendPath(query.trim());
+
+        // as with pages, offset and limit are applied while reading rather than through the sort order
+        Cursor cursor = performanceStats.query(reactContext.getContentResolver(), "query.search", uriBuilder.build(),
+                fields.instancesProjection(), selection.sql(), selection.args(),
+                CalendarContract.Instances.BEGIN + " ASC, " + CalendarContract.Instances.EVENT_ID + " ASC", request.signal());
+
+        WritableNativeArray events = new WritableNativeArray();
+        if (cursor == null) {
+            return events;
+        }
+
+        try {
+            if (offset > 0 && !cursor.moveToPosition(offset - 1)) {
+                return events;
+            }
+
+            EventAssociations associations = findEventAssociations(cursor, fields, limit, request);
+            EventColumns columns = EventColumns.fromCursor(cursor);
+            int count = 0;
+
+            while (count < limit && cursor.moveToNext()) {
+                if (count % ReadRequest.CHECK_INTERVAL == 0) {
+                    request.throwIfCancelled();
+                }
+                events.pushMap(eventSerializer.serializeEvent(cursor, columns, fields, associations));
+                count++;
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return events;
+    }
+
+    /**
+     * Compares the events of calendars with the snapshot behind token and returns the ids added, updated and
+     * deleted since, plus the token of a new snapshot. An unknown or null token, or one taken for other
+     * calendars, returns every event as added with reset set.
+     */
+    private WritableNativeMap findEventsChangedSince(String token, ReadableArray calendars, ReadRequest request) {
+        Selection selection = new Selection().where(CalendarContract.Events.DELETED + " = 0");
+        String calendarsKey = "";
+
+        if (calendars != null && calendars.size() > 0) {
+            List<String> calendarIDs = calendarIDs(calendars);
+            Collections.sort(calendarIDs);
+
+            selection.whereIn(CalendarContract.Events.CALENDAR_ID, calendarIDs);
+            calendarsKey = calendarIDs.toString();
+        }
+
+        EventSnapshot snapshot = EventSnapshot.query(snapshotSource, calendarsKey, selection.sql(), selection.args(), request);
+        EventSnapshot previous;
+        String newToken;
+
+        synchronized (eventSnapshots) {
+            previous = token == null ? null : eventSnapshots.get(token);
+            newToken = snapshotTokenPrefix + "-" + (++snapshotCount);
+            eventSnapshots.put(newToken, snapshot);
+        }
+
+        ArrayList<String> added = new ArrayList<>();
+        ArrayList<String> updated = new ArrayList<>();
+        ArrayList<String> deleted = new ArrayList<>();
+        boolean reset = previous == null || !previous.calendarsKey.equals(calendarsKey);
+
+        if (reset) {
+            added = snapshot.eventIDs();
+        } else {
+            snapshot.diff(previous, added, updated, deleted);
+        }
+
+        WritableNativeMap result = new WritableNativeMap();
+        result.putArray("added", stringArray(added));
+        result.putArray("updated", stringArray(updated));
+        result.putArray("deleted", stringArray(deleted));
+        result.putString("token", newToken);
+        result.putBoolean("reset", reset);
+
+        return result;
+    }
+
+    private static WritableNativeArray stringArray(ArrayList<String> values) {
+        WritableNativeArray array = new WritableNativeArray();
+        for (String value : values) {
+            array.pushString(value);
+        }
+        return array;
+    }
+
+    private static long[] parsePageToken(String token) {
+        String[] parts = token.split(":");
+
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("invalid cursorToken: " + token);
+        }
+
+        try {
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid cursorToken: " + token);
+        }
+    }
+
+    private WritableMap findEventById(String eventID) {
+        return findEventById(eventID, EventFields.ALL);
+    }
+
+    private WritableMap findEventById(String eventID, EventFields fields) {
+        return findEventById(eventID, fields, ReadRequest.NONE);
+    }
+
+    private WritableMap findEventById(String eventID, EventFields fields, ReadRequest request) {
+
+        WritableMap result;
+        Cursor cursor = null;
+        ContentResolver cr = reactContext.getContentResolver();
+        Uri uri = ContentUris.withAppendedId(CalendarContract.Events.CONTENT_URI, Long.parseLong(eventID));
+
+        String selection = "((" + CalendarContract.Events.DELETED + " != 1))";
+
+        cursor = performanceStats.query(cr, "query.event", uri, fields.eventsProjection(), selection, null, null, request.signal());
+
+        try {
+            request.throwIfCancelled();
+            if (cursor.getCount() > 0) {
+                EventAssociations associations = findEventAssociations(cursor, fields, 1, request);
+                cursor.moveToFirst();
+                long token = performanceStats.begin("serialize.event");
+                try {
+                    result = eventSerializer.serializeEvent(cursor, EventColumns.fromCursor(cursor), fields, associations);
+                } finally {
+                    performanceStats.end("serialize.event", token, 1);
+                }
+            } else {
+                result = null;
+            }
+        } finally {
+            cursor.close();
+        }
+
+        return result;
+    }
+
+    // the zone event date strings are parsed in, null for UTC
+    private TimeZone eventDateZone(ReadableMap details) {
+        boolean skipTimezone = false;
+        if(details.hasKey("skipAndroidTimezone") && details.getBoolean("skipAndroidTimezone")){
+            skipTimezone = true;
+        }
+        return skipTimezone ? TimeZone.getDefault() : null;
+    }
+
+    private ContentValues eventValues(String title, ReadableMap details) throws ParseException {
+        TimeZone dateZone = eventDateZone(details);
+        ContentValues eventValues = new ContentValues();
+
+        if (title != null) {
+            eventValues.put(CalendarContract.Events.TITLE, title);
+        }
+
+        if (details.hasKey("description")) {
+            eventValues.put(CalendarContract.Events.DESCRIPTION, details.getString("description"));
+        }
+
+        if (details.hasKey("location")) {
+            eventValues.put(CalendarContract.Events.EVENT_LOCATION, details.getString("location"));
+        }
+
+        if (details.hasKey("startDate")) {
+            ReadableType type = details.getType("startDate");
+
+            try {
+                if (type == ReadableType.String) {
+                    eventValues.put(CalendarContract.Events.DTSTART, IsoDateFormat.parse(details.getString("startDate"), dateZone));
+                } else if (type == ReadableType.Number) {
+                    eventValues.put(CalendarContract.Events.DTSTART, (long)details.getDouble("startDate"));
+                }
+            } catch (ParseException e) {
+                e.printStackTrace();
+                throw e;
+            }
+        }
+
+        if (details.hasKey("endDate")) {
+            ReadableType type = details.getType("endDate");
+
+            try {
+                if (type == ReadableType.String) {
+                    eventValues.put(CalendarContract.Events.DTEND, IsoDateFormat.parse(details.getString("endDate"), dateZone));
+                } else if (type == ReadableType.Number) {
+                    eventValues.put(CalendarContract.Events.DTEND, (long)details.getDouble("endDate"));
+                }
+            } catch (ParseException e) {
+                e.printStackTrace();
+                throw e;
+            }
+        }
+
+        if (details.hasKey("recurrence")) {
+            String rule = createRecurrenceRule(details.getString("recurrence"), null, null, null, null, null, null);
+            if (rule != null) {
+                eventValues.put(CalendarContract.Events.RRULE, rule);
+            }
+        }
+
+        if (details.hasKey("recurrenceRule")) {
+            ReadableMap recurrenceRule = details.getMap("recurrenceRule");
+
+            if (recurrenceRule.hasKey("frequency")) {
+                String frequency = recurrenceRule.getString("frequency");
+                String duration = "PT1H";
+                Integer interval = null;
+                Integer occurrence = null;
+                String endDate = null;
+                ReadableArray daysOfWeek = null;
+                String weekStart = null;
+                Integer weekPositionInMonth = null;
+
+                if (recurrenceRule.hasKey("interval")) {
+                    interval = recurrenceRule.getInt("interval");
+                }
+
+                if (recurrenceRule.hasKey("duration")) {
+                    duration = recurrenceRule.getString("duration");
+                }
+
+                if (recurrenceRule.hasKey("occurrence")) {
+                    occurrence = recurrenceRule.getInt("occurrence");
+                }
+
+                if (recurrenceRule.hasKey("endDate")) {
+                    ReadableType type = recurrenceRule.getType("endDate");
+
+                    if (type == ReadableType.String) {
+                        long until = IsoDateFormat.parse(recurrenceRule.getString("endDate"), dateZone);
+                        endDate = IsoDateFormat.formatRRuleDate(until, TimeZone.getDefault());
+                    } else if (type == ReadableType.Number) {
+                        endDate = IsoDateFormat.formatRRuleDate((long)recurrenceRule.getDouble("endDate"), TimeZone.getDefault());
+                    }
+                }
+
+                if (recurrenceRule.hasKey("daysOfWeek")) {
+                    daysOfWeek = recurrenceRule.getArray("daysOfWeek");
+                }
+
+                if (recurrenceRule.hasKey("weekStart")) {
+                    weekStart = recurrenceRule.getString("weekStart");
+                }
+
+                if (recurrenceRule.hasKey("weekPositionInMonth")) {
+                    weekPositionInMonth = recurrenceRule.getInt("weekPositionInMonth");
+                }
+
+                String rule = createRecurrenceRule(frequency, interval, endDate, occurrence, daysOfWeek, weekStart, weekPositionInMonth);
+                if (duration != null) {
+                    eventValues.put(CalendarContract.Events.DURATION, duration);
+                }
+                if (rule != null) {
+                    eventValues.put(CalendarContract.Events.RRULE, rule);
                 }
             }
         }
@@ -622,9 +1385,35 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
             eventValues.put(CalendarContract.Events.AVAILABILITY, availabilityConstantMatchingString(details.getString("availability")));
         }
 
+        return eventValues;
+    }
+
+    private long addEvent(String title, ReadableMap details, ReadableMap options) throws ParseException, RemoteException, OperationApplicationException {
+        ContentResolver cr = reactContext.getContentResolver();
+        ArrayList<ContentProviderOperation> ops = new ArrayList<>();
+
+        EventSave save = addSaveEventOperations(title, details, options, ops);
+        if (ops.isEmpty()) {
+            return save.eventID;
+        }
+
+        ContentProviderResult[] results = applyBatch(cr, ops);
+
+        return save.eventIDFromResults(results);
+    }
+
+    /**
+     * Appends every write needed to save one event (calendar sync flag, the event row, its reminders and
+     * attendees) to ops, so that the whole save can be committed with a single applyBatch transaction.
+     * Rows belonging to a new event reference its id through a back-reference to the insert operation.
+     */
+    private EventSave addSaveEventOperations(String title, ReadableMap details, ReadableMap options, ArrayList<ContentProviderOperation> ops) throws ParseException {
+        ContentValues eventValues = eventValues(title, details);
+
         if (details.hasKey("id")) {
             long eventID = Long.parseLong(details.getString("id"));
-            WritableMap eventInstance = findEventById(details.getString("id"));
+            int eventIndex = -1;
+            WritableMap eventInstance = findEventById(details.getString("id"), EventFields.of(EventFields.CALENDAR));
 
             if (eventInstance != null) {
                 ReadableMap eventCalendar = eventInstance.getMap("calendar");
@@ -633,19 +1422,18 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
                     Uri updateUri = ContentUris.withAppendedId(CalendarContract.Events.CONTENT_URI, eventID);
 
                     if (options.hasKey("sync") && options.getBoolean("sync")) {
-                        syncCalendar(cr, eventInstance.getMap("calendar").getString("id"));
+                        ops.add(syncCalendarOperation(eventInstance.getMap("calendar").getString("id")));
                         updateUri = eventUriAsSyncAdapter(updateUri, eventCalendar.getString("source"), eventCalendar.getString("type"));
                     }
-                    cr.update(updateUri, eventValues, null, null);
+                    ops.add(ContentProviderOperation.newUpdate(updateUri).withValues(eventValues).build());
 
                 } else {
-                    Calendar exceptionStart = Calendar.getInstance();
                     ReadableType type = options.getType("exceptionDate");
 
                     try {
                         if (type == ReadableType.String) {
-                            exceptionStart.setTime(sdf.parse(options.getString("exceptionDate")));
-                            eventValues.put(CalendarContract.Events.ORIGINAL_INSTANCE_TIME, exceptionStart.getTimeInMillis());
+                            long exceptionStart = IsoDateFormat.parse(options.getString("exceptionDate"), eventDateZone(details));
+                            eventValues.put(CalendarContract.Events.ORIGINAL_INSTANCE_TIME, exceptionStart);
                         } else if (type == ReadableType.Number) {
                             eventValues.put(CalendarContract.Events.ORIGINAL_INSTANCE_TIME, (long) options.getDouble("exceptionDate"));
                         }
@@ -657,34 +1445,27 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
                     Uri exceptionUri = Uri.withAppendedPath(CalendarContract.Events.CONTENT_EXCEPTION_URI, Long.toString(eventID));
 
                     if (options.hasKey("sync") && options.getBoolean("sync")) {
-                        syncCalendar(cr, eventInstance.getMap("calendar").getString("id"));
+                        ops.add(syncCalendarOperation(eventInstance.getMap("calendar").getString("id")));
                         eventUriAsSyncAdapter(exceptionUri, eventCalendar.getString("source"), eventCalendar.getString("type"));
                     }
 
-                    try {
-                        Uri eventUri = cr.insert(exceptionUri, eventValues);
-                        if (eventUri != null) {
-                            eventID = Long.parseLong(eventUri.getLastPathSegment());
-                        }
-                    } catch (Exception e) {
-                        Log.d(this.getName(), "Event exception error", e);
-                    }
+                    eventIndex = ops.size();
+                    ops.add(ContentProviderOperation.newInsert(exceptionUri).withValues(eventValues).build());
                 }
             }
 
             if (details.hasKey("alarms")) {
-                createRemindersForEvent(cr, Long.parseLong(details.getString("id")), details.getArray("alarms"));
+                addReminderOperations(ops, Long.parseLong(details.getString("id")), -1, details.getArray("alarms"));
             }
 
             if (details.hasKey("attendees")) {
-                createAttendeesForEvent(cr, Long.parseLong(details.getString("id")), details.getArray("attendees"));
+                addAttendeeOperations(ops, Long.parseLong(details.getString("id")), -1, details.getArray("attendees"));
             }
 
-            return eventID;
+            return new EventSave(eventID, eventIndex);
 
         } else {
-            WritableNativeMap calendar;
-            long eventID = -1;
+            WritableMap calendar;
 
             if (details.hasKey("calendarId")) {
                 calendar = findCalendarById(details.getString("calendarId"));
@@ -703,83 +1484,66 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
             Uri createEventUri = CalendarContract.Events.CONTENT_URI;
 
             if (options.hasKey("sync") && options.getBoolean("sync")) {
-                syncCalendar(cr, calendar.getString("id"));
+                ops.add(syncCalendarOperation(calendar.getString("id")));
                 createEventUri = eventUriAsSyncAdapter(CalendarContract.Events.CONTENT_URI, calendar.getString("source"), calendar.getString("type"));
             }
 
-            Uri eventUri = cr.insert(createEventUri, eventValues);
-
-            if (eventUri != null) {
-                String rowId = eventUri.getLastPathSegment();
-                if (rowId != null) {
-                    eventID = Long.parseLong(rowId);
+            int eventIndex = ops.size();
+            ops.add(ContentProviderOperation.newInsert(createEventUri).withValues(eventValues).build());
 
-                    if (details.hasKey("alarms")) {
-                        createRemindersForEvent(cr, eventID, details.getArray("alarms"));
-                    }
-
-                    if (details.hasKey("attendees")) {
-                        createAttendeesForEvent(cr, eventID, details.getArray("attendees"));
-                    }
-                    return eventID;
-                }
+            if (details.hasKey("alarms")) {
+                addReminderOperations(ops, -1, eventIndex, details.getArray("alarms"));
+            }
 
+            if (details.hasKey("attendees")) {
+                addAttendeeOperations(ops, -1, eventIndex, details.getArray("attendees"));
             }
-            return eventID;
+
+            return new EventSave(-1, eventIndex);
         }
 
     }
 
-    private boolean removeEvent(String eventID, ReadableMap options) {
-        int rows = 0;
-
-        try {
-            ContentResolver cr = reactContext.getContentResolver();
-            WritableMap eventInstance = findEventById(eventID);
-            ReadableMap eventCalendar = eventInstance.getMap("calendar");
-
-            if (!options.hasKey("exceptionDate")) {
-                Uri uri = ContentUris.withAppendedId(CalendarContract.Events.CONTENT_URI, Long.parseLong(eventID));
-
-                if (options.hasKey("sync") && options.getBoolean("sync")) {
-                    syncCalendar(cr, eventCalendar.getString("id"));
-                    uri = eventUriAsSyncAdapter(uri, eventCalendar.getString("source"), eventCalendar.getString("type"));
-                }
-                rows = cr.delete(uri, null, null);
+    /**
+     * Where the id of an event saved through addSaveEventOperations comes from: either the existing id, or
+     * the uri returned for the insert operation at resultIndex once the batch has been applied.
+     */
+    private static final class EventSave {
+        final long eventID;
+        final int resultIndex;
 
-            } else {
-                ContentValues eventValues = new ContentValues();
-                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-                sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+        EventSave(long eventID, int resultIndex) {
+            this.eventID = eventID;
+            this.resultIndex = resultIndex;
+        }
 
-                Calendar exceptionStart = Calendar.getInstance();
-                ReadableType type = options.getType("exceptionDate");
+        long eventIDFromResults(ContentProviderResult[] results) {
+            if (resultIndex < 0) {
+                return eventID;
+            }
 
-                try {
-                    if (type == ReadableType.String) {
-                        exceptionStart.setTime(sdf.parse(options.getString("exceptionDate")));
-                        eventValues.put(CalendarContract.Events.ORIGINAL_INSTANCE_TIME, exceptionStart.getTimeInMillis());
-                    } else if (type == ReadableType.Number) {
-                        eventValues.put(CalendarContract.Events.ORIGINAL_INSTANCE_TIME, (long) options.getDouble("exceptionDate"));
-                    }
-                } catch (ParseException e) {
-                    e.printStackTrace();
-                    throw e;
+            if (results != null && resultIndex < results.length && results[resultIndex].uri != null) {
+                String rowId = results[resultIndex].uri.getLastPathSegment();
+                if (rowId != null) {
+                    return Long.parseLong(rowId);
                 }
+            }
 
-                eventValues.put(CalendarContract.Events.STATUS, CalendarContract.Events.STATUS_CANCELED);
-
-                Uri uri = Uri.withAppendedPath(CalendarContract.Events.CONTENT_EXCEPTION_URI, eventID);
+            return eventID;
+        }
+    }
 
-                if (options.hasKey("sync") && options.getBoolean("sync")) {
-                    uri = eventUriAsSyncAdapter(uri, eventCalendar.getString("source"), eventCalendar.getString("type"));
-                }
+    private boolean removeEvent(String eventID, ReadableMap options) {
+        int rows = 0;
 
-                Uri exceptionUri = cr.insert(uri, eventValues);
-                if (exceptionUri != null) {
-                    rows = 1;
-                }
+        try {
+            ContentResolver cr = reactContext.getContentResolver();
+            ArrayList<ContentProviderOperation> ops = new ArrayList<>();
+            int resultIndex = addRemoveEventOperations(eventID, options, ops);
 
+            ContentProviderResult[] results = applyBatch(cr, ops);
+            if (removalSucceeded(results[resultIndex])) {
+                rows = 1;
             }
 
         } catch (Exception e) {
@@ -789,425 +1553,435 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
         return rows > 0;
     }
 
-    //sync adaptors
-    private Uri eventUriAsSyncAdapter (Uri uri, String accountName, String accountType) {
-        uri = uri.buildUpon()
-                .appendQueryParameter(CalendarContract.CALLER_IS_SYNCADAPTER, "true")
-                .appendQueryParameter(CalendarContract.Calendars.ACCOUNT_NAME, accountName)
-                .appendQueryParameter(CalendarContract.Calendars.ACCOUNT_TYPE, accountType)
-                .build();
-
-        return uri;
-    }
-
-    public static void syncCalendar(ContentResolver cr, String calendarId) {
-        ContentValues values = new ContentValues();
-        values.put(CalendarContract.Calendars.SYNC_EVENTS, 1);
-        values.put(CalendarContract.Calendars.VISIBLE, 1);
+    /**
+     * Appends the operations removing one event, or cancelling one instance when options has an
+     * exceptionDate, to ops. Returns the index of the operation whose result tells whether it worked.
+     */
+    private int addRemoveEventOperations(String eventID, ReadableMap options, ArrayList<ContentProviderOperation> ops) throws ParseException {
+        WritableMap eventInstance = findEventById(eventID, EventFields.of(EventFields.CALENDAR));
+        ReadableMap eventCalendar = eventInstance.getMap("calendar");
 
-        cr.update(ContentUris.withAppendedId(CalendarContract.Calendars.CONTENT_URI, Long.parseLong(calendarId)), values, null, null);
-    }
-    //endregion
+        if (!options.hasKey("exceptionDate")) {
+            Uri uri = ContentUris.withAppendedId(CalendarContract.Events.CONTENT_URI, Long.parseLong(eventID));
 
-    //region Attendees
-    private void createAttendeesForEvent(ContentResolver resolver, long eventID, ReadableArray attendees) {
-        Cursor cursor = CalendarContract.Attendees.query(resolver, eventID, new String[] {
-                CalendarContract.Attendees._ID
-        });
-        
-        while (cursor.moveToNext()) {
-            long attendeeId = cursor.getLong(0);
-            Uri attendeeUri = ContentUris.withAppendedId(CalendarContract.Attendees.CONTENT_URI, attendeeId);
-            resolver.delete(attendeeUri, null, null);
-        }
-        cursor.close();
+            if (options.hasKey("sync") && options.getBoolean("sync")) {
+                ops.add(syncCalendarOperation(eventCalendar.getString("id")));
+                uri = eventUriAsSyncAdapter(uri, eventCalendar.getString("source"), eventCalendar.getString("type"));
+            }
+            ops.add(ContentProviderOperation.newDelete(uri).build());
 
-        for (int i = 0; i < attendees.size(); i++) {
-            ReadableMap attendee = attendees.getMap(i);
-            ReadableType type = attendee.getType("url");
-            ReadableType fNameType = attendee.getType("firstName");
-            if (type == ReadableType.String) {
-                ContentValues attendeeValues = new ContentValues();
-                attendeeValues.put(CalendarContract.Attendees.EVENT_ID, eventID);
-                attendeeValues.put(CalendarContract.Attendees.ATTENDEE_EMAIL, attendee.getString("url"));
-                attendeeValues.put(CalendarContract.Attendees.ATTENDEE_RELATIONSHIP, CalendarContract.Attendees.RELATIONSHIP_ATTENDEE);
+        } else {
+            ContentValues eventValues = new ContentValues();
+            ReadableType type = options.getType("exceptionDate");
 
-                if (fNameType == ReadableType.String) {
-                    attendeeValues.put(CalendarContract.Attendees.ATTENDEE_NAME, attendee.getString("firstName"));
+            try {
+                if (type == ReadableType.String) {
+                    long exceptionStart = IsoDateFormat.parse(options.getString("exceptionDate"));
+                    eventValues.put(CalendarContract.Events.ORIGINAL_INSTANCE_TIME, exceptionStart);
+                } else if (type == ReadableType.Number) {
+                    eventValues.put(CalendarContract.Events.ORIGINAL_INSTANCE_TIME, (long) options.getDouble("exceptionDate"));
                 }
-                resolver.insert(CalendarContract.Attendees.CONTENT_URI, attendeeValues);
+            } catch (ParseException e) {
+                e.printStackTrace();
+                throw e;
             }
-        }
-    }
-    //endregion
 
-    //region Reminders
-    private void createRemindersForEvent(ContentResolver resolver, long eventID, ReadableArray reminders) {
-        Cursor cursor = null;
+            eventValues.put(CalendarContract.Events.STATUS, CalendarContract.Events.STATUS_CANCELED);
 
-        if (resolver != null) {
-            cursor = CalendarContract.Reminders.query(resolver, eventID, new String[] {
-                CalendarContract.Reminders._ID
-            });
-        }
+            Uri uri = Uri.withAppendedPath(CalendarContract.Events.CONTENT_EXCEPTION_URI, eventID);
 
-        while (cursor != null && cursor.moveToNext()) {
-            Uri reminderUri = null;
-            long reminderId = cursor.getLong(0);
-            if (reminderId > 0) {
-                reminderUri = ContentUris.withAppendedId(CalendarContract.Reminders.CONTENT_URI, reminderId);
-            }
-            if (reminderUri != null) {
-                resolver.delete(reminderUri, null, null);
+            if (options.hasKey("sync") && options.getBoolean("sync")) {
+                uri = eventUriAsSyncAdapter(uri, eventCalendar.getString("source"), eventCalendar.getString("type"));
             }
-        }
 
-        if (cursor != null) {
-            cursor.close();
+            ops.add(ContentProviderOperation.newInsert(uri).withValues(eventValues).build());
         }
 
-        for (int i = 0; i < reminders.size(); i++) {
-            ReadableMap reminder = reminders.getMap(i);
-            ReadableType type = reminder.getType("date");
-            if (type == ReadableType.Number) {
-                int minutes = reminder.getInt("date");
-                ContentValues reminderValues = new ContentValues();
-
-                reminderValues.put(CalendarContract.Reminders.EVENT_ID, eventID);
-                reminderValues.put(CalendarContract.Reminders.MINUTES, minutes);
-                reminderValues.put(CalendarContract.Reminders.METHOD, CalendarContract.Reminders.METHOD_ALERT);
+        return ops.size() - 1;
+    }
 
-                resolver.insert(CalendarContract.Reminders.CONTENT_URI, reminderValues);
-            }
+    private static boolean removalSucceeded(ContentProviderResult result) {
+        if (result.count != null) {
+            return result.count > 0;
         }
+        return result.uri != null;
     }
 
-    private WritableNativeArray findReminderByEventId(String eventID, long startDate) {
+    //region Bulk Writes
+    private int bulkBatchSize(ReadableMap options) {
+        if (options.hasKey("batchSize") && !options.isNull("batchSize")) {
+            return Math.max(1, Math.min(options.getInt("batchSize"), MAX_BULK_BATCH_SIZE));
+        }
+        return DEFAULT_BULK_BATCH_SIZE;
+    }
 
-        WritableNativeArray results = new WritableNativeArray();
+    /**
+     * Saves every event with one applyBatch transaction per batchSize events, or fewer once the batch reaches
+     * MAX_BATCH_OPERATIONS. A failed transaction is rolled back as a whole, its events are then saved one at a
+     * time to find out which of them failed.
+     */
+    private WritableNativeArray saveEvents(ReadableArray events, ReadableMap options) {
         ContentResolver cr = reactContext.getContentResolver();
-        String selection = "(" + CalendarContract.Reminders.EVENT_ID + " = ?)";
+        int total = events.size();
+        int batchSize = bulkBatchSize(options);
+        String[] eventIDs = new String[total];
+        String[] errors = new String[total];
 
-        Cursor cursor = cr.query(CalendarContract.Reminders.CONTENT_URI, new String[]{
-                CalendarContract.Reminders.MINUTES
-        }, selection, new String[] {eventID}, null);
+        ArrayList<ContentProviderOperation> ops = new ArrayList<>();
+        ArrayList<Integer> batchItems = new ArrayList<>();
+        ArrayList<EventSave> batchSaves = new ArrayList<>();
 
-        while (cursor != null && cursor.moveToNext()) {
-            WritableNativeMap alarm = new WritableNativeMap();
+        for (int i = 0; i < total; i++) {
+            ReadableMap event = events.getMap(i);
+            int opsBefore = ops.size();
 
-            Calendar cal = Calendar.getInstance();
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-            sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
-            cal.setTimeInMillis(startDate);
-            int minutes;
             try {
-                minutes = cursor.getInt(0);
+                EventSave save = addSaveEventOperations(bulkEventTitle(event), event, options, ops);
+                batchItems.add(i);
+                batchSaves.add(save);
             } catch (Exception e) {
-                Log.d(this.getName(), "Error parsing event minutes", e);
+                errors[i] = e.getMessage() != null ? e.getMessage() : e.toString();
+                while (ops.size() > opsBefore) {
+                    ops.remove(ops.size() - 1);
+                }
+            }
+
+            // operations of one event back-reference each other, so a batch only ends between events
+            if (batchItems.size() < batchSize && ops.size() < MAX_BATCH_OPERATIONS && i < total - 1) {
                 continue;
             }
 
-            cal.add(Calendar.MINUTE, minutes);
-            alarm.putString("date", sdf.format(cal.getTime()));
-            results.pushMap(alarm);
+            if (!ops.isEmpty()) {
+                try {
+                    ContentProviderResult[] results = applyBatch(cr, ops);
+                    for (int k = 0; k < batchItems.size(); k++) {
+                        eventIDs[batchItems.get(k)] = Long.toString(batchSaves.get(k).eventIDFromResults(results));
+                    }
+                } catch (Exception e) {
+                    Log.d(this.getName(), "Bulk save batch failed, saving its events one by one", e);
+                    for (int item : batchItems) {
+                        ReadableMap batchEvent = events.getMap(item);
+                        try {
+                            eventIDs[item] = Long.toString(addEvent(bulkEventTitle(batchEvent), batchEvent, options));
+                        } catch (Exception itemError) {
+                            errors[item] = itemError.getMessage() != null ? itemError.getMessage() : itemError.toString();
+                        }
+                    }
+                }
+            }
+
+            ops.clear();
+            batchItems.clear();
+            batchSaves.clear();
+            emitBulkProgress(options, "save", i + 1, total);
         }
 
-        if (cursor != null) {
-            cursor.close();
+        WritableNativeArray results = new WritableNativeArray();
+        for (int i = 0; i < total; i++) {
+            if (errors[i] == null && (eventIDs[i] == null || Long.parseLong(eventIDs[i]) < 0)) {
+                errors[i] = "Unable to save event";
+            }
+            results.pushMap(bulkResult(errors[i] == null ? eventIDs[i] : null, errors[i]));
         }
 
         return results;
     }
-    //endregion
 
-    //region Availability
-    private WritableNativeArray calendarAllowedAvailabilitiesFromDBString(String dbString) {
-        WritableNativeArray availabilitiesStrings = new WritableNativeArray();
-        for(String availabilityStr: dbString.split(",")) {
-            int availabilityId = -1;
+    private String bulkEventTitle(ReadableMap event) {
+        if (event.hasKey("title") && !event.isNull("title")) {
+            return event.getString("title");
+        }
+        return null;
+    }
+
+    /**
+     * Removes every event with one applyBatch transaction per batchSize events, or fewer once the batch reaches
+     * MAX_BATCH_OPERATIONS, falling back to one transaction per event when a batch fails.
+     */
+    private WritableNativeArray removeEvents(ReadableArray eventIDs, ReadableMap options) {
+        ContentResolver cr = reactContext.getContentResolver();
+        int total = eventIDs.size();
+        int batchSize = bulkBatchSize(options);
+        boolean[] removed = new boolean[total];
+        String[] errors = new String[total];
+
+        ArrayList<ContentProviderOperation> ops = new ArrayList<>();
+        ArrayList<Integer> batchItems = new ArrayList<>();
+        ArrayList<Integer> batchResultIndexes = new ArrayList<>();
+
+        for (int i = 0; i < total; i++) {
+            int opsBefore = ops.size();
 
             try {
-                availabilityId = Integer.parseInt(availabilityStr);
-            } catch(NumberFormatException e) {
-                // Some devices seem to just use strings.
-                if (availabilityStr.equals("AVAILABILITY_BUSY")) {
-                    availabilityId = CalendarContract.Events.AVAILABILITY_BUSY;
-                } else if (availabilityStr.equals("AVAILABILITY_FREE")) {
-                    availabilityId = CalendarContract.Events.AVAILABILITY_FREE;
-                } else if (availabilityStr.equals("AVAILABILITY_TENTATIVE")) {
-                    availabilityId = CalendarContract.Events.AVAILABILITY_TENTATIVE;
+                batchResultIndexes.add(addRemoveEventOperations(eventIDs.getString(i), options, ops));
+                batchItems.add(i);
+            } catch (Exception e) {
+                errors[i] = e.getMessage() != null ? e.getMessage() : e.toString();
+                while (ops.size() > opsBefore) {
+                    ops.remove(ops.size() - 1);
                 }
             }
 
-            switch(availabilityId) {
-                case CalendarContract.Events.AVAILABILITY_BUSY:
-                    availabilitiesStrings.pushString("busy");
-                    break;
-                case CalendarContract.Events.AVAILABILITY_FREE:
-                    availabilitiesStrings.pushString("free");
-                    break;
-                case CalendarContract.Events.AVAILABILITY_TENTATIVE:
-                    availabilitiesStrings.pushString("tentative");
-                    break;
+            if (batchItems.size() < batchSize && ops.size() < MAX_BATCH_OPERATIONS && i < total - 1) {
+                continue;
             }
-        }
-
-        return availabilitiesStrings;
-    }
 
-    private String availabilityStringMatchingConstant(Integer constant)
-    {
-        switch(constant) {
-            case CalendarContract.Events.AVAILABILITY_BUSY:
-            default:
-                return "busy";
-            case CalendarContract.Events.AVAILABILITY_FREE:
-                return "free";
-            case CalendarContract.Events.AVAILABILITY_TENTATIVE:
-                return "tentative";
-        }
-    }
+            if (!ops.isEmpty()) {
+                try {
+                    ContentProviderResult[] results = applyBatch(cr, ops);
+                    for (int k = 0; k < batchItems.size(); k++) {
+                        removed[batchItems.get(k)] = removalSucceeded(results[batchResultIndexes.get(k)]);
+                    }
+                } catch (Exception e) {
+                    Log.d(this.getName(), "Bulk remove batch failed, removing its events one by one", e);
+                    for (int item : batchItems) {
+                        removed[item] = removeEvent(eventIDs.getString(item), options);
+                    }
+                }
+            }
 
-    private Integer availabilityConstantMatchingString(String string) throws IllegalArgumentException {
-        if (string.equals("free")){
-            return CalendarContract.Events.AVAILABILITY_FREE;
+            ops.clear();
+            batchItems.clear();
+            batchResultIndexes.clear();
+            emitBulkProgress(options, "remove", i + 1, total);
         }
 
-        if (string.equals("tentative")){
-            return CalendarContract.Events.AVAILABILITY_TENTATIVE;
+        WritableNativeArray results = new WritableNativeArray();
+        for (int i = 0; i < total; i++) {
+            if (errors[i] == null && !removed[i]) {
+                errors[i] = "Unable to remove event";
+            }
+            results.pushMap(bulkResult(eventIDs.getString(i), errors[i]));
         }
 
-        return CalendarContract.Events.AVAILABILITY_BUSY;
+        return results;
     }
-    //endregion
 
-    private String ReadableArrayToString (ReadableArray strArr) {
-        ArrayList<Object> array = strArr.toArrayList();
-        StringBuilder strBuilder = new StringBuilder();
-        for (int i = 0; i < array.size(); i++) {
-            strBuilder.append(array.get(i).toString() + ',');
+    private WritableNativeMap bulkResult(String eventID, String error) {
+        WritableNativeMap result = new WritableNativeMap();
+        result.putString("id", eventID);
+        result.putBoolean("success", error == null);
+        if (error != null) {
+            result.putString("error", error);
         }
-        String newString = strBuilder.toString();
-        newString = newString.substring(0, newString.length() - 1);
-        return newString;
+        return result;
     }
 
-    //region Recurrence Rule
-    private String createRecurrenceRule(String recurrence, Integer interval, String endDate, Integer occurrence, ReadableArray daysOfWeek, String weekStart, Integer weekPositionInMonth) {
-        String rrule;
-
-        if (recurrence.equals("daily")) {
-            rrule=  "FREQ=DAILY";
-        } else if (recurrence.equals("weekly")) {
-            rrule = "FREQ=WEEKLY";
-        }  else if (recurrence.equals("monthly")) {
-            rrule = "FREQ=MONTHLY";
-        } else if (recurrence.equals("yearly")) {
-            rrule = "FREQ=YEARLY";
-        } else {
-            return null;
-        }
-
-        if (daysOfWeek != null && recurrence.equals("weekly")) {
-            rrule += ";BYDAY=" + ReadableArrayToString(daysOfWeek);
+    private void emitBulkProgress(ReadableMap options, String operation, int completed, int total) {
+        if (!options.hasKey("progressId") || options.isNull("progressId")) {
+            return;
         }
 
-        if (recurrence.equals("monthly") && daysOfWeek != null && weekPositionInMonth != null) {
-            rrule += ";BYSETPOS=" + weekPositionInMonth;
-            rrule += ";BYDAY=" + ReadableArrayToString(daysOfWeek);
-        }
+        WritableNativeMap progress = new WritableNativeMap();
+        progress.putString("progressId", options.getString("progressId"));
+        progress.putString("operation", operation);
+        progress.putInt("completed", completed);
+        progress.putInt("total", total);
 
-        if (weekStart != null) {
-            rrule += ";WKST=" + weekStart;
-        }
+        reactContext
+                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                .emit(BULK_PROGRESS_EVENT, progress);
+    }
+    //endregion
 
-        if (interval != null) {
-            rrule += ";INTERVAL=" + interval;
+    private void emitCalendarChanged(int notifications) {
+        if (!reactContext.hasActiveCatalystInstance()) {
+            return;
         }
 
-        if (endDate != null) {
-            rrule += ";UNTIL=" + endDate;
-        } else if (occurrence != null) {
-            rrule += ";COUNT=" + occurrence;
-        }
+        WritableNativeMap change = new WritableNativeMap();
+        change.putInt("notifications", notifications);
 
-        return rrule;
+        reactContext
+                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                .emit(CALENDAR_CHANGED_EVENT, change);
     }
-    //endregion
 
-    // region Serialize Events
-    private WritableNativeArray serializeEvents(Cursor cursor) {
-        WritableNativeArray results = new WritableNativeArray();
-        if (cursor != null) {
-            while (cursor.moveToNext()) {
-                results.pushMap(serializeEvent(cursor));
-            }
-
-            cursor.close();
-        }
+    //sync adaptors
+    private Uri eventUriAsSyncAdapter (Uri uri, String accountName, String accountType) {
+        uri = uri.buildUpon()
+                .appendQueryParameter(CalendarContract.CALLER_IS_SYNCADAPTER, "true")
+                .appendQueryParameter(CalendarContract.Calendars.ACCOUNT_NAME, accountName)
+                .appendQueryParameter(CalendarContract.Calendars.ACCOUNT_TYPE, accountType)
+                .build();
 
-        return results;
+        return uri;
     }
 
-    private WritableNativeMap serializeEvent(Cursor cursor) {
-        WritableNativeMap event = new WritableNativeMap();
-
-        String dateFormat = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
-        SimpleDateFormat sdf = new SimpleDateFormat(dateFormat);
-        sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+    public static void syncCalendar(ContentResolver cr, String calendarId) {
+        cr.update(ContentUris.withAppendedId(CalendarContract.Calendars.CONTENT_URI, Long.parseLong(calendarId)), syncCalendarValues(), null, null);
+    }
 
-        Calendar foundStartDate = Calendar.getInstance();
-        Calendar foundEndDate = Calendar.getInstance();
+    private static ContentProviderOperation syncCalendarOperation(String calendarId) {
+        return ContentProviderOperation.newUpdate(ContentUris.withAppendedId(CalendarContract.Calendars.CONTENT_URI, Long.parseLong(calendarId)))
+                .withValues(syncCalendarValues())
+                .build();
+    }
 
-        boolean allDay = false;
-        String startDateUTC = "";
-        String endDateUTC = "";
+    private static ContentValues syncCalendarValues() {
+        ContentValues values = new ContentValues();
+        values.put(CalendarContract.Calendars.SYNC_EVENTS, 1);
+        values.put(CalendarContract.Calendars.VISIBLE, 1);
+        return values;
+    }
+    //endregion
 
-        if (cursor.getString(3) != null) {
-            foundStartDate.setTimeInMillis(Long.parseLong(cursor.getString(3)));
-            startDateUTC = sdf.format(foundStartDate.getTime());
+    // rows of an existing event use its id, rows of an event inserted earlier in the batch back-reference it
+    private static ContentProviderOperation.Builder withEventId(ContentProviderOperation.Builder builder, String column, long eventID, int eventIndex) {
+        if (eventIndex >= 0) {
+            return builder.withValueBackReference(column, eventIndex);
         }
+        return builder.withValue(column, eventID);
+    }
 
-        if (cursor.getString(4) != null) {
-            foundEndDate.setTimeInMillis(Long.parseLong(cursor.getString(4)));
-            endDateUTC = sdf.format(foundEndDate.getTime());
+    //region Attendees
+    private void addAttendeeOperations(ArrayList<ContentProviderOperation> ops, long eventID, int eventIndex, ReadableArray attendees) {
+        if (eventIndex < 0) {
+            ops.add(ContentProviderOperation.newDelete(CalendarContract.Attendees.CONTENT_URI)
+                    .withSelection(CalendarContract.Attendees.EVENT_ID + " = ?", new String[]{Long.toString(eventID)})
+                    .build());
         }
 
-        if (cursor.getString(5) != null) {
-            allDay = cursor.getInt(5) != 0;
-        }
+        for (int i = 0; i < attendees.size(); i++) {
+            ReadableMap attendee = attendees.getMap(i);
+            ReadableType type = attendee.getType("url");
+            ReadableType fNameType = attendee.getType("firstName");
+            if (type == ReadableType.String) {
+                ContentValues attendeeValues = new ContentValues();
+                attendeeValues.put(CalendarContract.Attendees.ATTENDEE_EMAIL, attendee.getString("url"));
+                attendeeValues.put(CalendarContract.Attendees.ATTENDEE_RELATIONSHIP, CalendarContract.Attendees.RELATIONSHIP_ATTENDEE);
 
-        if (cursor.getString(7) != null) {
-            WritableNativeMap recurrenceRule = new WritableNativeMap();
-            String[] recurrenceRules = cursor.getString(7).split(";");
-            SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+                if (fNameType == ReadableType.String) {
+                    attendeeValues.put(CalendarContract.Attendees.ATTENDEE_NAME, attendee.getString("firstName"));
+                }
 
-            if (recurrenceRules.length > 0 && recurrenceRules[0].split("=").length > 1) {
-                event.putString("recurrence", recurrenceRules[0].split("=")[1].toLowerCase());
-                recurrenceRule.putString("frequency", recurrenceRules[0].split("=")[1].toLowerCase());
+                ContentProviderOperation.Builder builder = ContentProviderOperation.newInsert(CalendarContract.Attendees.CONTENT_URI)
+                        .withValues(attendeeValues);
+                ops.add(withEventId(builder, CalendarContract.Attendees.EVENT_ID, eventID, eventIndex).build());
             }
+        }
+    }
+    //endregion
 
-            if (cursor.getColumnIndex(CalendarContract.Events.DURATION) != -1 && cursor.getString(cursor.getColumnIndex(CalendarContract.Events.DURATION)) != null) {
-                recurrenceRule.putString("duration", cursor.getString(cursor.getColumnIndex(CalendarContract.Events.DURATION)));
-            }
+    //region Reminders
+    private void addReminderOperations(ArrayList<ContentProviderOperation> ops, long eventID, int eventIndex, ReadableArray reminders) {
+        if (eventIndex < 0) {
+            ops.add(ContentProviderOperation.newDelete(CalendarContract.Reminders.CONTENT_URI)
+                    .withSelection(CalendarContract.Reminders.EVENT_ID + " = ?", new String[]{Long.toString(eventID)})
+                    .build());
+        }
 
-            if (recurrenceRules.length >= 2 && recurrenceRules[1].split("=")[0].equals("INTERVAL")) {
-                recurrenceRule.putInt("interval", Integer.parseInt(recurrenceRules[1].split("=")[1]));
-            }
+        for (int i = 0; i < reminders.size(); i++) {
+            ReadableMap reminder = reminders.getMap(i);
+            ReadableType type = reminder.getType("date");
+            if (type == ReadableType.Number) {
+                int minutes = reminder.getInt("date");
+                ContentValues reminderValues = new ContentValues();
 
-            if (recurrenceRules.length >= 3) {
-                if (recurrenceRules[2].split("=")[0].equals("UNTIL")) {
-                    try {
-                        recurrenceRule.putString("endDate", sdf.format(format.parse(recurrenceRules[2].split("=")[1])));
-                    } catch (ParseException e) {
-                        e.printStackTrace();
-                    }
-                } else if (recurrenceRules[2].split("=")[0].equals("COUNT")) {
-                    recurrenceRule.putInt("occurrence", Integer.parseInt(recurrenceRules[2].split("=")[1]));
-                }
+                reminderValues.put(CalendarContract.Reminders.MINUTES, minutes);
+                reminderValues.put(CalendarContract.Reminders.METHOD, CalendarContract.Reminders.METHOD_ALERT);
 
+                ContentProviderOperation.Builder builder = ContentProviderOperation.newInsert(CalendarContract.Reminders.CONTENT_URI)
+                        .withValues(reminderValues);
+                ops.add(withEventId(builder, CalendarContract.Reminders.EVENT_ID, eventID, eventIndex).build());
             }
-
-            event.putMap("recurrenceRule", recurrenceRule);
         }
+    }
 
-        event.putString("id", cursor.getString(0));
-        event.putMap("calendar", findCalendarById(cursor.getString(cursor.getColumnIndex("calendar_id"))));
-        event.putString("title", cursor.getString(cursor.getColumnIndex("title")));
-        event.putString("description", cursor.getString(2));
-        event.putString("startDate", startDateUTC);
-        event.putString("endDate", endDateUTC);
-        event.putBoolean("allDay", allDay);
-        event.putString("location", cursor.getString(6));
-        event.putString("availability", availabilityStringMatchingConstant(cursor.getInt(9)));
-        event.putArray("attendees", (WritableArray) findAttendeesByEventId(cursor.getString(0)));
-
-        if (cursor.getInt(10) > 0) {
-            event.putArray("alarms", findReminderByEventId(cursor.getString(0), Long.parseLong(cursor.getString(3))));
-        } else {
-            WritableNativeArray emptyAlarms = new WritableNativeArray();
-            event.putArray("alarms", emptyAlarms);
-        }
+    //endregion
 
-        if (cursor.getColumnIndex(CalendarContract.Events.ORIGINAL_ID) != -1 && cursor.getString(cursor.getColumnIndex(CalendarContract.Events.ORIGINAL_ID)) != null) {
-            event.putString("originalId", cursor.getString(cursor.getColumnIndex(CalendarContract.Events.ORIGINAL_ID)));
+    //region Availability
+    private Integer availabilityConstantMatchingString(String string) throws IllegalArgumentException {
+        if (string.equals("free")){
+            return CalendarContract.Events.AVAILABILITY_FREE;
         }
 
-        if (cursor.getColumnIndex(CalendarContract.Instances.ORIGINAL_SYNC_ID) != -1 && cursor.getString(cursor.getColumnIndex(CalendarContract.Instances.ORIGINAL_SYNC_ID)) != null) {
-            event.putString("syncId", cursor.getString(cursor.getColumnIndex(CalendarContract.Instances.ORIGINAL_SYNC_ID)));
+        if (string.equals("tentative")){
+            return CalendarContract.Events.AVAILABILITY_TENTATIVE;
         }
 
-        return event;
+        return CalendarContract.Events.AVAILABILITY_BUSY;
     }
+    //endregion
 
-    private WritableNativeArray serializeEventCalendars(Cursor cursor) {
-        WritableNativeArray results = new WritableNativeArray();
-
-        if (cursor != null) {
-            while (cursor.moveToNext()) {
-                results.pushMap(serializeEventCalendar(cursor));
-            }
-            cursor.close();
+    private String[] ReadableArrayToStrings (ReadableArray strArr) {
+        ArrayList<Object> array = strArr.toArrayList();
+        String[] strings = new String[array.size()];
+        for (int i = 0; i < array.size(); i++) {
+            strings[i] = array.get(i).toString();
         }
-
-        return results;
+        return strings;
     }
 
-    private WritableNativeMap serializeEventCalendar(Cursor cursor) {
+    private String createRecurrenceRule(String recurrence, Integer interval, String endDate, Integer occurrence, ReadableArray daysOfWeek, String weekStart, Integer weekPositionInMonth) {
+        String frequency;
 
-        WritableNativeMap calendar = new WritableNativeMap();
+        if (recurrence.equals("daily")) {
+            frequency = "DAILY";
+        } else if (recurrence.equals("weekly")) {
+            frequency = "WEEKLY";
+        }  else if (recurrence.equals("monthly")) {
+            frequency = "MONTHLY";
+        } else if (recurrence.equals("yearly")) {
+            frequency = "YEARLY";
+        } else {
+            return null;
+        }
 
-        calendar.putString("id", cursor.getString(0));
-        calendar.putString("title", cursor.getString(1));
-        calendar.putString("source", cursor.getString(2));
-        calendar.putArray("allowedAvailabilities", calendarAllowedAvailabilitiesFromDBString(cursor.getString(5)));
-        calendar.putString("type", cursor.getString(6));
+        String[] byDay = null;
+        String bySetPos = null;
 
-        String colorHex = "#FFFFFF";
-        try {
-            colorHex = String.format("#%06X", (0xFFFFFF & cursor.getInt(7)));
-        } catch (Exception e) {
-            Log.d(this.getName(), "Error parsing calendar color", e);
+        if (daysOfWeek != null && recurrence.equals("weekly")) {
+            byDay = ReadableArrayToStrings(daysOfWeek);
         }
-        calendar.putString("color", colorHex);
 
-        if (cursor.getString(3) != null) {
-            calendar.putBoolean("isPrimary", cursor.getString(3).equals("1"));
+        if (recurrence.equals("monthly") && daysOfWeek != null && weekPositionInMonth != null) {
+            bySetPos = weekPositionInMonth.toString();
+            byDay = ReadableArrayToStrings(daysOfWeek);
         }
 
-        int accesslevel = cursor.getInt(4);
+        return new RecurrenceRule(frequency, interval, endDate, endDate == null ? occurrence : null, byDay, bySetPos, weekStart, null).toString();
+    }
+    //endregion
 
-        if (accesslevel == CalendarContract.Calendars.CAL_ACCESS_ROOT ||
-                accesslevel == CalendarContract.Calendars.CAL_ACCESS_OWNER ||
-                accesslevel == CalendarContract.Calendars.CAL_ACCESS_EDITOR ||
-                accesslevel == CalendarContract.Calendars.CAL_ACCESS_CONTRIBUTOR) {
-            calendar.putBoolean("allowsModifications", true);
-        } else {
-            calendar.putBoolean("allowsModifications", false);
+    // region Serialize Events
+    /** Closes the cursor, also when the request is cancelled part way through. */
+    private WritableArray serializeEvents(Cursor cursor, EventFields fields, EventAssociations associations, ReadRequest request) {
+        if (cursor == null) {
+            return new WritableNativeArray();
         }
 
-        return calendar;
+        long token = performanceStats.begin("serialize.events");
+        int rows = 0;
+        try {
+            WritableArray results = eventSerializer.serializeEvents(cursor, fields, associations, request);
+            rows = results.size();
+            return results;
+        } finally {
+            performanceStats.end("serialize.events", token, rows);
+            cursor.close();
+        }
     }
 
-    private WritableNativeArray serializeAttendeeCalendar(Cursor cursor) {
-
-        WritableNativeArray results = new WritableNativeArray();
-
-        for (cursor.moveToFirst(); !cursor.isAfterLast(); cursor.moveToNext()) {
-
-            WritableNativeMap attendee = new WritableNativeMap();
-
-            attendee.putString("name", cursor.getString( 2));
-            attendee.putString("email", cursor.getString(3));
-            attendee.putString("type", cursor.getString(4));
-            attendee.putString("relationship", cursor.getString(5));
-            attendee.putString("status", cursor.getString(6));
-            attendee.putString("identity", cursor.getString(7));
-            attendee.putString("id_namespace", cursor.getString(8));
-            results.pushMap(attendee);
+    /**
+     * The events of the cursor as one array per field, see EventSerializer.serializeEventsColumnar. Closes the
+     * cursor.
+     */
+    private WritableMap serializeEventsColumnar(Cursor cursor, EventFields fields, EventAssociations associations, ReadRequest request) {
+        if (cursor == null) {
+            return eventSerializer.emptyColumnar();
         }
 
-        return results;
+        long token = performanceStats.begin("serialize.columnar");
+        int rows = 0;
+        try {
+            WritableMap result = eventSerializer.serializeEventsColumnar(cursor, fields, associations, request);
+            rows = result.getInt("length");
+            return result;
+        } finally {
+            performanceStats.end("serialize.columnar", token, rows);
+            cursor.close();
+        }
     }
     // endregion
 
@@ -1263,24 +2037,33 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
     }
 
     @ReactMethod
-    public void findCalendars(final Promise promise) {
+    public void findCalendars(final ReadableMap options, final Promise promise) {
         if (this.haveCalendarPermissions(true)) {
+            final ReadRequest request = ReadRequest.fromOptions(options);
+            startRequest(request);
             try {
-                Thread thread = new Thread(new Runnable(){
+                execute("findCalendars", PriorityTask.fromOptions(options, PriorityTask.INTERACTIVE), new Runnable(){
                     @Override
                     public void run() {
                         try {
-                            WritableArray calendars = findEventCalendars();
+                            request.throwIfCancelled();
+                            WritableArray calendars = findEventCalendars(request);
                             promise.resolve(calendars);
                         }
+                        catch(OperationCanceledException e) {
+                            promise.reject(ReadRequest.CANCELLED, cancelledMessage(request, e), e);
+                        }
                         catch(Throwable t) {
                             Log.e("RNCalendarEvents calendar request error", t.getMessage(), t);
                             promise.reject("calendar request error", t.getMessage(), t);
                         }
+                        finally {
+                            finishRequest(request);
+                        }
                     }
                 });
-                thread.start();
             } catch (Throwable t) {
+                finishRequest(request);
                 promise.reject("calendar request error", t.getMessage(), t);
             }
         } else {
@@ -1289,17 +2072,19 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
     }
 
     @ReactMethod
-    public void saveCalendar(final ReadableMap options, final Promise promise) {
+    public void saveCalendar(final ReadableMap calendar, final ReadableMap options, final Promise promise) {
         if (!this.haveCalendarPermissions(false)) {
             promise.reject("save calendar error", "unauthorized to access calendar");
             return;
         }
         try {
-            Thread thread = new Thread(new Runnable(){
+            invalidateReads();
+            execute("saveCalendar", PriorityTask.fromOptions(options, PriorityTask.NORMAL), new Runnable(){
                 @Override
                 public void run() {
                     try {
-                        Long calendarID = addCalendar(options);
+                        Long calendarID = addCalendar(calendar);
+                        invalidateReads();
                         promise.resolve(calendarID.toString());
                     } catch (Throwable t) {
                         Log.e("RNCalendarEvents save calendar error", t.getMessage(), t);
@@ -1307,21 +2092,22 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
                     }
                 }
             });
-            thread.start();
         } catch (Throwable t) {
             promise.reject("save calendar error", "Calendar could not be saved", t);
         }
     }
 
     @ReactMethod
-    public void removeCalendar(final String CalendarID, final Promise promise) {
+    public void removeCalendar(final String CalendarID, final ReadableMap options, final Promise promise) {
         if (this.haveCalendarPermissions(false)) {
             try {
-                Thread thread = new Thread(new Runnable(){
+                invalidateReads();
+                execute("removeCalendar", PriorityTask.fromOptions(options, PriorityTask.NORMAL), new Runnable(){
                     @Override
                     public void run() {
                         try {
                             boolean successful = removeCalendar(CalendarID);
+                            invalidateReads();
                             promise.resolve(successful);
                         }
                         catch(Throwable t) {
@@ -1330,7 +2116,6 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
                         }
                     }
                 });
-                thread.start();
 
             } catch (Throwable t) {
                 promise.reject("error removing calendar", t.getMessage(), t);
@@ -1344,12 +2129,14 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
     public void saveEvent(final String title, final ReadableMap details, final ReadableMap options, final Promise promise) {
         if (this.haveCalendarPermissions(false)) {
             try {
-                Thread thread = new Thread(new Runnable(){
+                invalidateReads();
+                execute("saveEvent", PriorityTask.fromOptions(options, PriorityTask.NORMAL), new Runnable(){
                     @Override
                     public void run() {
                         long eventId;
                         try {
                             eventId = addEvent(title, details, options);
+                            invalidateReads();
                             if (eventId > -1) {
                                 promise.resolve(Long.toString(eventId));
                             } else {
@@ -1361,7 +2148,6 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
                         }
                     }
                 });
-                thread.start();
             } catch (Throwable t) {
                 promise.reject("add event error", t.getMessage(), t);
             }
@@ -1371,26 +2157,111 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
     }
 
     @ReactMethod
-    public void findAllEvents(final Dynamic startDate, final Dynamic endDate, final ReadableArray calendars, final Promise promise) {
+    public void saveEvents(final ReadableArray events, final ReadableMap options, final Promise promise) {
+        if (this.haveCalendarPermissions(false)) {
+            try {
+                invalidateReads();
+                execute("saveEvents", PriorityTask.fromOptions(options, PriorityTask.BACKGROUND), new Runnable(){
+                    @Override
+                    public void run() {
+                        try {
+                            WritableNativeArray results = saveEvents(events, options);
+                            invalidateReads();
+                            promise.resolve(results);
+                        } catch (Throwable t) {
+                            Log.e("RNCalendarEvents add event error", t.getMessage(), t);
+                            promise.reject("add event error", t.getMessage(), t);
+                        }
+                    }
+                });
+            } catch (Throwable t) {
+                promise.reject("add event error", t.getMessage(), t);
+            }
+        } else {
+            promise.reject("add event error", "you don't have permissions to add an event to the users calendar");
+        }
+    }
+
+    @ReactMethod
+    public void findAllEvents(final Dynamic startDate, final Dynamic endDate, final ReadableArray calendars, final ReadableMap options, final Promise promise) {
+
+        if (this.haveCalendarPermissions(true)) {
+            try {
+                final ReadRequest request = ReadRequest.fromOptions(options);
+                // a cancellable read must not settle the promises of identical calls with its cancellation
+                final SingleFlight.Flight flight = request == ReadRequest.NONE
+                        ? readFlights.join(eventsFlightKey(startDate, endDate, calendars, options), promise)
+                        : readFlights.single(promise);
+                if (flight == null) {
+                    return;
+                }
+
+                startRequest(request);
+                try {
+                    execute("findAllEvents", PriorityTask.fromOptions(options, PriorityTask.INTERACTIVE), new Runnable(){
+                        @Override
+                        public void run() {
+                            try {
+                                request.throwIfCancelled();
+                                Object results = findEvents(startDate, endDate, calendars, options, request);
+                                readFlights.resolve(flight, results);
+                            }
+                            catch(OperationCanceledException e) {
+                                readFlights.reject(flight, ReadRequest.CANCELLED, cancelledMessage(request, e), e);
+                            }
+                            catch(Throwable t) {
+                                Log.e("RNCalendarEvents find event error", t.getMessage(), t);
+                                readFlights.reject(flight, "find event error", t.getMessage(), t);
+                            }
+                            finally {
+                                finishRequest(request);
+                            }
+                        }
+                    });
+                } catch (Throwable t) {
+                    finishRequest(request);
+                    readFlights.reject(flight, "find event error", t.getMessage(), t);
+                }
+
+            } catch (Throwable t) {
+                promise.reject("find event error", t.getMessage(), t);
+            }
+        } else {
+            promise.reject("find event error", "you don't have permissions to read an event from the users calendar");
+        }
+
+    }
+
+    @ReactMethod
+    public void findEventsPage(final Dynamic startDate, final Dynamic endDate, final ReadableArray calendars, final ReadableMap options, final Promise promise) {
 
         if (this.haveCalendarPermissions(true)) {
+            final ReadRequest request = ReadRequest.fromOptions(options);
+            startRequest(request);
             try {
-                Thread thread = new Thread(new Runnable(){
+                execute("findEventsPage", PriorityTask.fromOptions(options, PriorityTask.INTERACTIVE), new Runnable(){
                     @Override
                     public void run() {
                         try {
-                            WritableNativeArray results = findEvents(startDate, endDate, calendars);
-                            promise.resolve(results);
+                            request.throwIfCancelled();
+                            WritableNativeMap page = findEventsPage(startDate, endDate, calendars, options, request);
+                            promise.resolve(page);
+                        }
+                        catch(OperationCanceledException e) {
+                            promise.reject(ReadRequest.CANCELLED, cancelledMessage(request, e), e);
                         }
                         catch(Throwable t) {
                             Log.e("RNCalendarEvents find event error", t.getMessage(), t);
                             promise.reject("find event error", t.getMessage(), t);
                         }
+                        finally {
+                            finishRequest(request);
+                        }
                     }
                 });
-                thread.start();
 
             } catch (Throwable t) {
+                finishRequest(request);
                 promise.reject("find event error", t.getMessage(), t);
             }
         } else {
@@ -1400,23 +2271,195 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
     }
 
     @ReactMethod
-    public void findById(final String eventID, final Promise promise) {
+    public void getFreeBusy(final Dynamic startDate, final Dynamic endDate, final ReadableArray calendars, final ReadableMap options, final Promise promise) {
+
         if (this.haveCalendarPermissions(true)) {
+            final ReadRequest request = ReadRequest.fromOptions(options);
+            startRequest(request);
             try {
-                Thread thread = new Thread(new Runnable(){
+                execute("getFreeBusy", PriorityTask.fromOptions(options, PriorityTask.INTERACTIVE), new Runnable(){
                     @Override
                     public void run() {
                         try {
-                            WritableMap results = findEventById(eventID);
-                            promise.resolve(results);
+                            request.throwIfCancelled();
+                            WritableNativeArray busy = findFreeBusy(startDate, endDate, calendars, options, request);
+                            promise.resolve(busy);
+                        }
+                        catch(OperationCanceledException e) {
+                            promise.reject(ReadRequest.CANCELLED, cancelledMessage(request, e), e);
+                        }
+                        catch(Throwable t) {
+                            Log.e("RNCalendarEvents free busy error", t.getMessage(), t);
+                            promise.reject("free busy error", t.getMessage(), t);
+                        }
+                        finally {
+                            finishRequest(request);
+                        }
+                    }
+                });
+
+            } catch (Throwable t) {
+                finishRequest(request);
+                promise.reject("free busy error", t.getMessage(), t);
+            }
+        } else {
+            promise.reject("free busy error", "you don't have permissions to read an event from the users calendar");
+        }
+
+    }
+
+    @ReactMethod
+    public void findAvailableSlots(final Dynamic startDate, final Dynamic endDate, final ReadableArray calendars, final double durationMinutes, final ReadableMap options, final Promise promise) {
+
+        if (this.haveCalendarPermissions(true)) {
+            final ReadRequest request = ReadRequest.fromOptions(options);
+            startRequest(request);
+            try {
+                execute("findAvailableSlots", PriorityTask.fromOptions(options, PriorityTask.INTERACTIVE), new Runnable(){
+                    @Override
+                    public void run() {
+                        try {
+                            request.throwIfCancelled();
+                            WritableNativeArray slots = findAvailableSlots(startDate, endDate, calendars, durationMinutes, options, request);
+                            promise.resolve(slots);
+                        }
+                        catch(OperationCanceledException e) {
+                            promise.reject(ReadRequest.CANCELLED, cancelledMessage(request, e), e);
+                        }
+                        catch(Throwable t) {
+                            Log.e("RNCalendarEvents find slots error", t.getMessage(), t);
+                            promise.reject("find slots error", t.getMessage(), t);
+                        }
+                        finally {
+                            finishRequest(request);
+                        }
+                    }
+                });
+
+            } catch (Throwable t) {
+                finishRequest(request);
+                promise.reject("find slots error", t.getMessage(), t);
+            }
+        } else {
+            promise.reject("find slots error", "you don't have permissions to read an event from the users calendar");
+        }
+
+    }
+
+    @ReactMethod
+    public void searchEvents(final String query, final Dynamic startDate, final Dynamic endDate, final ReadableArray calendars, final ReadableMap options, final Promise promise) {
+
+        if (this.haveCalendarPermissions(true)) {
+            final ReadRequest request = ReadRequest.fromOptions(options);
+            startRequest(request);
+            try {
+                execute("searchEvents", PriorityTask.fromOptions(options, PriorityTask.INTERACTIVE), new Runnable(){
+                    @Override
+                    public void run() {
+                        try {
+                            request.throwIfCancelled();
+                            WritableNativeArray events = searchEvents(query, startDate, endDate, calendars, options, request);
+                            promise.resolve(events);
+                        }
+                        catch(OperationCanceledException e) {
+                            promise.reject(ReadRequest.CANCELLED, cancelledMessage(request, e), e);
+                        }
+                        catch(Throwable t) {
+                            Log.e("RNCalendarEvents search event error", t.getMessage(), t);
+                            promise.reject("search event error", t.getMessage(), t);
+                        }
+                        finally {
+                            finishRequest(request);
+                        }
+                    }
+                });
+
+            } catch (Throwable t) {
+                finishRequest(request);
+                promise.reject("search event error", t.getMessage(), t);
+            }
+        } else {
+            promise.reject("search event error", "you don't have permissions to read an event from the users calendar");
+        }
+
+    }
+
+    @ReactMethod
+    public void findEventsChangedSince(final String token, final ReadableArray calendars, final ReadableMap options, final Promise promise) {
+
+        if (this.haveCalendarPermissions(true)) {
+            final ReadRequest request = ReadRequest.fromOptions(options);
+            startRequest(request);
+            try {
+                execute("findEventsChangedSince", PriorityTask.fromOptions(options, PriorityTask.INTERACTIVE), new Runnable(){
+                    @Override
+                    public void run() {
+                        try {
+                            request.throwIfCancelled();
+                            WritableNativeMap changes = findEventsChangedSince(token, calendars, request);
+                            promise.resolve(changes);
+                        }
+                        catch(OperationCanceledException e) {
+                            promise.reject(ReadRequest.CANCELLED, cancelledMessage(request, e), e);
                         }
                         catch(Throwable t) {
                             Log.e("RNCalendarEvents find event error", t.getMessage(), t);
                             promise.reject("find event error", t.getMessage(), t);
                         }
+                        finally {
+                            finishRequest(request);
+                        }
                     }
                 });
-                thread.start();
+
+            } catch (Throwable t) {
+                finishRequest(request);
+                promise.reject("find event error", t.getMessage(), t);
+            }
+        } else {
+            promise.reject("find event error", "you don't have permissions to read an event from the users calendar");
+        }
+
+    }
+
+    @ReactMethod
+    public void findById(final String eventID, final ReadableMap options, final Promise promise) {
+        if (this.haveCalendarPermissions(true)) {
+            try {
+                final ReadRequest request = ReadRequest.fromOptions(options);
+                final SingleFlight.Flight flight = request == ReadRequest.NONE
+                        ? readFlights.join("findById:" + eventID + ":" + optionsKey(options), promise)
+                        : readFlights.single(promise);
+                if (flight == null) {
+                    return;
+                }
+
+                startRequest(request);
+                try {
+                    execute("findById", PriorityTask.fromOptions(options, PriorityTask.INTERACTIVE), new Runnable(){
+                        @Override
+                        public void run() {
+                            try {
+                                request.throwIfCancelled();
+                                WritableMap results = findEventById(eventID, EventFields.fromOptions(options), request);
+                                readFlights.resolve(flight, results);
+                            }
+                            catch(OperationCanceledException e) {
+                                readFlights.reject(flight, ReadRequest.CANCELLED, cancelledMessage(request, e), e);
+                            }
+                            catch(Throwable t) {
+                                Log.e("RNCalendarEvents find event error", t.getMessage(), t);
+                                readFlights.reject(flight, "find event error", t.getMessage(), t);
+                            }
+                            finally {
+                                finishRequest(request);
+                            }
+                        }
+                    });
+                } catch (Throwable t) {
+                    finishRequest(request);
+                    readFlights.reject(flight, "find event error", t.getMessage(), t);
+                }
 
             } catch (Throwable t) {
                 promise.reject("find event error", t.getMessage(), t);
@@ -1431,11 +2474,13 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
     public void removeEvent(final String eventID, final ReadableMap options, final Promise promise) {
         if (this.haveCalendarPermissions(false)) {
             try {
-                Thread thread = new Thread(new Runnable(){
+                invalidateReads();
+                execute("removeEvent", PriorityTask.fromOptions(options, PriorityTask.NORMAL), new Runnable(){
                     @Override
                     public void run() {
                         try {
                             boolean successful = removeEvent(eventID, options);
+                            invalidateReads();
                             promise.resolve(successful);
                         }
                         catch(Throwable t) {
@@ -1444,7 +2489,35 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
                         }
                     }
                 });
-                thread.start();
+
+            } catch (Throwable t) {
+                promise.reject("error removing event", t.getMessage(), t);
+            }
+        } else {
+            promise.reject("remove event error", "you don't have permissions to remove an event from the users calendar");
+        }
+
+    }
+
+    @ReactMethod
+    public void removeEvents(final ReadableArray eventIDs, final ReadableMap options, final Promise promise) {
+        if (this.haveCalendarPermissions(false)) {
+            try {
+                invalidateReads();
+                execute("removeEvents", PriorityTask.fromOptions(options, PriorityTask.BACKGROUND), new Runnable(){
+                    @Override
+                    public void run() {
+                        try {
+                            WritableNativeArray results = removeEvents(eventIDs, options);
+                            invalidateReads();
+                            promise.resolve(results);
+                        }
+                        catch(Throwable t) {
+                            Log.e("RNCalendarEvents error removing event", t.getMessage(), t);
+                            promise.reject("error removing event", t.getMessage(), t);
+                        }
+                    }
+                });
 
             } catch (Throwable t) {
                 promise.reject("error removing event", t.getMessage(), t);
@@ -1474,5 +2547,134 @@ public class RNCalendarEvents extends ReactContextBaseJavaModule implements Perm
     public void uriForCalendar(Promise promise) {
         promise.resolve(CalendarContract.Events.CONTENT_URI.toString());
     }
+
+    @ReactMethod
+    public void startObservingChanges(final Promise promise) {
+        if (!this.haveCalendarPermissions(true)) {
+            promise.reject("observe changes error", "you don't have permissions to observe the users calendar");
+            return;
+        }
+
+        try {
+            changeObserver.subscribe();
+            promise.resolve(null);
+        } catch (Throwable t) {
+            promise.reject("observe changes error", t.getMessage(), t);
+        }
+    }
+
+    @ReactMethod
+    public void stopObservingChanges() {
+        changeObserver.unsubscribe();
+    }
+
+    @ReactMethod
+    public void getCalendarCacheStats(Promise promise) {
+        WritableNativeMap stats = new WritableNativeMap();
+        stats.putDouble("hits", calendarCache.hitCount());
+        stats.putDouble("misses", calendarCache.missCount());
+        stats.putDouble("invalidations", calendarCache.invalidationCount());
+        stats.putInt("size", calendarCache.size());
+        promise.resolve(stats);
+    }
+
+    @ReactMethod
+    public void cancelRequest(String requestId) {
+        synchronized (readRequests) {
+            for (ReadRequest request : readRequests) {
+                if (requestId.equals(request.id)) {
+                    request.cancel("the request was cancelled");
+                }
+            }
+        }
+    }
+
+    @ReactMethod
+    public void prefetchEvents(final Dynamic startDate, final Dynamic endDate, final ReadableArray calendars, final Promise promise) {
+        if (!this.haveCalendarPermissions(true)) {
+            promise.reject("prefetch error", "you don't have permissions to read an event from the users calendar");
+            return;
+        }
+        // without the cache there is nothing to warm
+        if (!eventRangeCache.isEnabled()) {
+            promise.resolve(false);
+            return;
+        }
+
+        long[] range;
+        try {
+            range = findEventsRange(startDate, endDate);
+        } catch (Throwable t) {
+            promise.reject("prefetch error", t.getMessage(), t);
+            return;
+        }
+        if (range[0] >= range[1]) {
+            promise.resolve(true);
+            return;
+        }
+        if (prefetches.incrementAndGet() > MAX_PREFETCHES) {
+            // enough prefetches are waiting already, this one is skipped
+            prefetches.decrementAndGet();
+            promise.resolve(false);
+            return;
+        }
+
+        prefetchEvents(range[0], range[1], calendars, prefetchSignal.get(), promise);
+    }
+
+    @ReactMethod
+    public void cancelPrefetch() {
+        prefetchSignal.getAndSet(new CancellationSignal()).cancel();
+    }
+
+    @ReactMethod
+    public void setEventCacheBudget(double maxBytes) {
+        eventRangeCache.setBudget((long) maxBytes);
+    }
+
+    @ReactMethod
+    public void getEventCacheStats(Promise promise) {
+        promise.resolve(eventCacheStats());
+    }
+
+    private WritableNativeMap eventCacheStats() {
+        WritableNativeMap stats = new WritableNativeMap();
+        stats.putDouble("hits", eventRangeCache.hitCount());
+        stats.putDouble("misses", eventRangeCache.missCount());
+        stats.putDouble("evictions", eventRangeCache.evictionCount());
+        stats.putDouble("invalidations", eventRangeCache.invalidationCount());
+        stats.putDouble("bytes", eventRangeCache.byteCount());
+        stats.putInt("days", eventRangeCache.dayCount());
+        return stats;
+    }
+
+    @ReactMethod
+    public void setPerformanceStatsEnabled(boolean enabled) {
+        performanceStats.setEnabled(enabled);
+    }
+
+    @ReactMethod
+    public void getPerformanceStats(Promise promise) {
+        WritableNativeMap stats = performanceStats.toMap();
+
+        WritableNativeMap cache = new WritableNativeMap();
+        cache.putDouble("hits", calendarCache.hitCount());
+        cache.putDouble("misses", calendarCache.missCount());
+        cache.putDouble("invalidations", calendarCache.invalidationCount());
+        cache.putInt("size", calendarCache.size());
+        stats.putMap("calendarCache", cache);
+        stats.putMap("eventCache", eventCacheStats());
+
+        stats.putDouble("coalescedReads", readFlights.joinedCount());
+        stats.putInt("queuedTasks", executor.getQueue().size());
+        stats.putInt("activeTasks", executor.getActiveCount());
+        stats.putMap("priorities", taskStats.toMap());
+        promise.resolve(stats);
+    }
+
+    @ReactMethod
+    public void resetPerformanceStats() {
+        performanceStats.reset();
+    }
     //endregion
 }
@@ -11,6 +11,19 @@ import java.util.List;
 
 public class RNCalendarEventsPackage implements ReactPackage {
 
+    private final int poolSize;
+
+    public RNCalendarEventsPackage() {
+        this(RNCalendarEvents.DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * @param poolSize number of background threads the module uses to talk to the calendar provider
+     */
+    public RNCalendarEventsPackage(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
     @Override
     public List<ViewManager> createViewManagers(ReactApplicationContext reactContext) {
         return Collections.emptyList();
@@ -21,7 +34,7 @@ public class RNCalendarEventsPackage implements ReactPackage {
             ReactApplicationContext reactContext) {
         List<NativeModule> modules = new ArrayList<>();
 
-        modules.add(new RNCalendarEvents(reactContext));
+        modules.add(new RNCalendarEvents(reactContext, poolSize));
 
         return modules;
     }
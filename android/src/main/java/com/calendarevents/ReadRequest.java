@@ -0,0 +1,98 @@
+package com.calendarevents;
+
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
+
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * A read that JS may cancel, by its `requestId` option through cancelRequest, or that is cancelled once its
+ * `timeout` option (millis) has passed since the call.
+ *
+ * The signal is handed to the provider queries so that a query in progress stops, and the read checks
+ * throwIfCancelled() between queries and every few rows while serializing. Cancelled reads throw
+ * OperationCanceledException, as the provider does, and the bridge rejects them with CANCELLED.
+ *
+ * Reads without either option use NONE, which has no signal: a signal costs the provider an extra binder
+ * object per query.
+ */
+final class ReadRequest {
+
+    static final String CANCELLED = "request cancelled";
+    static final String TIMED_OUT = "the request timed out";
+    static final ReadRequest NONE = new ReadRequest(null, 0);
+
+    // rows serialized between two checks
+    static final int CHECK_INTERVAL = 64;
+
+    final String id;
+    private final long deadline;
+    private final CancellationSignal signal;
+    private volatile String reason;
+
+    private final Runnable expire = new Runnable() {
+        @Override
+        public void run() {
+            cancel(TIMED_OUT);
+        }
+    };
+
+    private ReadRequest(String id, long timeout) {
+        this.id = id;
+        this.deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0;
+        this.signal = id != null || timeout > 0 ? new CancellationSignal() : null;
+    }
+
+    /** The request of a read's options, NONE when they have neither `requestId` nor `timeout`. */
+    static ReadRequest fromOptions(ReadableMap options) {
+        if (options == null) {
+            return NONE;
+        }
+
+        String id = options.hasKey("requestId") && !options.isNull("requestId") ? options.getString("requestId") : null;
+        long timeout = options.hasKey("timeout") && !options.isNull("timeout") ? (long) options.getDouble("timeout") : 0;
+        if (id == null && timeout <= 0) {
+            return NONE;
+        }
+
+        return new ReadRequest(id, timeout);
+    }
+
+    /** The signal to pass to provider queries, null for NONE. */
+    CancellationSignal signal() {
+        return signal;
+    }
+
+    /** Cancels the request when run, to be posted for the deadline. */
+    Runnable expiry() {
+        return expire;
+    }
+
+    /** Millis left before the deadline, 0 without one. */
+    long timeout() {
+        return deadline == 0 ? 0 : Math.max(1, deadline - System.currentTimeMillis());
+    }
+
+    void cancel(String reason) {
+        if (signal == null || this.reason != null) {
+            return;
+        }
+
+        this.reason = reason;
+        signal.cancel();
+    }
+
+    /** Why the request was cancelled, null while it is not. */
+    String reason() {
+        return reason;
+    }
+
+    void throwIfCancelled() {
+        if (deadline != 0 && reason == null && System.currentTimeMillis() >= deadline) {
+            cancel(TIMED_OUT);
+        }
+        if (reason != null) {
+            throw new OperationCanceledException(reason);
+        }
+    }
+}
@@ -0,0 +1,620 @@
+package com.calendarevents;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Expands the occurrences of one event over a range in memory, as an alternative to letting the provider
+ * materialize them into its instances table.
+ *
+ * Covers RRULEs with FREQ=DAILY/WEEKLY/MONTHLY/YEARLY and INTERVAL, UNTIL, COUNT, BYDAY, BYMONTHDAY, BYMONTH,
+ * BYSETPOS and WKST, plus RDATE and EXDATE date lists. DTSTART is always the first occurrence, as in RFC 5545.
+ * Anything else throws UnsupportedRuleException so the caller can fall back to the provider.
+ */
+final class RecurrenceExpander {
+
+    static final class UnsupportedRuleException extends Exception {
+        UnsupportedRuleException(String message) {
+            super(message);
+        }
+    }
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final String[] WEEKDAYS = new String[]{"SU", "MO", "TU", "WE", "TH", "FR", "SA"};
+    // periods walked before giving up on a rule, e.g. a COUNT that can never be reached
+    private static final int MAX_PERIODS = 500000;
+
+    private final long dtstart;
+    private final TimeZone zone;
+    private final RecurrenceRule rule;
+    private final int interval;
+
+    // dtstart in the event's zone
+    private final int startYear;
+    private final int startMonth;
+    private final int startDayOfMonth;
+    private final int startDayOfWeek;
+    private final int hour;
+    private final int minute;
+    private final int second;
+    private final int millisecond;
+
+    // parsed BYxxx parts, null when absent. Weekdays are Calendar.SUNDAY..SATURDAY.
+    private int[] byDayOrdinals;
+    private int[] byDayWeekdays;
+    private int[] byMonthDay;
+    private int[] byMonth;
+    private int[] bySetPos;
+    private int weekStart = Calendar.MONDAY;
+
+    private final Calendar local;
+    private final Calendar utc = new GregorianCalendar(UTC);
+
+    private RecurrenceExpander(long dtstart, TimeZone zone, RecurrenceRule rule) throws UnsupportedRuleException {
+        this.dtstart = dtstart;
+        this.zone = zone;
+        this.rule = rule;
+        this.interval = rule.interval == null ? 1 : rule.interval;
+        if (interval < 1) {
+            throw new UnsupportedRuleException("INTERVAL=" + rule.interval);
+        }
+
+        local = new GregorianCalendar(zone);
+        local.setTimeInMillis(dtstart);
+        startYear = local.get(Calendar.YEAR);
+        startMonth = local.get(Calendar.MONTH);
+        startDayOfMonth = local.get(Calendar.DAY_OF_MONTH);
+        startDayOfWeek = local.get(Calendar.DAY_OF_WEEK);
+        hour = local.get(Calendar.HOUR_OF_DAY);
+        minute = local.get(Calendar.MINUTE);
+        second = local.get(Calendar.SECOND);
+        millisecond = local.get(Calendar.MILLISECOND);
+
+        parseParts();
+    }
+
+    /**
+     * Begin times of the occurrences whose span [begin, begin + duration] overlaps the range, that is
+     * begin < rangeEnd and begin + duration >= rangeStart, sorted and without duplicates.
+     *
+     * @param rrule  the RRULE, null for an event without one
+     * @param rdate  the RDATE list as stored by the provider, may be null
+     * @param exdate the EXDATE list as stored by the provider, may be null
+     */
+    static long[] expand(long dtstart, long duration, TimeZone zone, String rrule, String rdate, String exdate,
+                         long rangeStart, long rangeEnd) throws UnsupportedRuleException {
+        LongList occurrences = new LongList();
+        long firstBegin = rangeStart - duration;
+
+        if (rrule == null) {
+            if (dtstart < rangeEnd && dtstart >= firstBegin) {
+                occurrences.add(dtstart);
+            }
+        } else {
+            new RecurrenceExpander(dtstart, zone, RecurrenceRule.parse(rrule)).expandRule(firstBegin, rangeEnd, occurrences);
+        }
+
+        if (rdate != null) {
+            for (long begin : parseDateList(rdate, zone)) {
+                if (begin < rangeEnd && begin >= firstBegin) {
+                    occurrences.add(begin);
+                }
+            }
+        }
+
+        long[] result = occurrences.toSortedUniqueArray();
+
+        if (exdate != null && result.length > 0) {
+            long[] excluded = parseDateList(exdate, zone);
+            Arrays.sort(excluded);
+            LongList kept = new LongList();
+            for (long begin : result) {
+                if (Arrays.binarySearch(excluded, begin) < 0) {
+                    kept.add(begin);
+                }
+            }
+            result = kept.toSortedUniqueArray();
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses an RFC 5545 DURATION such as P1D, PT1H30M or P3600S into millis.
+     */
+    static long parseDuration(String duration) throws UnsupportedRuleException {
+        int length = duration.length();
+        int i = 0;
+        boolean negative = false;
+
+        if (i < length && (duration.charAt(i) == '+' || duration.charAt(i) == '-')) {
+            negative = duration.charAt(i) == '-';
+            i++;
+        }
+        if (i >= length || duration.charAt(i) != 'P') {
+            throw new UnsupportedRuleException("DURATION=" + duration);
+        }
+        i++;
+
+        long millis = 0;
+        long value = -1;
+
+        for (; i < length; i++) {
+            char c = duration.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                continue;
+            }
+            if (c == 'T') {
+                continue;
+            }
+            if (value < 0) {
+                throw new UnsupportedRuleException("DURATION=" + duration);
+            }
+
+            switch (c) {
+                case 'W': millis += value * 7 * MILLIS_PER_DAY; break;
+                case 'D': millis += value * MILLIS_PER_DAY; break;
+                case 'H': millis += value * 3600000L; break;
+                case 'M': millis += value * 60000L; break;
+                case 'S': millis += value * 1000L; break;
+                default: throw new UnsupportedRuleException("DURATION=" + duration);
+            }
+            value = -1;
+        }
+
+        if (value >= 0) {
+            throw new UnsupportedRuleException("DURATION=" + duration);
+        }
+
+        return negative ? -millis : millis;
+    }
+
+    private void parseParts() throws UnsupportedRuleException {
+        if (rule.frequency == null) {
+            throw new UnsupportedRuleException("RRULE without FREQ");
+        }
+
+        String frequency = rule.frequency.toUpperCase();
+        if (!frequency.equals("DAILY") && !frequency.equals("WEEKLY") && !frequency.equals("MONTHLY") && !frequency.equals("YEARLY")) {
+            throw new UnsupportedRuleException("FREQ=" + rule.frequency);
+        }
+
+        if (rule.byDay != null) {
+            byDayOrdinals = new int[rule.byDay.length];
+            byDayWeekdays = new int[rule.byDay.length];
+            for (int i = 0; i < rule.byDay.length; i++) {
+                String day = rule.byDay[i].trim();
+                if (day.length() < 2) {
+                    throw new UnsupportedRuleException("BYDAY=" + day);
+                }
+                byDayWeekdays[i] = weekday(day.substring(day.length() - 2));
+                String ordinal = day.substring(0, day.length() - 2);
+                byDayOrdinals[i] = ordinal.isEmpty() ? 0 : parseInt("BYDAY", ordinal.startsWith("+") ? ordinal.substring(1) : ordinal);
+            }
+        }
+
+        if (rule.bySetPos != null) {
+            bySetPos = parseIntList("BYSETPOS", rule.bySetPos);
+        }
+
+        if (rule.weekStart != null) {
+            weekStart = weekday(rule.weekStart.toUpperCase());
+        }
+
+        if (rule.otherParts != null) {
+            for (String part : rule.otherParts.split(";")) {
+                int equals = part.indexOf('=');
+                String name = equals == -1 ? part : part.substring(0, equals).toUpperCase();
+                String value = equals == -1 ? "" : part.substring(equals + 1);
+
+                if (name.equals("BYMONTHDAY")) {
+                    byMonthDay = parseIntList(name, value);
+                } else if (name.equals("BYMONTH")) {
+                    byMonth = parseIntList(name, value);
+                } else if (!name.startsWith("X-")) {
+                    throw new UnsupportedRuleException(part);
+                }
+            }
+        }
+
+        boolean hasOrdinals = false;
+        if (byDayOrdinals != null) {
+            for (int ordinal : byDayOrdinals) {
+                hasOrdinals |= ordinal != 0;
+            }
+        }
+
+        if ((frequency.equals("DAILY") || frequency.equals("WEEKLY")) && (hasOrdinals || bySetPos != null)) {
+            throw new UnsupportedRuleException("ordinal BYDAY or BYSETPOS in FREQ=" + frequency);
+        }
+        if (frequency.equals("WEEKLY") && byMonthDay != null) {
+            throw new UnsupportedRuleException("BYMONTHDAY in FREQ=WEEKLY");
+        }
+        if (frequency.equals("YEARLY") && byDayWeekdays != null && byMonth == null) {
+            throw new UnsupportedRuleException("BYDAY without BYMONTH in FREQ=YEARLY");
+        }
+    }
+
+    private void expandRule(long firstBegin, long rangeEnd, LongList occurrences) throws UnsupportedRuleException {
+        long until = rule.until == null ? Long.MAX_VALUE : parseUntil(rule.until);
+        int count = rule.count == null ? Integer.MAX_VALUE : rule.count;
+        String frequency = rule.frequency.toUpperCase();
+
+        // DTSTART is the first occurrence whether or not it matches the rule
+        int generated = 1;
+        if (dtstart < rangeEnd && dtstart >= firstBegin) {
+            occurrences.add(dtstart);
+        }
+
+        LongList candidates = new LongList();
+        int period = 0;
+
+        // without COUNT, periods that end before the range can be skipped instead of walked
+        if (rule.count == null) {
+            period = Math.max(0, periodsBefore(frequency, firstBegin) - 1);
+        }
+
+        for (; period < MAX_PERIODS; period++) {
+            candidates.clear();
+            periodCandidates(frequency, period, candidates);
+            long[] begins = candidates.toSortedUniqueArray();
+
+            for (long begin : begins) {
+                if (begin <= dtstart) {
+                    continue;
+                }
+                if (begin > until || generated >= count || begin >= rangeEnd) {
+                    return;
+                }
+                generated++;
+                if (begin >= firstBegin) {
+                    occurrences.add(begin);
+                }
+            }
+
+            if (begins.length == 0 && periodStart(frequency, period) > Math.min(until, rangeEnd)) {
+                return;
+            }
+        }
+
+        throw new UnsupportedRuleException("too many periods to expand");
+    }
+
+    // whole periods between DTSTART and time, a lower bound good enough to skip ahead
+    private int periodsBefore(String frequency, long time) {
+        if (time <= dtstart) {
+            return 0;
+        }
+
+        long days = (time - dtstart) / MILLIS_PER_DAY;
+        long periods;
+
+        if (frequency.equals("DAILY")) {
+            periods = days / interval;
+        } else if (frequency.equals("WEEKLY")) {
+            periods = days / 7 / interval;
+        } else if (frequency.equals("MONTHLY")) {
+            periods = days / 31 / interval;
+        } else {
+            periods = days / 366 / interval;
+        }
+
+        return (int) Math.min(periods, MAX_PERIODS);
+    }
+
+    // first day of a period in the event's zone, only used to tell when a period lies past the end
+    private long periodStart(String frequency, int period) {
+        if (frequency.equals("DAILY")) {
+            return localTime(dayOf(startYear, startMonth, startDayOfMonth) + (long) period * interval);
+        } else if (frequency.equals("WEEKLY")) {
+            return localTime(firstDayOfWeek() + 7L * period * interval);
+        } else if (frequency.equals("MONTHLY")) {
+            int month = startMonth + period * interval;
+            return localTime(dayOf(startYear + month / 12, month % 12, 1));
+        }
+        return localTime(dayOf(startYear + period * interval, 0, 1));
+    }
+
+    private void periodCandidates(String frequency, int period, LongList candidates) {
+        if (frequency.equals("DAILY")) {
+            long day = dayOf(startYear, startMonth, startDayOfMonth) + (long) period * interval;
+            utc.setTimeInMillis(day * MILLIS_PER_DAY);
+            int month = utc.get(Calendar.MONTH);
+            int dayOfMonth = utc.get(Calendar.DAY_OF_MONTH);
+            int daysInMonth = utc.getActualMaximum(Calendar.DAY_OF_MONTH);
+
+            if (matchesMonth(month) && matchesMonthDay(dayOfMonth, daysInMonth) && matchesWeekday(utc.get(Calendar.DAY_OF_WEEK))) {
+                candidates.add(localTime(day));
+            }
+        } else if (frequency.equals("WEEKLY")) {
+            long weekStartDay = firstDayOfWeek() + 7L * period * interval;
+
+            for (long day = weekStartDay; day < weekStartDay + 7; day++) {
+                utc.setTimeInMillis(day * MILLIS_PER_DAY);
+                int weekday = utc.get(Calendar.DAY_OF_WEEK);
+                boolean matches = byDayWeekdays == null ? weekday == startDayOfWeek : matchesWeekday(weekday);
+
+                if (matches && matchesMonth(utc.get(Calendar.MONTH))) {
+                    candidates.add(localTime(day));
+                }
+            }
+        } else if (frequency.equals("MONTHLY")) {
+            int month = startMonth + period * interval;
+            int year = startYear + month / 12;
+            month = month % 12;
+
+            if (matchesMonth(month)) {
+                addWithSetPos(monthDays(year, month), candidates);
+            }
+        } else {
+            int year = startYear + period * interval;
+            LongList days = new LongList();
+
+            if (byMonth == null && byMonthDay == null) {
+                days.addAll(monthDays(year, startMonth));
+            } else if (byMonth == null) {
+                // a yearly BYMONTHDAY applies to every month
+                for (int month = 0; month < 12; month++) {
+                    days.addAll(monthDays(year, month));
+                }
+            } else {
+                for (int month : byMonth) {
+                    if (month >= 1 && month <= 12) {
+                        days.addAll(monthDays(year, month - 1));
+                    }
+                }
+            }
+
+            addWithSetPos(days.toSortedUniqueArray(), candidates);
+        }
+    }
+
+    // the candidate days of a month from BYMONTHDAY and BYDAY, or DTSTART's day of month without either
+    private long[] monthDays(int year, int month) {
+        long first = dayOf(year, month, 1);
+        utc.setTimeInMillis(first * MILLIS_PER_DAY);
+        int daysInMonth = utc.getActualMaximum(Calendar.DAY_OF_MONTH);
+        int firstWeekday = utc.get(Calendar.DAY_OF_WEEK);
+        LongList days = new LongList();
+
+        for (int dayOfMonth = 1; dayOfMonth <= daysInMonth; dayOfMonth++) {
+            boolean matches;
+
+            if (byMonthDay == null && byDayWeekdays == null) {
+                matches = dayOfMonth == startDayOfMonth;
+            } else {
+                int weekday = (firstWeekday - 1 + dayOfMonth - 1) % 7 + 1;
+                matches = (byMonthDay == null || matchesMonthDay(dayOfMonth, daysInMonth))
+                        && (byDayWeekdays == null || matchesWeekdayInMonth(weekday, dayOfMonth, daysInMonth));
+            }
+
+            if (matches) {
+                days.add(first + dayOfMonth - 1);
+            }
+        }
+
+        return days.toSortedUniqueArray();
+    }
+
+    private void addWithSetPos(long[] days, LongList candidates) {
+        if (bySetPos == null) {
+            for (long day : days) {
+                candidates.add(localTime(day));
+            }
+            return;
+        }
+
+        for (int position : bySetPos) {
+            int index = position > 0 ? position - 1 : days.length + position;
+            if (position != 0 && index >= 0 && index < days.length) {
+                candidates.add(localTime(days[index]));
+            }
+        }
+    }
+
+    private boolean matchesMonth(int month) {
+        if (byMonth == null) {
+            return true;
+        }
+        for (int value : byMonth) {
+            if (value == month + 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesMonthDay(int dayOfMonth, int daysInMonth) {
+        if (byMonthDay == null) {
+            return true;
+        }
+        for (int value : byMonthDay) {
+            if (value == dayOfMonth || (value < 0 && daysInMonth + value + 1 == dayOfMonth)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesWeekday(int weekday) {
+        if (byDayWeekdays == null) {
+            return true;
+        }
+        for (int value : byDayWeekdays) {
+            if (value == weekday) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // BYDAY with optional ordinals counted within the month, e.g. 2MO or -1FR
+    private boolean matchesWeekdayInMonth(int weekday, int dayOfMonth, int daysInMonth) {
+        for (int i = 0; i < byDayWeekdays.length; i++) {
+            if (byDayWeekdays[i] != weekday) {
+                continue;
+            }
+            int ordinal = byDayOrdinals[i];
+            if (ordinal == 0
+                    || (ordinal > 0 && (dayOfMonth - 1) / 7 + 1 == ordinal)
+                    || (ordinal < 0 && (daysInMonth - dayOfMonth) / 7 + 1 == -ordinal)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // epoch day of the WKST-based week that holds DTSTART
+    private long firstDayOfWeek() {
+        long start = dayOf(startYear, startMonth, startDayOfMonth);
+        return start - (startDayOfWeek - weekStart + 7) % 7;
+    }
+
+    private long dayOf(int year, int month, int dayOfMonth) {
+        utc.clear();
+        utc.set(year, month, dayOfMonth);
+        return utc.getTimeInMillis() / MILLIS_PER_DAY;
+    }
+
+    // DTSTART's time of day on an epoch day, in the event's zone
+    private long localTime(long day) {
+        utc.setTimeInMillis(day * MILLIS_PER_DAY);
+        local.clear();
+        local.set(utc.get(Calendar.YEAR), utc.get(Calendar.MONTH), utc.get(Calendar.DAY_OF_MONTH), hour, minute, second);
+        local.set(Calendar.MILLISECOND, millisecond);
+        return local.getTimeInMillis();
+    }
+
+    private long parseUntil(String until) throws UnsupportedRuleException {
+        long value = parseDate(until, zone);
+        // a date only UNTIL includes the whole day
+        return until.length() == 8 ? value + MILLIS_PER_DAY - 1 : value;
+    }
+
+    private static long[] parseDateList(String list, TimeZone zone) throws UnsupportedRuleException {
+        LongList dates = new LongList();
+
+        // the provider joins several RDATE/EXDATE properties with newlines, each may start with TZID=...;
+        for (String property : list.split("\n")) {
+            TimeZone propertyZone = zone;
+            String values = property.trim();
+            int separator = values.indexOf(';');
+
+            if (separator != -1) {
+                String parameter = values.substring(0, separator);
+                if (parameter.startsWith("TZID=")) {
+                    propertyZone = TimeZone.getTimeZone(parameter.substring("TZID=".length()));
+                }
+                values = values.substring(separator + 1);
+            }
+
+            for (String value : values.split(",")) {
+                value = value.trim();
+                if (!value.isEmpty()) {
+                    dates.add(parseDate(value, propertyZone));
+                }
+            }
+        }
+
+        return dates.toSortedUniqueArray();
+    }
+
+    // yyyyMMdd, local yyyyMMdd'T'HHmmss or UTC yyyyMMdd'T'HHmmss'Z'
+    private static long parseDate(String value, TimeZone zone) throws UnsupportedRuleException {
+        int length = value.length();
+
+        if (length != 8 && length != 15 && !(length == 16 && value.charAt(15) == 'Z')) {
+            throw new UnsupportedRuleException("date " + value);
+        }
+
+        Calendar calendar = new GregorianCalendar(length == 16 ? UTC : zone);
+        calendar.clear();
+        calendar.set(Calendar.YEAR, parseInt(value, 0, 4));
+        calendar.set(Calendar.MONTH, parseInt(value, 4, 6) - 1);
+        calendar.set(Calendar.DAY_OF_MONTH, parseInt(value, 6, 8));
+
+        if (length > 8) {
+            if (value.charAt(8) != 'T') {
+                throw new UnsupportedRuleException("date " + value);
+            }
+            calendar.set(Calendar.HOUR_OF_DAY, parseInt(value, 9, 11));
+            calendar.set(Calendar.MINUTE, parseInt(value, 11, 13));
+            calendar.set(Calendar.SECOND, parseInt(value, 13, 15));
+        }
+
+        return calendar.getTimeInMillis();
+    }
+
+    private static int parseInt(String value, int start, int end) throws UnsupportedRuleException {
+        return parseInt("date", value.substring(start, end));
+    }
+
+    private static int parseInt(String part, String value) throws UnsupportedRuleException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new UnsupportedRuleException(part + "=" + value);
+        }
+    }
+
+    private static int[] parseIntList(String part, String value) throws UnsupportedRuleException {
+        String[] values = value.split(",");
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            String number = values[i].trim();
+            result[i] = parseInt(part, number.startsWith("+") ? number.substring(1) : number);
+        }
+        return result;
+    }
+
+    private static int weekday(String code) throws UnsupportedRuleException {
+        for (int i = 0; i < WEEKDAYS.length; i++) {
+            if (WEEKDAYS[i].equals(code)) {
+                return Calendar.SUNDAY + i;
+            }
+        }
+        throw new UnsupportedRuleException("weekday " + code);
+    }
+
+    /** Growable long array, to collect occurrences without boxing. */
+    private static final class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(long[] added) {
+            for (long value : added) {
+                add(value);
+            }
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        long[] toSortedUniqueArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[unique - 1]) {
+                    sorted[unique++] = sorted[i];
+                }
+            }
+
+            return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+        }
+    }
+}
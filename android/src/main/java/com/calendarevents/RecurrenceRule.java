@@ -0,0 +1,199 @@
+package com.calendarevents;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An RFC 5545 RRULE: the parts the module reads and writes, plus every other part kept verbatim so that
+ * parse(rule).toString() keeps the whole rule.
+ *
+ * Instances are immutable and shared: every instance of a series carries the same RRULE string, so parse()
+ * keeps the most recently used rules in a small LRU cache keyed by the raw string.
+ */
+final class RecurrenceRule {
+
+    private static final int CACHE_SIZE = 64;
+
+    private static final LinkedHashMap<String, RecurrenceRule> CACHE = new LinkedHashMap<String, RecurrenceRule>(CACHE_SIZE + 1, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RecurrenceRule> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /** FREQ as written in the rule, e.g. WEEKLY. Null when the rule has none. */
+    final String frequency;
+    final Integer interval;
+    /** UNTIL as written in the rule, a date or date-time. */
+    final String until;
+    final Integer count;
+    final String[] byDay;
+    final String bySetPos;
+    final String weekStart;
+    /** Every other part, verbatim and in order, joined with `;`. Null when there are none. */
+    final String otherParts;
+
+    RecurrenceRule(String frequency, Integer interval, String until, Integer count, String[] byDay, String bySetPos, String weekStart, String otherParts) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.until = until;
+        this.count = count;
+        this.byDay = byDay;
+        this.bySetPos = bySetPos;
+        this.weekStart = weekStart;
+        this.otherParts = otherParts;
+    }
+
+    static RecurrenceRule parse(String rrule) {
+        synchronized (CACHE) {
+            RecurrenceRule rule = CACHE.get(rrule);
+            if (rule != null) {
+                return rule;
+            }
+        }
+
+        RecurrenceRule rule = parseUncached(rrule);
+
+        synchronized (CACHE) {
+            CACHE.put(rrule, rule);
+        }
+
+        return rule;
+    }
+
+    // one pass over the rule, allocating only the values that are kept
+    private static RecurrenceRule parseUncached(String rrule) {
+        String frequency = null;
+        Integer interval = null;
+        String until = null;
+        Integer count = null;
+        String[] byDay = null;
+        String bySetPos = null;
+        String weekStart = null;
+        StringBuilder otherParts = null;
+
+        int length = rrule.length();
+        int start = 0;
+
+        while (start < length) {
+            int end = rrule.indexOf(';', start);
+            if (end == -1) {
+                end = length;
+            }
+
+            int equals = rrule.indexOf('=', start);
+            boolean known = false;
+
+            if (equals != -1 && equals < end) {
+                int nameLength = equals - start;
+                String value = rrule.substring(equals + 1, end);
+
+                if (isPart(rrule, start, nameLength, "FREQ")) {
+                    frequency = value;
+                    known = true;
+                } else if (isPart(rrule, start, nameLength, "INTERVAL")) {
+                    interval = parseInteger(value);
+                    known = interval != null;
+                } else if (isPart(rrule, start, nameLength, "UNTIL")) {
+                    until = value;
+                    known = true;
+                } else if (isPart(rrule, start, nameLength, "COUNT")) {
+                    count = parseInteger(value);
+                    known = count != null;
+                } else if (isPart(rrule, start, nameLength, "BYDAY")) {
+                    byDay = value.split(",");
+                    known = true;
+                } else if (isPart(rrule, start, nameLength, "BYSETPOS")) {
+                    bySetPos = value;
+                    known = true;
+                } else if (isPart(rrule, start, nameLength, "WKST")) {
+                    weekStart = value;
+                    known = true;
+                }
+            }
+
+            if (!known && end > start) {
+                if (otherParts == null) {
+                    otherParts = new StringBuilder();
+                } else {
+                    otherParts.append(';');
+                }
+                otherParts.append(rrule, start, end);
+            }
+
+            start = end + 1;
+        }
+
+        return new RecurrenceRule(frequency, interval, until, count, byDay, bySetPos, weekStart,
+                otherParts == null ? null : otherParts.toString());
+    }
+
+    private static boolean isPart(String rrule, int start, int nameLength, String name) {
+        return nameLength == name.length() && rrule.regionMatches(true, start, name, 0, nameLength);
+    }
+
+    private static Integer parseInteger(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** BYSETPOS when it is a single position, as written by weekPositionInMonth. */
+    Integer weekPositionInMonth() {
+        return bySetPos == null ? null : parseInteger(bySetPos);
+    }
+
+    /**
+     * The RRULE string: FREQ, BYSETPOS, BYDAY, WKST, INTERVAL, UNTIL, COUNT, then the other parts. A stored rule
+     * with both UNTIL and COUNT, which RFC 5545 forbids, keeps both rather than being rewritten here.
+     */
+    @Override
+    public String toString() {
+        StringBuilder rrule = new StringBuilder(64);
+
+        if (frequency != null) {
+            rrule.append("FREQ=").append(frequency);
+        }
+        if (bySetPos != null) {
+            append(rrule, "BYSETPOS").append(bySetPos);
+        }
+        if (byDay != null) {
+            append(rrule, "BYDAY");
+            for (int i = 0; i < byDay.length; i++) {
+                if (i > 0) {
+                    rrule.append(',');
+                }
+                rrule.append(byDay[i]);
+            }
+        }
+        if (weekStart != null) {
+            append(rrule, "WKST").append(weekStart);
+        }
+        if (interval != null) {
+            append(rrule, "INTERVAL").append(interval.intValue());
+        }
+        if (until != null) {
+            append(rrule, "UNTIL").append(until);
+        }
+        if (count != null) {
+            append(rrule, "COUNT").append(count.intValue());
+        }
+        if (otherParts != null) {
+            if (rrule.length() > 0) {
+                rrule.append(';');
+            }
+            rrule.append(otherParts);
+        }
+
+        return rrule.toString();
+    }
+
+    private static StringBuilder append(StringBuilder rrule, String name) {
+        if (rrule.length() > 0) {
+            rrule.append(';');
+        }
+        return rrule.append(name).append('=');
+    }
+}
@@ -0,0 +1,106 @@
+package com.calendarevents;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a provider selection out of `?`-bound clauses joined with AND, together with its selectionArgs.
+ *
+ * Values never end up in the SQL, so a query shape always produces the same statement. IN lists are padded
+ * to a fixed arity bucket (1, 2, 4, ... MAX_IN_ARGS) by repeating their last value, so lists of different
+ * lengths still share a handful of statements.
+ */
+final class Selection {
+
+    // SQLite refuses statements with more than 999 bound variables, keep IN (...) lists well below that
+    static final int MAX_IN_ARGS = 500;
+
+    private static final int[] BUCKETS = new int[]{1, 2, 4, 8, 16, 32, 64, 128, 256, MAX_IN_ARGS};
+    private static final String[] BUCKET_PLACEHOLDERS = new String[BUCKETS.length];
+
+    static {
+        for (int i = 0; i < BUCKETS.length; i++) {
+            StringBuilder placeholders = new StringBuilder(BUCKETS[i] * 2);
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                if (j > 0) {
+                    placeholders.append(',');
+                }
+                placeholders.append('?');
+            }
+            BUCKET_PLACEHOLDERS[i] = placeholders.toString();
+        }
+    }
+
+    private final StringBuilder sql = new StringBuilder();
+    private final ArrayList<String> args = new ArrayList<>();
+
+    /** Adds a clause, with one value per `?` in it. */
+    Selection where(String clause, Object... values) {
+        if (sql.length() > 0) {
+            sql.append(" AND ");
+        }
+        sql.append('(').append(clause).append(')');
+
+        for (Object value : values) {
+            args.add(String.valueOf(value));
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds `column IN (?,...)`. Lists longer than MAX_IN_ARGS are rejected rather than bound past SQLite's
+     * variable limit: split them with inChunks, or check caller supplied lists before they get here.
+     */
+    Selection whereIn(String column, List<String> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("IN list without values");
+        }
+        if (values.size() > MAX_IN_ARGS) {
+            throw new IllegalArgumentException(column + " IN list of " + values.size() + " values, at most " + MAX_IN_ARGS);
+        }
+
+        if (sql.length() > 0) {
+            sql.append(" AND ");
+        }
+        sql.append('(').append(column).append(" IN (");
+
+        int bucket = bucketIndex(values.size());
+        sql.append(BUCKET_PLACEHOLDERS[bucket]).append("))");
+
+        args.addAll(values);
+        String last = values.get(values.size() - 1);
+        for (int i = values.size(); i < BUCKETS[bucket]; i++) {
+            args.add(last);
+        }
+
+        return this;
+    }
+
+    /** The selection, null when no clause was added. */
+    String sql() {
+        return sql.length() == 0 ? null : sql.toString();
+    }
+
+    /** The selectionArgs, null when there are none. */
+    String[] args() {
+        return args.isEmpty() ? null : args.toArray(new String[args.size()]);
+    }
+
+    /** Splits values into lists small enough for whereIn. */
+    static List<List<String>> inChunks(List<String> values) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int start = 0; start < values.size(); start += MAX_IN_ARGS) {
+            chunks.add(values.subList(start, Math.min(values.size(), start + MAX_IN_ARGS)));
+        }
+        return chunks;
+    }
+
+    private static int bucketIndex(int count) {
+        int i = 0;
+        while (BUCKETS[i] < count) {
+            i++;
+        }
+        return i;
+    }
+}
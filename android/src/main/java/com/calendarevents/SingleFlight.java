@@ -0,0 +1,159 @@
+package com.calendarevents;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableNativeArray;
+import com.facebook.react.bridge.WritableNativeMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares one run of a read between identical bridge calls made while it is in flight. The first call for a key
+ * runs the read, later ones only add their promise, and every promise is settled with the outcome.
+ *
+ * Native maps and arrays are consumed when they cross the bridge, so each promise but the first one gets its
+ * own copy of the result. Copying is far cheaper than another provider query and serialization.
+ *
+ * Writes call invalidate(), so that a read made after a write never joins a flight started before it.
+ */
+final class SingleFlight {
+
+    static final class Flight {
+        private final String key;
+        // guarded by the SingleFlight, no promise joins once the flight is detached from the map
+        private final ArrayList<Promise> promises = new ArrayList<>(2);
+
+        private Flight(String key) {
+            this.key = key;
+        }
+    }
+
+    /** Copies a result for a promise that joined a flight. */
+    interface Copier {
+        Object copy(Object result);
+    }
+
+    static final Copier NATIVE_COPIER = new Copier() {
+        @Override
+        public Object copy(Object result) {
+            return copyNative(result);
+        }
+    };
+
+    private final HashMap<String, Flight> flights = new HashMap<>();
+    private final AtomicLong joined = new AtomicLong();
+    private final Copier copier;
+
+    SingleFlight() {
+        this(NATIVE_COPIER);
+    }
+
+    SingleFlight(Copier copier) {
+        this.copier = copier;
+    }
+
+    /**
+     * Adds promise to the flight of key. Returns the new flight when the caller started it and must run the
+     * read, null when the promise joined a flight already running.
+     */
+    synchronized Flight join(String key, Promise promise) {
+        Flight flight = flights.get(key);
+        if (flight != null) {
+            flight.promises.add(promise);
+            joined.incrementAndGet();
+            return null;
+        }
+
+        flight = new Flight(key);
+        flight.promises.add(promise);
+        flights.put(key, flight);
+        return flight;
+    }
+
+    /** A flight of promise alone that no later call joins, for reads that may be cancelled on their own. */
+    Flight single(Promise promise) {
+        Flight flight = new Flight(null);
+        flight.promises.add(promise);
+        return flight;
+    }
+
+    /** Detaches every running flight: they still settle the promises they have, later calls start new ones. */
+    synchronized void invalidate() {
+        flights.clear();
+    }
+
+    void resolve(Flight flight, Object result) {
+        List<Promise> promises = land(flight);
+
+        // copy before the first promise hands the original over to the bridge
+        for (int i = 1; i < promises.size(); i++) {
+            promises.get(i).resolve(copier.copy(result));
+        }
+        promises.get(0).resolve(result);
+    }
+
+    void reject(Flight flight, String code, String message, Throwable t) {
+        for (Promise promise : land(flight)) {
+            promise.reject(code, message, t);
+        }
+    }
+
+    /** Calls served by a flight another call had started. */
+    long joinedCount() {
+        return joined.get();
+    }
+
+    private synchronized List<Promise> land(Flight flight) {
+        if (flights.get(flight.key) == flight) {
+            flights.remove(flight.key);
+        }
+        return flight.promises;
+    }
+
+    private static Object copyNative(Object value) {
+        if (value instanceof ReadableMap) {
+            WritableNativeMap map = new WritableNativeMap();
+            map.merge((ReadableMap) value);
+            return map;
+        }
+        if (value instanceof ReadableArray) {
+            return copyArray((ReadableArray) value);
+        }
+        return value;
+    }
+
+    private static WritableNativeArray copyArray(ReadableArray array) {
+        WritableNativeArray copy = new WritableNativeArray();
+
+        for (int i = 0; i < array.size(); i++) {
+            switch (array.getType(i)) {
+                case Null:
+                    copy.pushNull();
+                    break;
+                case Boolean:
+                    copy.pushBoolean(array.getBoolean(i));
+                    break;
+                case Number:
+                    copy.pushDouble(array.getDouble(i));
+                    break;
+                case String:
+                    copy.pushString(array.getString(i));
+                    break;
+                case Map:
+                    WritableNativeMap map = new WritableNativeMap();
+                    map.merge(array.getMap(i));
+                    copy.pushMap(map);
+                    break;
+                case Array:
+                    copy.pushArray(copyArray(array.getArray(i)));
+                    break;
+            }
+        }
+
+        return copy;
+    }
+}
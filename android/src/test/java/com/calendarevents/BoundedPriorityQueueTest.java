@@ -0,0 +1,139 @@
+package com.calendarevents;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedPriorityQueueTest {
+
+    @Test
+    public void rejectsOffersOverTheCapacity() {
+        BoundedPriorityQueue<Integer> queue = new BoundedPriorityQueue<>(2);
+
+        assertTrue(queue.offer(3));
+        assertTrue(queue.offer(1));
+        assertFalse(queue.offer(2));
+        assertEquals(0, queue.remainingCapacity());
+    }
+
+    @Test
+    public void givesSlotsBackAsElementsLeave() throws Exception {
+        BoundedPriorityQueue<Integer> queue = new BoundedPriorityQueue<>(3);
+        queue.offer(5);
+        queue.offer(4);
+        queue.offer(3);
+
+        assertEquals(Integer.valueOf(3), queue.poll());
+        assertEquals(Integer.valueOf(4), queue.take());
+        assertEquals(Integer.valueOf(5), queue.poll(1, TimeUnit.MILLISECONDS));
+        assertNull(queue.poll());
+        assertEquals(3, queue.remainingCapacity());
+
+        queue.offer(1);
+        queue.offer(2);
+        assertTrue(queue.remove(Integer.valueOf(1)));
+        assertFalse(queue.remove(Integer.valueOf(7)));
+        assertEquals(2, queue.remainingCapacity());
+
+        List<Integer> drained = new ArrayList<>();
+        queue.offer(9);
+        assertEquals(2, queue.drainTo(drained));
+        assertEquals(3, queue.remainingCapacity());
+
+        queue.offer(8);
+        queue.clear();
+        assertEquals(3, queue.remainingCapacity());
+    }
+
+    @Test
+    public void neverHoldsMoreThanTheCapacityUnderConcurrentOffers() throws Exception {
+        final int capacity = 64;
+        final int threads = 16;
+        final BoundedPriorityQueue<Integer> queue = new BoundedPriorityQueue<>(capacity);
+        final CyclicBarrier start = new CyclicBarrier(threads);
+        final AtomicInteger accepted = new AtomicInteger();
+        List<Thread> offering = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            final int thread = i;
+            offering.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                    for (int j = 0; j < 1000; j++) {
+                        if (queue.offer(thread * 1000 + j)) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread : offering) {
+            thread.start();
+        }
+        for (Thread thread : offering) {
+            thread.join();
+        }
+
+        assertEquals(capacity, accepted.get());
+        assertEquals(capacity, queue.size());
+    }
+
+    @Test
+    public void staysBoundedWhileConsumersTake() throws Exception {
+        final int capacity = 8;
+        final BoundedPriorityQueue<Integer> queue = new BoundedPriorityQueue<>(capacity);
+        final AtomicInteger maxSize = new AtomicInteger();
+        final int offers = 20000;
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < offers; j++) {
+                        if (queue.offer(j)) {
+                            int size = queue.size();
+                            int max = maxSize.get();
+                            while (size > max && !maxSize.compareAndSet(max, size)) {
+                                max = maxSize.get();
+                            }
+                        }
+                    }
+                }
+            }));
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < offers; j++) {
+                        queue.poll();
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue("size reached " + maxSize.get(), maxSize.get() <= capacity);
+        assertEquals(capacity - queue.size(), queue.remainingCapacity());
+    }
+}
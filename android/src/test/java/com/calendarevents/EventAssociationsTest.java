@@ -0,0 +1,157 @@
+package com.calendarevents;
+
+import android.database.Cursor;
+import android.os.CancellationSignal;
+import android.provider.CalendarContract;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EventAssociationsTest {
+
+    private static final String[] EVENT_COLUMNS = new String[]{
+            CalendarContract.Instances.EVENT_ID,
+            CalendarContract.Instances.TITLE,
+            CalendarContract.Instances.HAS_ALARM
+    };
+
+    @Test
+    public void loadsEveryAssociationWithOneQueryPerTable() {
+        RecordingSource source = new RecordingSource();
+        Cursor events = events(50);
+
+        EventAssociations associations = EventAssociations.load(source, events, EventFields.ALL, Integer.MAX_VALUE, ReadRequest.NONE);
+
+        assertEquals(1, source.attendeeQueries.size());
+        assertEquals(1, source.reminderQueries.size());
+        assertEquals(1, source.calendarLoads);
+        assertEquals(50, source.attendeeQueries.get(0).size());
+        // only the events with HAS_ALARM set have reminders to look up
+        assertEquals(25, source.reminderQueries.get(0).size());
+
+        assertEquals(50, associations.attendees.size());
+        assertArrayEquals(new String[]{"attendee 7", "7@example.com", "1", "2", "1", null, null}, associations.attendees.get("7").get(0));
+        assertEquals(Arrays.asList(10, 30), associations.reminders.get("0"));
+        assertNull(associations.reminders.get("1"));
+        assertEquals("Work", associations.calendars.get("1").title);
+    }
+
+    @Test
+    public void queriesOnlyTheTablesOfTheRequestedFields() {
+        RecordingSource source = new RecordingSource();
+
+        EventAssociations.load(source, events(10), EventFields.of(EventFields.ATTENDEES), Integer.MAX_VALUE, ReadRequest.NONE);
+        assertEquals(1, source.attendeeQueries.size());
+        assertEquals(0, source.reminderQueries.size());
+        assertEquals(0, source.calendarLoads);
+
+        EventAssociations.load(source, events(10), EventFields.of(EventFields.TITLE, EventFields.START_DATE), Integer.MAX_VALUE, ReadRequest.NONE);
+        assertEquals(1, source.attendeeQueries.size());
+        assertEquals(0, source.reminderQueries.size());
+        assertEquals(0, source.calendarLoads);
+    }
+
+    @Test
+    public void splitsLongIdListsIntoBoundedQueries() {
+        RecordingSource source = new RecordingSource();
+
+        EventAssociations.load(source, events(1200), EventFields.ALL, Integer.MAX_VALUE, ReadRequest.NONE);
+
+        assertEquals(3, source.attendeeQueries.size());
+        assertEquals(2, source.reminderQueries.size());
+        int ids = 0;
+        for (List<String> query : source.attendeeQueries) {
+            assertTrue(query.size() <= Selection.MAX_IN_ARGS);
+            ids += query.size();
+        }
+        assertEquals(1200, ids);
+    }
+
+    @Test
+    public void loadsOnlyMaxRowsFromTheCurrentPositionAndRestoresIt() {
+        RecordingSource source = new RecordingSource();
+        Cursor events = events(100);
+        events.moveToPosition(19);
+
+        EventAssociations associations = EventAssociations.load(source, events, EventFields.ALL, 10, ReadRequest.NONE);
+
+        assertEquals(19, events.getPosition());
+        assertEquals(Arrays.asList("20", "21", "22", "23", "24", "25", "26", "27", "28", "29"), source.attendeeQueries.get(0));
+        assertEquals(10, associations.attendees.size());
+    }
+
+    @Test
+    public void skipsTheQueriesWhenThereAreNoEvents() {
+        RecordingSource source = new RecordingSource();
+
+        EventAssociations associations = EventAssociations.load(source, events(0), EventFields.ALL, Integer.MAX_VALUE, ReadRequest.NONE);
+
+        assertEquals(0, source.attendeeQueries.size() + source.reminderQueries.size() + source.calendarLoads);
+        assertTrue(associations.attendees.isEmpty());
+    }
+
+    private static Cursor events(int count) {
+        Object[][] rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[]{String.valueOf(i), "event " + i, i % 2 == 0 ? 1 : 0};
+        }
+        return FakeCursor.of(EVENT_COLUMNS, rows);
+    }
+
+    /** Answers every attendee and reminder query from the selection's ids, recording the ids of each query. */
+    private static final class RecordingSource implements EventAssociations.Source {
+        final List<List<String>> attendeeQueries = new ArrayList<>();
+        final List<List<String>> reminderQueries = new ArrayList<>();
+        int calendarLoads;
+
+        @Override
+        public Cursor queryAttendees(Selection selection, CancellationSignal signal) {
+            List<String> ids = ids(selection);
+            attendeeQueries.add(ids);
+            Object[][] rows = new Object[ids.size()][];
+            for (int i = 0; i < ids.size(); i++) {
+                String id = ids.get(i);
+                rows[i] = new Object[]{"a" + id, id, "attendee " + id, id + "@example.com", 1, 2, 1, null, null};
+            }
+            return FakeCursor.of(EventAssociations.ATTENDEE_PROJECTION, rows);
+        }
+
+        @Override
+        public Cursor queryReminders(Selection selection, CancellationSignal signal) {
+            List<String> ids = ids(selection);
+            reminderQueries.add(ids);
+            Object[][] rows = new Object[ids.size() * 2][];
+            for (int i = 0; i < ids.size(); i++) {
+                rows[2 * i] = new Object[]{ids.get(i), 10, 1};
+                rows[2 * i + 1] = new Object[]{ids.get(i), 30, 1};
+            }
+            return FakeCursor.of(EventAssociations.REMINDER_PROJECTION, rows);
+        }
+
+        @Override
+        public HashMap<String, CalendarRow> calendars() {
+            calendarLoads++;
+            CalendarRow work = new CalendarRow();
+            work.id = "1";
+            work.title = "Work";
+            HashMap<String, CalendarRow> calendars = new HashMap<>();
+            calendars.put(work.id, work);
+            return calendars;
+        }
+
+        // whereIn pads the arguments up to a bucket size by repeating the last id
+        private static List<String> ids(Selection selection) {
+            return new ArrayList<>(new LinkedHashSet<>(Arrays.asList(selection.args())));
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.calendarevents;
+
+import android.database.Cursor;
+import android.provider.CalendarContract;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EventRangeCacheTest {
+
+    private static final long DAY = EventRangeCache.DAY_MILLIS;
+    private static final long HOUR = 60 * 60 * 1000L;
+    // 2026-01-01T00:00:00Z, day numbers below count from it
+    private static final long EPOCH = 1767225600000L;
+
+    private static final int BEGIN_COLUMN = Arrays.asList(EventRangeCache.PROJECTION).indexOf(CalendarContract.Instances.BEGIN);
+    private static final int END_COLUMN = Arrays.asList(EventRangeCache.PROJECTION).indexOf(CalendarContract.Instances.END);
+    private static final int INSTANCE_ID_COLUMN = EventRangeCache.PROJECTION.length - 1;
+
+    @Test
+    public void overlappingWindowsOnlyLoadTheMissingDays() {
+        FakeProvider provider = new FakeProvider();
+        for (int day = 0; day < 14; day++) {
+            provider.instance(day, 9 * HOUR, HOUR);
+        }
+        EventRangeCache cache = cache(1 << 20);
+
+        List<Long> firstWeek = ids(cache.queryRows("1", at(0), at(7) - 1, provider));
+        assertEquals(provider.expected(at(0), at(7) - 1), firstWeek);
+        assertEquals(1, provider.loads.size());
+        assertArrayEquals(new long[]{at(0), at(7)}, provider.loads.get(0));
+
+        // swiping three days on: days 3-6 are cached, only 7-9 are read
+        List<Long> nextWindow = ids(cache.queryRows("1", at(3), at(10) - 1, provider));
+        assertEquals(provider.expected(at(3), at(10) - 1), nextWindow);
+        assertEquals(2, provider.loads.size());
+        assertArrayEquals(new long[]{at(7), at(10)}, provider.loads.get(1));
+        assertEquals(4, cache.hitCount());
+        assertEquals(10, cache.missCount());
+
+        // the same window again is read from the cache alone
+        assertEquals(nextWindow, ids(cache.queryRows("1", at(3), at(10) - 1, provider)));
+        assertEquals(2, provider.loads.size());
+    }
+
+    @Test
+    public void keepsCalendarSetsApart() {
+        FakeProvider provider = new FakeProvider();
+        provider.instance(0, 9 * HOUR, HOUR);
+        EventRangeCache cache = cache(1 << 20);
+
+        cache.queryRows("1", at(0), at(1) - 1, provider);
+        cache.queryRows("1,2", at(0), at(1) - 1, provider);
+
+        assertEquals(2, provider.loads.size());
+    }
+
+    @Test
+    public void returnsEventsSpanningSeveralDaysOnceInEveryWindowTheyOverlap() {
+        FakeProvider provider = new FakeProvider();
+        // day 1 at noon to day 4 at noon
+        long spanning = provider.instance(1, 12 * HOUR, 3 * DAY);
+        provider.instance(2, 9 * HOUR, HOUR);
+        provider.instance(5, 9 * HOUR, HOUR);
+        EventRangeCache cache = cache(1 << 20);
+
+        List<Long> week = ids(cache.queryRows("1", at(0), at(7) - 1, provider));
+        assertEquals(provider.expected(at(0), at(7) - 1), week);
+        assertEquals(1, count(week, spanning));
+
+        // a window inside the event, and one starting on its last day, both from the cached days
+        assertEquals(Arrays.asList(spanning), ids(cache.queryRows("1", at(3), at(4) - 1, provider)));
+        assertEquals(provider.expected(at(4), at(6) - 1), ids(cache.queryRows("1", at(4), at(6) - 1, provider)));
+        assertEquals(1, provider.loads.size());
+
+        // ordered by BEGIN
+        List<Object[]> rows = cache.queryRows("1", at(0), at(7) - 1, provider);
+        for (int i = 1; i < rows.size(); i++) {
+            assertTrue(millis(rows.get(i - 1), BEGIN_COLUMN) <= millis(rows.get(i), BEGIN_COLUMN));
+        }
+    }
+
+    @Test
+    public void keepsEachInstanceOnceWhenTheLoadCoversCachedDays() {
+        FakeProvider provider = new FakeProvider();
+        long spanning = provider.instance(1, 0, 5 * DAY);
+        provider.instance(3, 9 * HOUR, HOUR);
+        EventRangeCache cache = cache(1 << 20);
+
+        // days 2 and 3 cached first, then the week is loaded as one span around them
+        cache.queryRows("1", at(2), at(4) - 1, provider);
+        List<Long> week = ids(cache.queryRows("1", at(0), at(7) - 1, provider));
+
+        assertArrayEquals(new long[]{at(0), at(7)}, provider.loads.get(1));
+        assertEquals(provider.expected(at(0), at(7) - 1), week);
+        assertEquals(new HashSet<>(week).size(), week.size());
+        assertEquals(1, count(week, spanning));
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedDaysOverTheBudget() {
+        FakeProvider provider = new FakeProvider();
+        for (int day = 0; day < 4; day++) {
+            provider.instance(day, 9 * HOUR, HOUR);
+        }
+
+        // every day holds one row of the same size
+        EventRangeCache sizing = cache(1 << 20);
+        sizing.queryRows("1", at(0), at(1) - 1, provider);
+        long dayBytes = sizing.byteCount();
+        assertTrue(dayBytes > 0);
+
+        EventRangeCache cache = cache(dayBytes * 2 + dayBytes / 2);
+        provider.loads.clear();
+        cache.queryRows("1", at(0), at(1) - 1, provider);
+        cache.queryRows("1", at(1), at(2) - 1, provider);
+        // day 0 is used again, so day 1 is now the eldest
+        cache.queryRows("1", at(0), at(1) - 1, provider);
+        cache.queryRows("1", at(2), at(3) - 1, provider);
+
+        assertEquals(1, cache.evictionCount());
+        assertEquals(2, cache.dayCount());
+        assertEquals(2 * dayBytes, cache.byteCount());
+        assertEquals(3, provider.loads.size());
+
+        cache.queryRows("1", at(0), at(1) - 1, provider);
+        assertEquals(3, provider.loads.size());
+        cache.queryRows("1", at(1), at(2) - 1, provider);
+        assertEquals(4, provider.loads.size());
+
+        // lowering the budget evicts right away
+        cache.setBudget(dayBytes);
+        assertEquals(1, cache.dayCount());
+        assertEquals(dayBytes, cache.byteCount());
+    }
+
+    @Test
+    public void doesNotStoreRowsLoadedWhileTheCacheWasInvalidated() {
+        final FakeProvider provider = new FakeProvider();
+        provider.instance(0, 9 * HOUR, HOUR);
+        final EventRangeCache cache = cache(1 << 20);
+
+        // the provider changes while the rows are being read
+        List<Long> rows = ids(cache.queryRows("1", at(0), at(1) - 1, new EventRangeCache.Loader() {
+            @Override
+            public Cursor load(long start, long end) {
+                Cursor cursor = provider.load(start, end);
+                cache.invalidate();
+                return cursor;
+            }
+        }));
+
+        assertEquals(provider.expected(at(0), at(1) - 1), rows);
+        assertEquals(0, cache.dayCount());
+        assertEquals(0, cache.byteCount());
+        assertEquals(1, cache.invalidationCount());
+
+        provider.loads.clear();
+        cache.queryRows("1", at(0), at(1) - 1, provider);
+        assertEquals(1, provider.loads.size());
+        assertEquals(1, cache.dayCount());
+    }
+
+    @Test
+    public void dropsEverythingOnAChange() {
+        FakeProvider provider = new FakeProvider();
+        provider.instance(0, 9 * HOUR, HOUR);
+        FakeChanges changes = new FakeChanges(true);
+        EventRangeCache cache = new EventRangeCache(changes);
+        cache.setBudget(1 << 20);
+
+        cache.queryRows("1", at(0), at(2) - 1, provider);
+        assertEquals(2, cache.dayCount());
+        assertTrue(changes.observing);
+
+        changes.cache.invalidate();
+        assertEquals(0, cache.dayCount());
+
+        cache.close();
+        assertFalse(changes.observing);
+    }
+
+    @Test
+    public void leavesWideWindowsToTheCaller() {
+        FakeProvider provider = new FakeProvider();
+        EventRangeCache cache = cache(1 << 20);
+
+        assertEquals(0, cache.queryRows("1", at(0), at(EventRangeCache.MAX_WINDOW_DAYS) - 1, provider).size());
+        assertNull(cache.queryRows("1", at(0), at(EventRangeCache.MAX_WINDOW_DAYS), provider));
+        assertNull(cache.queryRows("1", at(5), at(4), provider));
+        assertEquals(1, provider.loads.size());
+    }
+
+    @Test
+    public void isBypassedWhenDisabledOrUnobserved() {
+        FakeProvider provider = new FakeProvider();
+
+        assertNull(cache(0).queryRows("1", at(0), at(1) - 1, provider));
+
+        EventRangeCache unobserved = new EventRangeCache(new FakeChanges(false));
+        unobserved.setBudget(1 << 20);
+        assertNull(unobserved.queryRows("1", at(0), at(1) - 1, provider));
+
+        assertEquals(0, provider.loads.size());
+    }
+
+    private static EventRangeCache cache(long budget) {
+        EventRangeCache cache = new EventRangeCache(new FakeChanges(true));
+        cache.setBudget(budget);
+        return cache;
+    }
+
+    private static long at(int day) {
+        return EPOCH + day * DAY;
+    }
+
+    private static long millis(Object[] row, int column) {
+        return Long.parseLong(row[column].toString());
+    }
+
+    private static List<Long> ids(List<Object[]> rows) {
+        List<Long> ids = new ArrayList<>();
+        for (Object[] row : rows) {
+            ids.add(millis(row, INSTANCE_ID_COLUMN));
+        }
+        return ids;
+    }
+
+    private static int count(List<Long> ids, long id) {
+        int count = 0;
+        for (long value : ids) {
+            if (value == id) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static final class FakeChanges implements EventRangeCache.Changes {
+        final boolean allowed;
+        EventRangeCache cache;
+        boolean observing;
+
+        FakeChanges(boolean allowed) {
+            this.allowed = allowed;
+        }
+
+        @Override
+        public boolean observe(EventRangeCache cache) {
+            this.cache = cache;
+            observing = allowed;
+            return allowed;
+        }
+
+        @Override
+        public void stop() {
+            observing = false;
+        }
+    }
+
+    /** Instances answered from memory with the provider's BEGIN < end AND END >= start rule, recording each load. */
+    private static final class FakeProvider implements EventRangeCache.Loader {
+        final List<Object[]> instances = new ArrayList<>();
+        final List<long[]> loads = new ArrayList<>();
+
+        long instance(int day, long startOfDay, long duration) {
+            long id = instances.size() + 1;
+            Object[] row = new Object[EventRangeCache.PROJECTION.length];
+            row[0] = 100 + id;
+            row[1] = "Event " + id;
+            row[BEGIN_COLUMN] = at(day) + startOfDay;
+            row[END_COLUMN] = at(day) + startOfDay + duration;
+            row[INSTANCE_ID_COLUMN] = id;
+            instances.add(row);
+            return id;
+        }
+
+        List<Long> expected(long start, long end) {
+            List<Long> ids = new ArrayList<>();
+            for (Object[] row : matching(start, end)) {
+                ids.add(millis(row, INSTANCE_ID_COLUMN));
+            }
+            return ids;
+        }
+
+        @Override
+        public Cursor load(long start, long end) {
+            loads.add(new long[]{start, end});
+            return FakeCursor.of(EventRangeCache.PROJECTION, matching(start, end).toArray(new Object[0][]));
+        }
+
+        private List<Object[]> matching(long start, long end) {
+            List<Object[]> rows = new ArrayList<>();
+            for (Object[] row : instances) {
+                if (millis(row, BEGIN_COLUMN) < end && millis(row, END_COLUMN) >= start) {
+                    rows.add(row);
+                }
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.calendarevents;
+
+import android.database.Cursor;
+import android.os.CancellationSignal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EventSnapshotTest {
+
+    @Test
+    public void reportsAddedUpdatedAndDeletedEvents() {
+        FakeProvider before = new FakeProvider();
+        before.event(1, "Standup", 0);
+        before.event(2, "Lunch", 0);
+        before.event(3, "Review", 0);
+
+        FakeProvider after = new FakeProvider();
+        after.event(1, "Standup", 0);
+        after.event(3, "Design review", 0);
+        after.event(4, "Retro", 0);
+
+        Changes changes = diff(before, after);
+
+        assertEquals(Collections.singletonList("4"), changes.added);
+        assertEquals(Collections.singletonList("3"), changes.updated);
+        assertEquals(Collections.singletonList("2"), changes.deleted);
+    }
+
+    @Test
+    public void reportsNothingForAnUnchangedCalendar() {
+        FakeProvider provider = new FakeProvider();
+        provider.event(1, "Standup", 1);
+        provider.attendee(1, "ann@example.com", 1);
+        provider.reminder(1, 10);
+
+        Changes changes = diff(provider, provider);
+
+        assertTrue(changes.added.isEmpty());
+        assertTrue(changes.updated.isEmpty());
+        assertTrue(changes.deleted.isEmpty());
+    }
+
+    @Test
+    public void reportsReminderEditsOfAnAlreadyDirtyEvent() {
+        // DIRTY is 1 in both snapshots, as on a local calendar, so only the reminder tells them apart
+        FakeProvider before = new FakeProvider();
+        before.event(1, "Standup", 1);
+        before.reminder(1, 10);
+
+        FakeProvider after = new FakeProvider();
+        after.event(1, "Standup", 1);
+        after.reminder(1, 30);
+
+        assertEquals(Collections.singletonList("1"), diff(before, after).updated);
+    }
+
+    @Test
+    public void reportsAttendeeEditsOfAnAlreadyDirtyEvent() {
+        FakeProvider before = new FakeProvider();
+        before.event(1, "Standup", 0);
+        before.event(2, "Lunch", 0);
+        before.attendee(2, "ann@example.com", 1);
+
+        FakeProvider after = new FakeProvider();
+        after.event(1, "Standup", 0);
+        after.event(2, "Lunch", 0);
+        after.attendee(2, "ann@example.com", 2);
+
+        Changes changes = diff(before, after);
+        assertEquals(Collections.singletonList("2"), changes.updated);
+
+        FakeProvider added = new FakeProvider();
+        added.event(1, "Standup", 0);
+        added.event(2, "Lunch", 0);
+        added.attendee(2, "ann@example.com", 1);
+        added.attendee(2, "bob@example.com", 1);
+
+        assertEquals(Collections.singletonList("2"), diff(before, added).updated);
+    }
+
+    @Test
+    public void ignoresTheOrderAttendeesComeBackIn() {
+        FakeProvider before = new FakeProvider();
+        before.event(1, "Standup", 0);
+        before.attendee(1, "ann@example.com", 1);
+        before.attendee(1, "bob@example.com", 1);
+
+        FakeProvider after = new FakeProvider();
+        after.event(1, "Standup", 0);
+        after.attendee(1, "bob@example.com", 1);
+        after.attendee(1, "ann@example.com", 1);
+
+        assertTrue(diff(before, after).updated.isEmpty());
+    }
+
+    @Test
+    public void queriesAssociationsInChunksAndRemindersOnlyForAlarmEvents() {
+        FakeProvider provider = new FakeProvider();
+        for (int i = 1; i <= 1200; i++) {
+            provider.event(i, "Event " + i, 0);
+        }
+
+        EventSnapshot snapshot = EventSnapshot.query(provider, "", null, null, ReadRequest.NONE);
+
+        assertEquals(1200, snapshot.size());
+        assertEquals(3, provider.attendeeQueries);
+        // every other event has HAS_ALARM set
+        assertEquals(2, provider.reminderQueries);
+    }
+
+    private static Changes diff(FakeProvider before, FakeProvider after) {
+        EventSnapshot previous = EventSnapshot.query(before, "", null, null, ReadRequest.NONE);
+        EventSnapshot current = EventSnapshot.query(after, "", null, null, ReadRequest.NONE);
+        Changes changes = new Changes();
+        current.diff(previous, changes.added, changes.updated, changes.deleted);
+        return changes;
+    }
+
+    private static final class Changes {
+        final ArrayList<String> added = new ArrayList<>();
+        final ArrayList<String> updated = new ArrayList<>();
+        final ArrayList<String> deleted = new ArrayList<>();
+    }
+
+    /** Events, attendees and reminders answered from memory, with the selection's event ids applied. */
+    private static final class FakeProvider implements EventSnapshot.Source {
+        final List<Object[]> events = new ArrayList<>();
+        final List<Object[]> attendees = new ArrayList<>();
+        final List<Object[]> reminders = new ArrayList<>();
+        int attendeeQueries;
+        int reminderQueries;
+
+        void event(long id, String title, int dirty) {
+            Object[] row = new Object[EventSnapshot.PROJECTION.length];
+            row[0] = id;
+            row[1] = dirty;
+            row[3] = title;
+            row[5] = 1767225600000L + id * 3600000L;
+            row[17] = id % 2 == 1 ? 1 : 0;
+            events.add(row);
+        }
+
+        void attendee(long eventID, String email, int status) {
+            // a stable row id per attendee, as the provider keeps across edits
+            attendees.add(new Object[]{eventID * 1000 + Math.abs(email.hashCode() % 1000), eventID, null, email, 1, 1, status, null, null});
+        }
+
+        void reminder(long eventID, int minutes) {
+            reminders.add(new Object[]{eventID, minutes, 1});
+        }
+
+        @Override
+        public Cursor queryEvents(String selection, String[] selectionArgs, CancellationSignal signal) {
+            return FakeCursor.of(EventSnapshot.PROJECTION, events.toArray(new Object[0][]));
+        }
+
+        @Override
+        public Cursor queryAttendees(Selection selection, CancellationSignal signal) {
+            attendeeQueries++;
+            return FakeCursor.of(EventAssociations.ATTENDEE_PROJECTION, matching(attendees, 1, selection));
+        }
+
+        @Override
+        public Cursor queryReminders(Selection selection, CancellationSignal signal) {
+            reminderQueries++;
+            return FakeCursor.of(EventAssociations.REMINDER_PROJECTION, matching(reminders, 0, selection));
+        }
+
+        private static Object[][] matching(List<Object[]> rows, int eventIdColumn, Selection selection) {
+            HashSet<String> ids = new HashSet<>(Arrays.asList(selection.args()));
+            List<Object[]> result = new ArrayList<>();
+            for (Object[] row : rows) {
+                if (ids.contains(String.valueOf(row[eventIdColumn]))) {
+                    result.add(row);
+                }
+            }
+            return result.toArray(new Object[0][]);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.calendarevents;
+
+import android.database.Cursor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+
+/** An in-memory Cursor over rows of values, for code that reads provider cursors on the JVM. */
+final class FakeCursor implements InvocationHandler {
+
+    private final String[] columns;
+    private final Object[][] rows;
+    private int position = -1;
+    private boolean closed;
+
+    private FakeCursor(String[] columns, Object[][] rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    static Cursor of(String[] columns, Object[][] rows) {
+        return (Cursor) Proxy.newProxyInstance(Cursor.class.getClassLoader(), new Class<?>[]{Cursor.class}, new FakeCursor(columns, rows));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "FakeCursor" + Arrays.toString(columns);
+            case "getCount":
+                return rows.length;
+            case "getPosition":
+                return position;
+            case "move":
+                return moveTo(position + (Integer) args[0]);
+            case "moveToPosition":
+                return moveTo((Integer) args[0]);
+            case "moveToFirst":
+                return moveTo(0);
+            case "moveToLast":
+                return moveTo(rows.length - 1);
+            case "moveToNext":
+                return moveTo(position + 1);
+            case "moveToPrevious":
+                return moveTo(position - 1);
+            case "isBeforeFirst":
+                return position < 0;
+            case "isAfterLast":
+                return position >= rows.length;
+            case "isFirst":
+                return rows.length > 0 && position == 0;
+            case "isLast":
+                return rows.length > 0 && position == rows.length - 1;
+            case "getColumnIndex":
+                return Arrays.asList(columns).indexOf(args[0]);
+            case "getColumnIndexOrThrow": {
+                int index = Arrays.asList(columns).indexOf(args[0]);
+                if (index == -1) {
+                    throw new IllegalArgumentException("column '" + args[0] + "' does not exist");
+                }
+                return index;
+            }
+            case "getColumnName":
+                return columns[(Integer) args[0]];
+            case "getColumnNames":
+                return columns.clone();
+            case "getColumnCount":
+                return columns.length;
+            case "getString": {
+                Object value = value((Integer) args[0]);
+                return value == null ? null : value.toString();
+            }
+            case "getInt":
+                return (int) number((Integer) args[0]);
+            case "getLong":
+                return number((Integer) args[0]);
+            case "getShort":
+                return (short) number((Integer) args[0]);
+            case "getDouble":
+            case "getFloat": {
+                Object value = value((Integer) args[0]);
+                double number = value == null ? 0 : value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+                return name.equals("getFloat") ? (Object) (float) number : (Object) number;
+            }
+            case "isNull":
+                return value((Integer) args[0]) == null;
+            case "getType":
+                return value((Integer) args[0]) == null ? 0 : value((Integer) args[0]) instanceof Number ? 1 : 3;
+            case "close":
+                closed = true;
+                return null;
+            case "isClosed":
+                return closed;
+            default:
+                throw new UnsupportedOperationException(name);
+        }
+    }
+
+    private boolean moveTo(int target) {
+        position = Math.max(-1, Math.min(rows.length, target));
+        return position >= 0 && position < rows.length;
+    }
+
+    private Object value(int column) {
+        if (position < 0 || position >= rows.length) {
+            throw new IllegalStateException("cursor is at " + position + " of " + rows.length);
+        }
+        return rows[position][column];
+    }
+
+    private long number(int column) {
+        Object value = value(column);
+        if (value == null) {
+            return 0;
+        }
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+    }
+}
@@ -0,0 +1,268 @@
+package com.calendarevents;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class FreeBusyTest {
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    // 2026-03-02T00:00:00Z, a Monday
+    private static final long MONDAY = 1772409600000L;
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final TimeZone BERLIN = TimeZone.getTimeZone("Europe/Berlin");
+    private static final boolean[] EVERY_DAY = days(Calendar.SUNDAY, Calendar.MONDAY, Calendar.TUESDAY,
+            Calendar.WEDNESDAY, Calendar.THURSDAY, Calendar.FRIDAY, Calendar.SATURDAY);
+
+    @Test
+    public void mergesOverlappingAndNestedIntervalsInAnyOrder() {
+        FreeBusy freeBusy = new FreeBusy(0, 1000, 0, 0, UTC, 0);
+        freeBusy.add(500, 600);
+        freeBusy.add(100, 200);
+        freeBusy.add(150, 300);
+        freeBusy.add(520, 540);
+        freeBusy.add(700, 800);
+
+        assertArrayEquals(new long[]{100, 300, 500, 600, 700, 800}, freeBusy.merge());
+    }
+
+    @Test
+    public void joinsTouchingIntervals() {
+        FreeBusy freeBusy = new FreeBusy(0, 1000, 0, 0, UTC, 0);
+        freeBusy.add(200, 300);
+        freeBusy.add(100, 200);
+        freeBusy.add(300, 400);
+        freeBusy.add(401, 500);
+
+        assertArrayEquals(new long[]{100, 400, 401, 500}, freeBusy.merge());
+    }
+
+    @Test
+    public void clipsIntervalsToTheRange() {
+        FreeBusy freeBusy = new FreeBusy(100, 500, 0, 0, UTC, 0);
+        freeBusy.add(0, 150);
+        freeBusy.add(450, 900);
+        // outside, or touching the range from outside
+        freeBusy.add(0, 100);
+        freeBusy.add(500, 600);
+        freeBusy.add(700, 800);
+        // empty
+        freeBusy.add(300, 300);
+
+        assertArrayEquals(new long[]{100, 150, 450, 500}, freeBusy.merge());
+    }
+
+    @Test
+    public void padsBothSidesBeforeClippingAndMerging() {
+        FreeBusy freeBusy = new FreeBusy(0, 1000, 0, 50, UTC, 0);
+        freeBusy.add(20, 100);
+        // 100 apart, joined once both sides are padded
+        freeBusy.add(200, 300);
+        freeBusy.add(500, 600);
+        // outside the range, reaching into it once padded
+        freeBusy.add(1020, 1100);
+
+        assertArrayEquals(new long[]{0, 350, 450, 650, 970, 1000}, freeBusy.merge());
+    }
+
+    @Test
+    public void roundsOutToTheGranularityFromTheRangeStart() {
+        long start = MONDAY + 7 * MINUTE;
+        FreeBusy freeBusy = new FreeBusy(start, start + 2 * HOUR, 15 * MINUTE, 0, UTC, 0);
+        // 00:10-00:20 on a grid from 00:07 covers 00:07-00:22
+        freeBusy.add(start + 3 * MINUTE, start + 13 * MINUTE);
+        // already on the grid
+        freeBusy.add(start + 30 * MINUTE, start + 45 * MINUTE);
+        // rounded past the end of the range
+        freeBusy.add(start + 110 * MINUTE, start + 119 * MINUTE);
+
+        assertArrayEquals(new long[]{
+                start, start + 15 * MINUTE,
+                start + 30 * MINUTE, start + 45 * MINUTE,
+                start + 105 * MINUTE, start + 2 * HOUR,
+        }, freeBusy.merge());
+    }
+
+    @Test
+    public void joinsIntervalsThatMeetOnceRounded() {
+        FreeBusy freeBusy = new FreeBusy(0, 100, 10, 0, UTC, 0);
+        freeBusy.add(1, 12);
+        freeBusy.add(18, 25);
+
+        assertArrayEquals(new long[]{0, 30}, freeBusy.merge());
+    }
+
+    @Test
+    public void growsPastItsCapacity() {
+        FreeBusy freeBusy = new FreeBusy(0, 10000, 0, 0, UTC, 0);
+        long[] expected = new long[200];
+        for (int i = 99; i >= 0; i--) {
+            freeBusy.add(i * 100, i * 100 + 10);
+            expected[i * 2] = i * 100;
+            expected[i * 2 + 1] = i * 100 + 10;
+        }
+
+        assertArrayEquals(expected, freeBusy.merge());
+    }
+
+    @Test
+    public void placesAllDayIntervalsOnTheDaysOfTheZone() {
+        TimeZone newYork = TimeZone.getTimeZone("America/New_York");
+        FreeBusy freeBusy = new FreeBusy(MONDAY - DAY, MONDAY + 7 * DAY, 0, 0, newYork, 0);
+        // Tuesday and Wednesday, stored as UTC midnights
+        freeBusy.addAllDay(MONDAY + DAY, MONDAY + 3 * DAY);
+
+        assertArrayEquals(new long[]{MONDAY + DAY + 5 * HOUR, MONDAY + 3 * DAY + 5 * HOUR}, freeBusy.merge());
+    }
+
+    @Test
+    public void mergesNothingToNothing() {
+        assertArrayEquals(new long[0], new FreeBusy(0, 1000, 0, 0, UTC, 0).merge());
+    }
+
+    @Test
+    public void findsSlotsBackToBackFromTheStartOfEachGap() {
+        long[] busy = new long[]{130, 200, 260, 270};
+        long[] windows = new long[]{100, 400};
+
+        assertArrayEquals(new long[]{100, 115, 115, 130, 200, 215, 215, 230, 230, 245, 245, 260, 270, 285, 285, 300,
+                300, 315, 315, 330, 330, 345, 345, 360, 360, 375, 375, 390}, FreeBusy.freeSlots(busy, windows, 15, 100));
+    }
+
+    @Test
+    public void skipsGapsShorterThanTheDuration() {
+        long[] busy = new long[]{120, 200, 230, 300};
+        long[] windows = new long[]{100, 340};
+
+        assertArrayEquals(new long[]{200, 230, 300, 330}, FreeBusy.freeSlots(busy, windows, 30, 100));
+    }
+
+    @Test
+    public void keepsSlotsInsideTheWindows() {
+        // busy time before the first window, across the gap between two windows, and after the last one
+        long[] busy = new long[]{0, 50, 180, 320, 900, 1000};
+        long[] windows = new long[]{100, 200, 300, 400, 500, 560};
+
+        assertArrayEquals(new long[]{100, 150, 320, 370, 500, 550}, FreeBusy.freeSlots(busy, windows, 50, 100));
+        assertArrayEquals(new long[0], FreeBusy.freeSlots(new long[]{0, 1000}, windows, 50, 100));
+        assertArrayEquals(new long[0], FreeBusy.freeSlots(busy, new long[0], 50, 100));
+    }
+
+    @Test
+    public void stopsAtMaxResults() {
+        long[] slots = FreeBusy.freeSlots(new long[0], new long[]{0, 100000}, 10, 70);
+
+        assertEquals(140, slots.length);
+        assertEquals(700, slots[139]);
+        assertArrayEquals(new long[0], FreeBusy.freeSlots(new long[0], new long[]{0, 100}, 10, 0));
+    }
+
+    @Test
+    public void opensWindowsAtTheLocalTimesOfEachDayAcrossDaylightSaving() throws Exception {
+        // Berlin moves from +01:00 to +02:00 on Sunday 2026-03-29
+        long start = utc("2026-03-27T23:00:00.000Z");
+        long[] windows = FreeBusy.workingWindows(start, utc("2026-03-30T22:00:00.000Z"), BERLIN, 9 * 60, 17 * 60, EVERY_DAY);
+
+        assertArrayEquals(utcs(
+                "2026-03-28T08:00:00.000Z", "2026-03-28T16:00:00.000Z",
+                "2026-03-29T07:00:00.000Z", "2026-03-29T15:00:00.000Z",
+                "2026-03-30T07:00:00.000Z", "2026-03-30T15:00:00.000Z"), windows);
+    }
+
+    @Test
+    public void opensOvernightWindowsUntilTheNextDay() throws Exception {
+        // 22:00-06:00 on weekdays, Berlin going back to +01:00 on the night of Saturday 2026-10-24
+        boolean[] weekdays = days(Calendar.MONDAY, Calendar.TUESDAY, Calendar.WEDNESDAY, Calendar.THURSDAY, Calendar.FRIDAY);
+        long[] windows = FreeBusy.workingWindows(utc("2026-10-22T22:00:00.000Z"), utc("2026-10-27T00:00:00.000Z"), BERLIN,
+                22 * 60, 6 * 60, weekdays);
+
+        assertArrayEquals(utcs(
+                // Wednesday's window, opened before the range
+                "2026-10-22T22:00:00.000Z", "2026-10-23T04:00:00.000Z",
+                "2026-10-23T20:00:00.000Z", "2026-10-24T04:00:00.000Z",
+                // Monday's window, cut at the end of the range
+                "2026-10-26T21:00:00.000Z", "2026-10-27T00:00:00.000Z"), windows);
+
+        // on every day, the night of the change is an hour longer
+        windows = FreeBusy.workingWindows(utc("2026-10-24T00:00:00.000Z"), utc("2026-10-26T00:00:00.000Z"), BERLIN,
+                22 * 60, 6 * 60, EVERY_DAY);
+
+        assertArrayEquals(utcs(
+                "2026-10-24T00:00:00.000Z", "2026-10-24T04:00:00.000Z",
+                "2026-10-24T20:00:00.000Z", "2026-10-25T05:00:00.000Z",
+                "2026-10-25T21:00:00.000Z", "2026-10-26T00:00:00.000Z"), windows);
+    }
+
+    @Test
+    public void opensWholeDayWindowsWhenStartAndEndMeet() throws Exception {
+        long[] windows = FreeBusy.workingWindows(utc("2026-03-02T00:00:00.000Z"), utc("2026-03-04T00:00:00.000Z"), UTC,
+                8 * 60, 8 * 60, EVERY_DAY);
+
+        assertArrayEquals(utcs(
+                "2026-03-02T00:00:00.000Z", "2026-03-02T08:00:00.000Z",
+                "2026-03-02T08:00:00.000Z", "2026-03-03T08:00:00.000Z",
+                "2026-03-03T08:00:00.000Z", "2026-03-04T00:00:00.000Z"), windows);
+
+        // "24:00" ends at midnight the same night
+        windows = FreeBusy.workingWindows(utc("2026-03-02T00:00:00.000Z"), utc("2026-03-03T00:00:00.000Z"), UTC,
+                18 * 60, 24 * 60, EVERY_DAY);
+        assertArrayEquals(utcs("2026-03-02T18:00:00.000Z", "2026-03-03T00:00:00.000Z"), windows);
+    }
+
+    @Test
+    public void findsSlotsInOvernightWindowsAcrossTheChange() throws Exception {
+        long[] windows = FreeBusy.workingWindows(utc("2026-10-24T12:00:00.000Z"), utc("2026-10-25T12:00:00.000Z"), BERLIN,
+                22 * 60, 6 * 60, EVERY_DAY);
+        long[] busy = utcs("2026-10-24T21:00:00.000Z", "2026-10-25T03:30:00.000Z");
+
+        assertArrayEquals(utcs(
+                "2026-10-24T20:00:00.000Z", "2026-10-24T21:00:00.000Z",
+                "2026-10-25T03:30:00.000Z", "2026-10-25T04:30:00.000Z"), FreeBusy.freeSlots(busy, windows, HOUR, 100));
+    }
+
+    @Test
+    public void acceptsKnownTimeZonesOnly() {
+        assertEquals("Europe/Paris", FreeBusy.timeZone("Europe/Paris").getID());
+        assertEquals("GMT", FreeBusy.timeZone("GMT").getID());
+        assertEquals("UTC", FreeBusy.timeZone("UTC").getID());
+        assertEquals(2 * HOUR, FreeBusy.timeZone("GMT+02:00").getRawOffset());
+
+        for (String id : Arrays.asList("Europe/Pariss", "Mars/Olympus_Mons", "", "GMT+99:00")) {
+            try {
+                FreeBusy.timeZone(id);
+                fail(id);
+            } catch (IllegalArgumentException e) {
+                assertEquals("invalid time zone: " + id, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean[] days(int... daysOfWeek) {
+        boolean[] days = new boolean[8];
+        for (int day : daysOfWeek) {
+            days[day] = true;
+        }
+        return days;
+    }
+
+    private static long utc(String date) throws ParseException {
+        return IsoDateFormat.parse(date);
+    }
+
+    private static long[] utcs(String... dates) throws ParseException {
+        long[] millis = new long[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            millis[i] = utc(dates[i]);
+        }
+        return millis;
+    }
+}
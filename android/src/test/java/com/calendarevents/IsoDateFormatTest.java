@@ -0,0 +1,252 @@
+package com.calendarevents;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * IsoDateFormat against the SimpleDateFormat and Calendar code it replaced, which stays the reference for every
+ * value: the fast path must give the same strings and millis, and the same ParseException.
+ */
+public class IsoDateFormatTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("GMT");
+    private static final TimeZone[] ZONES = new TimeZone[]{
+            UTC,
+            TimeZone.getTimeZone("America/New_York"),
+            TimeZone.getTimeZone("Europe/Berlin"),
+            TimeZone.getTimeZone("Australia/Lord_Howe"),
+            TimeZone.getTimeZone("Asia/Kolkata"),
+    };
+
+    // -0500-01-01T00:00:00Z to 12000-01-01T00:00:00Z, past both ends of the fast path
+    private static final long MIN_MILLIS = -77914137600000L;
+    private static final long MAX_MILLIS = 316516348800000L;
+
+    @Test
+    public void formatsRandomEpochsLikeSimpleDateFormat() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            assertFormats(randomMillis(random));
+        }
+    }
+
+    @Test
+    public void parsesRandomDatesLikeSimpleDateFormat() throws Exception {
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            long millis = randomMillis(random);
+            for (TimeZone zone : ZONES) {
+                assertParses(reference(IsoDateFormat.ISO_PATTERN, UTC).format(new Date(millis)), zone);
+                assertParsesRRule(reference(IsoDateFormat.RRULE_PATTERN, UTC).format(new Date(millis)), zone);
+            }
+        }
+    }
+
+    @Test
+    public void matchesAtTheEdgesOfFourDigitYears() throws Exception {
+        String[] dates = new String[]{
+                "0000-01-01T00:00:00.000Z",
+                "0000-12-31T23:59:59.999Z",
+                "0001-01-01T00:00:00.000Z",
+                "9999-01-01T00:00:00.000Z",
+                "9999-12-31T23:59:59.999Z",
+                "10000-01-01T00:00:00.000Z",
+                "10000-06-15T12:30:00.000Z",
+        };
+        for (String date : dates) {
+            for (TimeZone zone : ZONES) {
+                assertParses(date, zone);
+            }
+            assertFormats(reference(IsoDateFormat.ISO_PATTERN, UTC).parse(date).getTime());
+        }
+
+        // the last millisecond of the fast path and the first one after it
+        assertFormats(253402300799999L);
+        assertFormats(253402300800000L);
+
+        for (String date : new String[]{"00000101T000000Z", "99991231T235959Z", "100000101T000000Z"}) {
+            for (TimeZone zone : ZONES) {
+                assertParsesRRule(date, zone);
+            }
+        }
+    }
+
+    @Test
+    public void matchesAroundTheGregorianCutover() throws Exception {
+        // 1582-10-15T00:00:00Z, the first Gregorian day, and the days the Julian calendar skipped before it
+        long cutover = -12219292800000L;
+        for (long offset = -3 * 86400000L; offset <= 3 * 86400000L; offset += 3600000L) {
+            assertFormats(cutover + offset);
+            assertFormats(cutover + offset - 1);
+        }
+
+        String[] dates = new String[]{
+                "1000-02-29T12:00:00.000Z",
+                "1582-10-04T23:59:59.999Z",
+                "1582-10-10T12:00:00.000Z",
+                "1582-10-15T00:00:00.000Z",
+                "1582-10-15T00:00:00.001Z",
+                "1582-10-16T05:00:00.000Z",
+                "1600-02-29T00:00:00.000Z",
+        };
+        for (String date : dates) {
+            for (TimeZone zone : ZONES) {
+                assertParses(date, zone);
+            }
+        }
+        for (String date : new String[]{"15821004T120000Z", "15821015T000000Z", "15821015T010000Z"}) {
+            for (TimeZone zone : ZONES) {
+                assertParsesRRule(date, zone);
+            }
+        }
+    }
+
+    @Test
+    public void resolvesGapsAndOverlapsLikeCalendar() throws Exception {
+        TimeZone newYork = TimeZone.getTimeZone("America/New_York");
+        TimeZone lordHowe = TimeZone.getTimeZone("Australia/Lord_Howe");
+
+        String[] dates = new String[]{
+                // 02:00-03:00 does not exist on 2026-03-08 in New York
+                "2026-03-08T02:00:00.000Z",
+                "2026-03-08T02:30:00.000Z",
+                "2026-03-08T03:00:00.000Z",
+                "2026-03-07T02:30:00.000Z",
+                "2026-03-09T02:30:00.000Z",
+                // 01:00-02:00 happens twice on 2026-11-01
+                "2026-11-01T00:59:59.999Z",
+                "2026-11-01T01:00:00.000Z",
+                "2026-11-01T01:30:00.000Z",
+                "2026-11-01T02:00:00.000Z",
+                "2026-10-31T01:30:00.000Z",
+                "2026-11-02T01:30:00.000Z",
+                // a half hour shift in Lord Howe, 02:00-02:30 skipped on 2026-10-04, 01:30-02:00 repeated on 2026-04-05
+                "2026-10-04T02:15:00.000Z",
+                "2026-04-05T01:45:00.000Z",
+        };
+        for (String date : dates) {
+            assertParses(date, newYork);
+            assertParses(date, lordHowe);
+        }
+
+        // every quarter hour across both New York transitions of 2026
+        long[] transitions = new long[]{1772953200000L, 1793512800000L};
+        for (long transition : transitions) {
+            for (long millis = transition - 2 * 86400000L; millis <= transition + 2 * 86400000L; millis += 900000L) {
+                assertFormats(millis);
+                assertParses(reference(IsoDateFormat.ISO_PATTERN, UTC).format(new Date(millis)), newYork);
+                assertParsesRRule(reference(IsoDateFormat.RRULE_PATTERN, UTC).format(new Date(millis)), newYork);
+            }
+        }
+    }
+
+    @Test
+    public void parsesLenientAndNonCanonicalInputLikeSimpleDateFormat() throws Exception {
+        String[] dates = new String[]{
+                "2026-02-30T10:00:00.000Z",
+                "2026-02-31T10:00:00.000Z",
+                "2025-02-29T00:00:00.000Z",
+                "2026-04-31T23:59:59.999Z",
+                "2026-13-01T00:00:00.000Z",
+                "2026-00-10T00:00:00.000Z",
+                "2026-01-00T00:00:00.000Z",
+                "2026-01-01T24:00:00.000Z",
+                "2026-01-01T23:60:00.000Z",
+                "2026-01-01T23:59:60.000Z",
+                "2026-1-1T1:2:3.4Z",
+                "2026-01-01T10:00:00.000Zjunk",
+                "2026-01-01T10:00:00.000",
+                "2026-01-01T10:00:00.000+01:00",
+                "2026-01-01 10:00:00.000Z",
+                "+2026-01-01T10:00:00.000Z",
+                "-001-01-01T00:00:00.000Z",
+                "0026-01-01T10:00:00.000Z",
+                "2026-01-01",
+                "",
+                "not a date",
+        };
+        for (String date : dates) {
+            for (TimeZone zone : ZONES) {
+                assertParses(date, zone);
+            }
+        }
+
+        String[] rruleDates = new String[]{
+                "20260230T100000Z",
+                "20261301T000000Z",
+                "20260101T240000Z",
+                "20260101T100000",
+                "20260101",
+                "2026011T10000Z",
+                "20260101X100000Z",
+        };
+        for (String date : rruleDates) {
+            for (TimeZone zone : ZONES) {
+                assertParsesRRule(date, zone);
+            }
+        }
+    }
+
+    private static long randomMillis(Random random) {
+        return MIN_MILLIS + (long) (random.nextDouble() * (MAX_MILLIS - MIN_MILLIS));
+    }
+
+    private static void assertFormats(long millis) {
+        Calendar date = Calendar.getInstance();
+        date.setTimeInMillis(millis);
+
+        assertEquals("format " + millis, reference(IsoDateFormat.ISO_PATTERN, UTC).format(date.getTime()), IsoDateFormat.format(millis));
+        for (TimeZone zone : ZONES) {
+            assertEquals("formatRRuleDate " + millis + " in " + zone.getID(),
+                    reference(IsoDateFormat.RRULE_PATTERN, zone).format(date.getTime()),
+                    IsoDateFormat.formatRRuleDate(millis, zone == UTC ? null : zone));
+        }
+    }
+
+    private static void assertParses(String value, TimeZone zone) {
+        String expected = referenceParse(IsoDateFormat.ISO_PATTERN, zone, value);
+        String actual;
+        try {
+            actual = String.valueOf(zone == UTC ? IsoDateFormat.parse(value) : IsoDateFormat.parse(value, zone));
+        } catch (ParseException e) {
+            actual = "ParseException";
+        }
+        assertEquals("parse " + value + " in " + zone.getID(), expected, actual);
+    }
+
+    private static void assertParsesRRule(String value, TimeZone zone) {
+        String expected = referenceParse(IsoDateFormat.RRULE_PATTERN, zone, value);
+        String actual;
+        try {
+            actual = String.valueOf(IsoDateFormat.parseRRuleDate(value, zone == UTC ? null : zone));
+        } catch (ParseException e) {
+            actual = "ParseException";
+        }
+        assertEquals("parseRRuleDate " + value + " in " + zone.getID(), expected, actual);
+    }
+
+    // a new formatter per call, the way serializeEvent and addEvent created them
+    private static SimpleDateFormat reference(String pattern, TimeZone zone) {
+        SimpleDateFormat sdf = new SimpleDateFormat(pattern);
+        sdf.setTimeZone(zone);
+        return sdf;
+    }
+
+    private static String referenceParse(String pattern, TimeZone zone, String value) {
+        try {
+            Calendar date = Calendar.getInstance();
+            date.setTime(reference(pattern, zone).parse(value));
+            return String.valueOf(date.getTimeInMillis());
+        } catch (ParseException e) {
+            return "ParseException";
+        }
+    }
+}
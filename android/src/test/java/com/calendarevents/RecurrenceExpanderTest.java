@@ -0,0 +1,224 @@
+package com.calendarevents;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class RecurrenceExpanderTest {
+
+    private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+    private static final TimeZone BERLIN = TimeZone.getTimeZone("Europe/Berlin");
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long HOUR = 3600000L;
+    private static final long DAY = 24 * HOUR;
+
+    @Test
+    public void keepsTheLocalTimeAcrossSpringForward() throws Exception {
+        long dtstart = time(NEW_YORK, 2026, 3, 6, 9, 0);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, NEW_YORK, "FREQ=DAILY;COUNT=4", null, null,
+                dtstart, time(NEW_YORK, 2026, 4, 1, 0, 0));
+
+        assertArrayEquals(new long[]{
+                time(NEW_YORK, 2026, 3, 6, 9, 0),
+                time(NEW_YORK, 2026, 3, 7, 9, 0),
+                time(NEW_YORK, 2026, 3, 8, 9, 0),
+                time(NEW_YORK, 2026, 3, 9, 9, 0),
+        }, begins);
+        // the change at 02:00 on the 8th makes the 7th to the 8th 23 hours
+        assertEquals(23 * HOUR, begins[2] - begins[1]);
+    }
+
+    @Test
+    public void keepsTheLocalTimeAcrossFallBack() throws Exception {
+        long dtstart = time(BERLIN, 2026, 10, 18, 9, 30);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, BERLIN, "FREQ=WEEKLY;BYDAY=SU", null, null,
+                dtstart, time(BERLIN, 2026, 11, 2, 0, 0));
+
+        assertArrayEquals(new long[]{
+                time(BERLIN, 2026, 10, 18, 9, 30),
+                time(BERLIN, 2026, 10, 25, 9, 30),
+                time(BERLIN, 2026, 11, 1, 9, 30),
+        }, begins);
+        assertEquals(7 * DAY + HOUR, begins[1] - begins[0]);
+    }
+
+    @Test
+    public void movesATimeInTheSpringForwardGapPastIt() throws Exception {
+        long dtstart = time(NEW_YORK, 2026, 3, 7, 2, 30);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, NEW_YORK, "FREQ=DAILY;COUNT=3", null, null,
+                dtstart, time(NEW_YORK, 2026, 4, 1, 0, 0));
+
+        assertEquals(3, begins.length);
+        assertEquals(time(NEW_YORK, 2026, 3, 8, 3, 30), begins[1]);
+        assertEquals(time(NEW_YORK, 2026, 3, 9, 2, 30), begins[2]);
+    }
+
+    @Test
+    public void expandsTheLastDayOfEachMonth() throws Exception {
+        long dtstart = time(UTC, 2027, 12, 31, 12, 0);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, UTC, "FREQ=MONTHLY;BYMONTHDAY=-1", null, null,
+                dtstart, time(UTC, 2028, 5, 1, 0, 0));
+
+        assertArrayEquals(new long[]{
+                time(UTC, 2027, 12, 31, 12, 0),
+                time(UTC, 2028, 1, 31, 12, 0),
+                time(UTC, 2028, 2, 29, 12, 0),
+                time(UTC, 2028, 3, 31, 12, 0),
+                time(UTC, 2028, 4, 30, 12, 0),
+        }, begins);
+    }
+
+    @Test
+    public void skipsMonthsWithoutTheThirtyFirst() throws Exception {
+        long dtstart = time(UTC, 2026, 1, 31, 8, 0);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, UTC, "FREQ=MONTHLY;COUNT=4", null, null,
+                dtstart, time(UTC, 2027, 1, 1, 0, 0));
+
+        assertArrayEquals(new long[]{
+                time(UTC, 2026, 1, 31, 8, 0),
+                time(UTC, 2026, 3, 31, 8, 0),
+                time(UTC, 2026, 5, 31, 8, 0),
+                time(UTC, 2026, 7, 31, 8, 0),
+        }, begins);
+    }
+
+    @Test
+    public void countsOccurrencesBeforeTheRange() throws Exception {
+        long dtstart = time(UTC, 2026, 1, 1, 10, 0);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, UTC, "FREQ=DAILY;COUNT=10", null, null,
+                time(UTC, 2026, 1, 8, 0, 0), time(UTC, 2026, 2, 1, 0, 0));
+
+        assertArrayEquals(new long[]{
+                time(UTC, 2026, 1, 8, 10, 0),
+                time(UTC, 2026, 1, 9, 10, 0),
+                time(UTC, 2026, 1, 10, 10, 0),
+        }, begins);
+    }
+
+    @Test
+    public void returnsNothingPastTheLastCountedOccurrence() throws Exception {
+        long dtstart = time(UTC, 2026, 1, 1, 10, 0);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, UTC, "FREQ=WEEKLY;BYDAY=MO,TH;COUNT=6", null, null,
+                time(UTC, 2026, 3, 1, 0, 0), time(UTC, 2026, 4, 1, 0, 0));
+
+        assertEquals(0, begins.length);
+    }
+
+    @Test
+    public void skipsAheadToADistantRange() throws Exception {
+        long dtstart = time(NEW_YORK, 2000, 1, 3, 9, 0);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, NEW_YORK, "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO", null, null,
+                time(NEW_YORK, 2030, 1, 1, 0, 0), time(NEW_YORK, 2030, 2, 1, 0, 0));
+
+        // 2030-01-07 is 1566 weeks after 2000-01-03
+        assertArrayEquals(new long[]{
+                time(NEW_YORK, 2030, 1, 7, 9, 0),
+                time(NEW_YORK, 2030, 1, 21, 9, 0),
+        }, begins);
+    }
+
+    @Test
+    public void includesAnOccurrenceThatStartedBeforeTheRange() throws Exception {
+        long dtstart = time(UTC, 2026, 1, 1, 22, 0);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, 4 * HOUR, UTC, "FREQ=DAILY", null, null,
+                time(UTC, 2026, 1, 5, 0, 0), time(UTC, 2026, 1, 6, 0, 0));
+
+        assertArrayEquals(new long[]{
+                time(UTC, 2026, 1, 4, 22, 0),
+                time(UTC, 2026, 1, 5, 22, 0),
+        }, begins);
+    }
+
+    @Test
+    public void removesExcludedDates() throws Exception {
+        long dtstart = time(NEW_YORK, 2026, 6, 1, 9, 0);
+        String exdate = "TZID=America/New_York;20260602T090000,20260604T090000\n20260605T130000Z";
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, NEW_YORK, "FREQ=DAILY;COUNT=6", null, exdate,
+                dtstart, time(NEW_YORK, 2026, 7, 1, 0, 0));
+
+        // excluded occurrences still count towards COUNT
+        assertArrayEquals(new long[]{
+                time(NEW_YORK, 2026, 6, 1, 9, 0),
+                time(NEW_YORK, 2026, 6, 3, 9, 0),
+                time(NEW_YORK, 2026, 6, 6, 9, 0),
+        }, begins);
+    }
+
+    @Test
+    public void addsRdatesAndExcludesDtstart() throws Exception {
+        long dtstart = time(UTC, 2026, 6, 1, 9, 0);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, UTC, "FREQ=WEEKLY;COUNT=2",
+                "20260603T090000Z", "20260601T090000Z", dtstart, time(UTC, 2026, 7, 1, 0, 0));
+
+        assertArrayEquals(new long[]{
+                time(UTC, 2026, 6, 3, 9, 0),
+                time(UTC, 2026, 6, 8, 9, 0),
+        }, begins);
+    }
+
+    @Test
+    public void stopsAtADateOnlyUntilIncludingThatDay() throws Exception {
+        long dtstart = time(UTC, 2026, 6, 1, 18, 0);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, UTC, "FREQ=DAILY;UNTIL=20260603", null, null,
+                dtstart, time(UTC, 2026, 7, 1, 0, 0));
+
+        assertEquals(3, begins.length);
+        assertEquals(time(UTC, 2026, 6, 3, 18, 0), begins[2]);
+    }
+
+    @Test
+    public void expandsTheLastWeekdayOfTheMonth() throws Exception {
+        long dtstart = time(UTC, 2026, 1, 30, 15, 0);
+
+        long[] begins = RecurrenceExpander.expand(dtstart, HOUR, UTC, "FREQ=MONTHLY;BYSETPOS=-1;BYDAY=FR;COUNT=3", null, null,
+                dtstart, time(UTC, 2027, 1, 1, 0, 0));
+
+        assertArrayEquals(new long[]{
+                time(UTC, 2026, 1, 30, 15, 0),
+                time(UTC, 2026, 2, 27, 15, 0),
+                time(UTC, 2026, 3, 27, 15, 0),
+        }, begins);
+    }
+
+    @Test(expected = RecurrenceExpander.UnsupportedRuleException.class)
+    public void rejectsPartsItCannotExpand() throws Exception {
+        RecurrenceExpander.expand(0, HOUR, UTC, "FREQ=DAILY;BYHOUR=9,17", null, null, 0, DAY);
+    }
+
+    @Test(expected = RecurrenceExpander.UnsupportedRuleException.class)
+    public void rejectsSubDailyFrequencies() throws Exception {
+        RecurrenceExpander.expand(0, HOUR, UTC, "FREQ=HOURLY", null, null, 0, DAY);
+    }
+
+    @Test
+    public void parsesDurations() throws Exception {
+        assertEquals(DAY, RecurrenceExpander.parseDuration("P1D"));
+        assertEquals(HOUR + 30 * 60000L, RecurrenceExpander.parseDuration("PT1H30M"));
+        assertEquals(HOUR, RecurrenceExpander.parseDuration("P3600S"));
+        assertEquals(-2 * 7 * DAY, RecurrenceExpander.parseDuration("-P2W"));
+    }
+
+    private static long time(TimeZone zone, int year, int month, int day, int hour, int minute) {
+        Calendar calendar = new GregorianCalendar(zone);
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute);
+        return calendar.getTimeInMillis();
+    }
+}
@@ -0,0 +1,110 @@
+package com.calendarevents;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class RecurrenceRuleTest {
+
+    @Test
+    public void rulesInCreateRecurrenceRuleOrderRoundTrip() {
+        String[] rules = new String[]{
+                "FREQ=DAILY",
+                "FREQ=DAILY;INTERVAL=3;COUNT=10",
+                "FREQ=WEEKLY;BYDAY=MO,WE,FR;WKST=SU;INTERVAL=2;UNTIL=20301231T000000Z",
+                "FREQ=MONTHLY;BYSETPOS=2;BYDAY=TU;COUNT=5",
+                "FREQ=MONTHLY;BYSETPOS=-1;BYDAY=FR;WKST=MO;INTERVAL=1;UNTIL=20300101",
+                "FREQ=YEARLY;UNTIL=20301231T235959Z",
+        };
+
+        for (String rrule : rules) {
+            assertEquals(rrule, RecurrenceRule.parse(rrule).toString());
+        }
+    }
+
+    @Test
+    public void parsesKnownParts() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;WKST=SU;UNTIL=20301231T000000Z");
+
+        assertEquals("WEEKLY", rule.frequency);
+        assertEquals(Integer.valueOf(2), rule.interval);
+        assertArrayEquals(new String[]{"MO", "WE"}, rule.byDay);
+        assertEquals("SU", rule.weekStart);
+        assertEquals("20301231T000000Z", rule.until);
+        assertNull(rule.count);
+        assertNull(rule.bySetPos);
+        assertNull(rule.otherParts);
+    }
+
+    @Test
+    public void writesPartsInCanonicalOrderAndIsStable() {
+        String rrule = RecurrenceRule.parse("COUNT=4;INTERVAL=2;BYDAY=TU;FREQ=MONTHLY;BYSETPOS=3").toString();
+
+        assertEquals("FREQ=MONTHLY;BYSETPOS=3;BYDAY=TU;INTERVAL=2;COUNT=4", rrule);
+        assertEquals(rrule, RecurrenceRule.parse(rrule).toString());
+    }
+
+    @Test
+    public void keepsUnknownPartsVerbatimAndInOrder() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=15,-1;X-NAME=Some Value;COUNT=3;BYHOUR=9");
+
+        assertEquals("BYMONTHDAY=15,-1;X-NAME=Some Value;BYHOUR=9", rule.otherParts);
+        assertEquals("FREQ=MONTHLY;COUNT=3;BYMONTHDAY=15,-1;X-NAME=Some Value;BYHOUR=9", rule.toString());
+    }
+
+    @Test
+    public void matchesPartNamesIgnoringCase() {
+        RecurrenceRule rule = RecurrenceRule.parse("freq=weekly;Interval=2;byday=mo;count=6");
+
+        assertEquals("weekly", rule.frequency);
+        assertEquals(Integer.valueOf(2), rule.interval);
+        assertArrayEquals(new String[]{"mo"}, rule.byDay);
+        assertEquals(Integer.valueOf(6), rule.count);
+        assertNull(rule.otherParts);
+        assertEquals("FREQ=weekly;BYDAY=mo;INTERVAL=2;COUNT=6", rule.toString());
+    }
+
+    @Test
+    public void keepsBadNumbersVerbatim() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;INTERVAL=two;COUNT=;UNTIL=20300101");
+
+        assertNull(rule.interval);
+        assertNull(rule.count);
+        assertEquals("INTERVAL=two;COUNT=", rule.otherParts);
+        assertEquals("FREQ=DAILY;UNTIL=20300101;INTERVAL=two;COUNT=", rule.toString());
+    }
+
+    @Test
+    public void keepsBothUntilAndCount() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;COUNT=5;UNTIL=20300101");
+
+        assertEquals("20300101", rule.until);
+        assertEquals(Integer.valueOf(5), rule.count);
+        assertEquals("FREQ=DAILY;UNTIL=20300101;COUNT=5", rule.toString());
+    }
+
+    @Test
+    public void skipsEmptyParts() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;;COUNT=2;");
+
+        assertNull(rule.otherParts);
+        assertEquals("FREQ=DAILY;COUNT=2", rule.toString());
+    }
+
+    @Test
+    public void readsASinglePositionAsTheWeekInMonth() {
+        assertEquals(Integer.valueOf(-1), RecurrenceRule.parse("FREQ=MONTHLY;BYSETPOS=-1;BYDAY=FR").weekPositionInMonth());
+        assertNull(RecurrenceRule.parse("FREQ=MONTHLY;BYSETPOS=1,3;BYDAY=FR").weekPositionInMonth());
+        assertNull(RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=FR").weekPositionInMonth());
+    }
+
+    @Test
+    public void returnsCachedRules() {
+        String rrule = "FREQ=WEEKLY;BYDAY=SA;COUNT=9";
+
+        assertSame(RecurrenceRule.parse(rrule), RecurrenceRule.parse(rrule));
+    }
+}
@@ -0,0 +1,131 @@
+package com.calendarevents;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class SelectionTest {
+
+    @Test
+    public void emptySelectionHasNoSqlOrArgs() {
+        Selection selection = new Selection();
+
+        assertNull(selection.sql());
+        assertNull(selection.args());
+    }
+
+    @Test
+    public void joinsClausesWithAndAndBindsValues() {
+        Selection selection = new Selection()
+                .where("begin < ?", 200L)
+                .where("end >= ?", 100L)
+                .where("visible = 1");
+
+        assertEquals("(begin < ?) AND (end >= ?) AND (visible = 1)", selection.sql());
+        assertArrayEquals(new String[]{"200", "100"}, selection.args());
+    }
+
+    @Test
+    public void valuesNeverReachTheSql() {
+        Selection selection = new Selection().where("title = ?", "x'); DROP TABLE events; --");
+
+        assertEquals("(title = ?)", selection.sql());
+        assertArrayEquals(new String[]{"x'); DROP TABLE events; --"}, selection.args());
+    }
+
+    @Test
+    public void padsInListsToTheNextBucketWithTheLastValue() {
+        Selection selection = new Selection().whereIn("calendar_id", Arrays.asList("1", "2", "3"));
+
+        assertEquals("(calendar_id IN (?,?,?,?))", selection.sql());
+        assertArrayEquals(new String[]{"1", "2", "3", "3"}, selection.args());
+    }
+
+    @Test
+    public void keepsListsThatFillABucketAsTheyAre() {
+        Selection one = new Selection().whereIn("calendar_id", Collections.singletonList("7"));
+        Selection two = new Selection().whereIn("calendar_id", Arrays.asList("7", "8"));
+
+        assertEquals("(calendar_id IN (?))", one.sql());
+        assertArrayEquals(new String[]{"7"}, one.args());
+        assertEquals("(calendar_id IN (?,?))", two.sql());
+        assertArrayEquals(new String[]{"7", "8"}, two.args());
+    }
+
+    @Test
+    public void listsOfDifferentLengthsInABucketShareTheirSql() {
+        String five = new Selection().whereIn("event_id", ids(5)).sql();
+        String eight = new Selection().whereIn("event_id", ids(8)).sql();
+        String nine = new Selection().whereIn("event_id", ids(9)).sql();
+
+        assertEquals(five, eight);
+        assertEquals(16, placeholders(nine));
+    }
+
+    @Test
+    public void padsUpToTheLastBucket() {
+        Selection selection = new Selection().whereIn("event_id", ids(300));
+
+        assertEquals(Selection.MAX_IN_ARGS, placeholders(selection.sql()));
+        assertEquals(Selection.MAX_IN_ARGS, selection.args().length);
+        assertEquals("299", selection.args()[Selection.MAX_IN_ARGS - 1]);
+    }
+
+    @Test
+    public void rejectsListsOverTheLimit() {
+        Selection selection = new Selection().where("visible = 1");
+        try {
+            selection.whereIn("calendar_id", ids(Selection.MAX_IN_ARGS + 1));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("calendar_id IN list of 501 values, at most 500", e.getMessage());
+        }
+
+        // the selection is left as it was
+        assertEquals("(visible = 1)", selection.sql());
+        assertNull(selection.args());
+        assertEquals(Selection.MAX_IN_ARGS, new Selection().whereIn("calendar_id", ids(Selection.MAX_IN_ARGS)).args().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyInLists() {
+        new Selection().whereIn("calendar_id", Collections.<String>emptyList());
+    }
+
+    @Test
+    public void splitsIdListsIntoChunksWhereInPads() {
+        List<List<String>> chunks = Selection.inChunks(ids(2 * Selection.MAX_IN_ARGS + 1));
+
+        assertEquals(3, chunks.size());
+        assertEquals(Selection.MAX_IN_ARGS, chunks.get(0).size());
+        assertEquals(Selection.MAX_IN_ARGS, chunks.get(1).size());
+        assertEquals(Collections.singletonList(String.valueOf(2 * Selection.MAX_IN_ARGS)), chunks.get(2));
+        assertEquals(0, Selection.inChunks(Collections.<String>emptyList()).size());
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(String.valueOf(i));
+        }
+        return ids;
+    }
+
+    private static int placeholders(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,226 @@
+package com.calendarevents;
+
+import com.facebook.react.bridge.Promise;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SingleFlightTest {
+
+    private static final int THREADS = 16;
+
+    // results are lists, copied as new lists the way the native copier copies maps and arrays
+    private static final SingleFlight.Copier LIST_COPIER = new SingleFlight.Copier() {
+        @Override
+        public Object copy(Object result) {
+            return new ArrayList<>((List<?>) result);
+        }
+    };
+
+    @Test
+    public void coalescesConcurrentIdenticalCallsIntoOneQuery() throws Exception {
+        final SingleFlight flights = new SingleFlight(LIST_COPIER);
+        final AtomicInteger queries = new AtomicInteger();
+        final CyclicBarrier start = new CyclicBarrier(THREADS);
+        final CountDownLatch joined = new CountDownLatch(THREADS);
+        final List<RecordingPromise> promises = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            final RecordingPromise promise = new RecordingPromise();
+            promises.add(promise);
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        SingleFlight.Flight flight = flights.join("events", promise.proxy);
+                        joined.countDown();
+                        if (flight != null) {
+                            queries.incrementAndGet();
+                            // the query outlasts the calls made while it runs
+                            joined.await();
+                            flights.resolve(flight, Collections.singletonList("event"));
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }));
+        }
+
+        runAll(threads);
+
+        assertEquals(1, queries.get());
+        assertEquals(THREADS - 1, flights.joinedCount());
+
+        Set<Object> results = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (RecordingPromise promise : promises) {
+            assertEquals(1, promise.settled.get());
+            assertEquals(Collections.singletonList("event"), promise.result);
+            results.add(promise.result);
+        }
+        assertEquals("every caller gets its own copy", THREADS, results.size());
+    }
+
+    @Test
+    public void settlesEveryPromiseExactlyOnceUnderContention() throws Exception {
+        final SingleFlight flights = new SingleFlight(LIST_COPIER);
+        final AtomicInteger queries = new AtomicInteger();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final int calls = 2000;
+        final List<RecordingPromise> promises = Collections.synchronizedList(new ArrayList<RecordingPromise>());
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            final int thread = i;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int call = 0; call < calls; call++) {
+                        RecordingPromise promise = new RecordingPromise();
+                        promises.add(promise);
+                        String key = "range-" + ((thread + call) % 3);
+                        SingleFlight.Flight flight = flights.join(key, promise.proxy);
+                        if (flight != null) {
+                            queries.incrementAndGet();
+                            if (call % 7 == 0) {
+                                flights.reject(flight, "find event error", "failed", null);
+                            } else {
+                                flights.resolve(flight, Collections.singletonList(key));
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+
+        Thread invalidator = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (running.get()) {
+                    flights.invalidate();
+                    Thread.yield();
+                }
+            }
+        });
+        invalidator.start();
+        runAll(threads);
+        running.set(false);
+        invalidator.join();
+
+        assertEquals(THREADS * calls, promises.size());
+        for (RecordingPromise promise : promises) {
+            assertEquals(1, promise.settled.get());
+        }
+        assertEquals(THREADS * calls, queries.get() + flights.joinedCount());
+    }
+
+    @Test
+    public void callsAfterInvalidateStartANewFlight() {
+        SingleFlight flights = new SingleFlight(LIST_COPIER);
+        RecordingPromise before = new RecordingPromise();
+        RecordingPromise after = new RecordingPromise();
+        RecordingPromise later = new RecordingPromise();
+
+        SingleFlight.Flight stale = flights.join("events", before.proxy);
+        flights.invalidate();
+        SingleFlight.Flight fresh = flights.join("events", after.proxy);
+
+        assertNotNull(stale);
+        assertNotNull(fresh);
+
+        // landing the detached flight leaves the new one in place for later calls
+        flights.resolve(stale, Collections.singletonList("old"));
+        assertNull(flights.join("events", later.proxy));
+
+        flights.resolve(fresh, Collections.singletonList("new"));
+
+        assertEquals(Collections.singletonList("old"), before.result);
+        assertEquals(Collections.singletonList("new"), after.result);
+        assertEquals(Collections.singletonList("new"), later.result);
+        assertEquals(1, after.settled.get());
+        assertEquals(1, later.settled.get());
+    }
+
+    @Test
+    public void rejectsEveryJoinedPromise() {
+        SingleFlight flights = new SingleFlight(LIST_COPIER);
+        RecordingPromise first = new RecordingPromise();
+        RecordingPromise second = new RecordingPromise();
+
+        SingleFlight.Flight flight = flights.join("events", first.proxy);
+        flights.join("events", second.proxy);
+        flights.reject(flight, ReadRequest.CANCELLED, "cancelled", null);
+
+        assertEquals(ReadRequest.CANCELLED, first.code);
+        assertEquals(ReadRequest.CANCELLED, second.code);
+        assertTrue(flights.join("events", new RecordingPromise().proxy) != null);
+    }
+
+    @Test
+    public void singleFlightsAreNeverJoined() {
+        SingleFlight flights = new SingleFlight(LIST_COPIER);
+        RecordingPromise promise = new RecordingPromise();
+        List<String> result = Collections.singletonList("event");
+
+        flights.resolve(flights.single(promise.proxy), result);
+
+        assertSame(result, promise.result);
+        assertEquals(0, flights.joinedCount());
+    }
+
+    private static void runAll(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertTrue("thread did not finish", !thread.isAlive());
+        }
+    }
+
+    /** A Promise that records how it was settled, whatever overloads the bridge's Promise declares. */
+    private static final class RecordingPromise implements InvocationHandler {
+        final AtomicInteger settled = new AtomicInteger();
+        final Promise proxy = (Promise) Proxy.newProxyInstance(Promise.class.getClassLoader(), new Class<?>[]{Promise.class}, this);
+        volatile Object result;
+        volatile String code;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getDeclaringClass() == Object.class) {
+                if (method.getName().equals("equals")) {
+                    return proxy == args[0];
+                }
+                return method.getName().equals("hashCode") ? (Object) System.identityHashCode(proxy) : "RecordingPromise";
+            }
+            settled.incrementAndGet();
+            if (method.getName().equals("resolve")) {
+                result = args[0];
+            } else if (args != null && args.length > 0 && args[0] instanceof String) {
+                code = (String) args[0];
+            }
+            return null;
+        }
+    }
+}
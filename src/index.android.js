@@ -1,7 +1,32 @@
-import { NativeModules, processColor } from "react-native";
+import { DeviceEventEmitter, NativeModules, processColor } from "react-native";
 
 const RNCalendarEvents = NativeModules.RNCalendarEvents;
 
+let bulkProgressId = 0;
+
+async function withBulkProgress(options, run) {
+  const { onProgress, ...nativeOptions } = options;
+  if (typeof onProgress !== "function") {
+    return run(nativeOptions);
+  }
+
+  const progressId = String(++bulkProgressId);
+  const subscription = DeviceEventEmitter.addListener(
+    "RNCalendarEventsBulkProgress",
+    (progress) => {
+      if (progress.progressId === progressId) {
+        onProgress(progress);
+      }
+    }
+  );
+
+  try {
+    return await run({ ...nativeOptions, progressId });
+  } finally {
+    subscription.remove();
+  }
+}
+
 export default {
   async checkPermissions(readOnly = false) {
     return RNCalendarEvents.checkPermissions(readOnly);
@@ -10,27 +35,78 @@ export default {
     return RNCalendarEvents.requestPermissions(readOnly);
   },
 
-  async fetchAllEvents(startDate, endDate, calendars = []) {
-    return RNCalendarEvents.findAllEvents(startDate, endDate, calendars);
+  async fetchAllEvents(startDate, endDate, calendars = [], options = {}) {
+    return RNCalendarEvents.findAllEvents(
+      startDate,
+      endDate,
+      calendars,
+      options
+    );
+  },
+
+  async fetchEventsPage(startDate, endDate, calendars = [], options = {}) {
+    return RNCalendarEvents.findEventsPage(
+      startDate,
+      endDate,
+      calendars,
+      options
+    );
+  },
+
+  async searchEvents(query, startDate, endDate, calendars = [], options = {}) {
+    return RNCalendarEvents.searchEvents(
+      query,
+      startDate,
+      endDate,
+      calendars,
+      options
+    );
+  },
+
+  async fetchEventsChangedSince(token = null, calendars = [], options = {}) {
+    return RNCalendarEvents.findEventsChangedSince(token, calendars, options);
   },
 
-  async findCalendars() {
-    return RNCalendarEvents.findCalendars();
+  async getFreeBusy(startDate, endDate, calendars = [], options = {}) {
+    return RNCalendarEvents.getFreeBusy(startDate, endDate, calendars, options);
   },
 
-  async saveCalendar(options = {}) {
-    return RNCalendarEvents.saveCalendar({
-      ...options,
-      color: options.color ? processColor(options.color) : undefined,
-    });
+  async findAvailableSlots(
+    startDate,
+    endDate,
+    calendars = [],
+    durationMinutes,
+    options = {}
+  ) {
+    return RNCalendarEvents.findAvailableSlots(
+      startDate,
+      endDate,
+      calendars,
+      durationMinutes,
+      options
+    );
   },
 
-  async removeCalendar(id) {
-    return RNCalendarEvents.removeCalendar(id);
+  async findCalendars(options = {}) {
+    return RNCalendarEvents.findCalendars(options);
   },
 
-  async findEventById(id) {
-    return RNCalendarEvents.findById(id);
+  async saveCalendar(calendar = {}, options = {}) {
+    return RNCalendarEvents.saveCalendar(
+      {
+        ...calendar,
+        color: calendar.color ? processColor(calendar.color) : undefined,
+      },
+      options
+    );
+  },
+
+  async removeCalendar(id, options = {}) {
+    return RNCalendarEvents.removeCalendar(id, options);
+  },
+
+  async findEventById(id, options = {}) {
+    return RNCalendarEvents.findById(id, options);
   },
 
   async saveEvent(title, details, options = { sync: false }) {
@@ -41,6 +117,79 @@ export default {
     return RNCalendarEvents.removeEvent(id, options);
   },
 
+  async saveEvents(events, options = { sync: false }) {
+    return withBulkProgress(options, (nativeOptions) =>
+      RNCalendarEvents.saveEvents(events, nativeOptions)
+    );
+  },
+
+  async removeEvents(ids, options = { sync: false }) {
+    return withBulkProgress(options, (nativeOptions) =>
+      RNCalendarEvents.removeEvents(ids, nativeOptions)
+    );
+  },
+
+  async addCalendarChangeListener(listener) {
+    const subscription = DeviceEventEmitter.addListener(
+      "calendarChanged",
+      listener
+    );
+
+    try {
+      await RNCalendarEvents.startObservingChanges();
+    } catch (error) {
+      subscription.remove();
+      throw error;
+    }
+
+    let removed = false;
+    return {
+      remove() {
+        if (!removed) {
+          removed = true;
+          subscription.remove();
+          RNCalendarEvents.stopObservingChanges();
+        }
+      },
+    };
+  },
+
+  async getCalendarCacheStats() {
+    return RNCalendarEvents.getCalendarCacheStats();
+  },
+
+  setEventCacheBudget(maxBytes) {
+    RNCalendarEvents.setEventCacheBudget(maxBytes);
+  },
+
+  async getEventCacheStats() {
+    return RNCalendarEvents.getEventCacheStats();
+  },
+
+  cancelRequest(requestId) {
+    RNCalendarEvents.cancelRequest(requestId);
+  },
+
+  async prefetchEvents(startDate, endDate, calendars = []) {
+    return RNCalendarEvents.prefetchEvents(startDate, endDate, calendars);
+  },
+
+  cancelPrefetch() {
+    RNCalendarEvents.cancelPrefetch();
+  },
+
+  setPerformanceStatsEnabled(enabled) {
+    RNCalendarEvents.setPerformanceStatsEnabled(enabled);
+  },
+
+  async getPerformanceStats() {
+    return RNCalendarEvents.getPerformanceStats();
+  },
+
+  resetPerformanceStats() {
+    RNCalendarEvents.resetPerformanceStats();
+  },
+
   async uriForCalendar() {
     return RNCalendarEvents.uriForCalendar();
   },
@@ -21,7 +21,15 @@ interface AlarmStructuredLocation {
   coords: { latitude: number; longitude: number };
 }
 
-export interface Options {
+export interface PriorityOptions {
+  /**
+   * ANDROID ONLY - Queued calls run by priority, then in call order. Defaults to `"interactive"` for reads,
+   * `"background"` for `saveEvents` and `removeEvents` and `"normal"` for other writes, calendar ones included.
+   */
+  priority?: "interactive" | "normal" | "background";
+}
+
+export interface Options extends PriorityOptions {
   /** The start date of a recurring event's exception instance. Used for updating single event in a recurring series. */
   exceptionDate?: ISODateString;
   /** iOS ONLY - If true the update will span all future events. If false it only update the single instance. */
@@ -46,6 +54,12 @@ interface RecurrenceRule {
   occurrence: number;
   /** The interval between events of this recurrence. */
   interval: number;
+  /** ANDROID ONLY - Days of the week the event occurs on, e.g. `["MO", "WE"]`. */
+  daysOfWeek?: string[];
+  /** ANDROID ONLY - The day a week starts on, e.g. `"SU"`. */
+  weekStart?: string;
+  /** ANDROID ONLY - Position of the day in the month for monthly rules, e.g. `-1` for the last one. */
+  weekPositionInMonth?: number;
 }
 
 interface Attendee {
@@ -127,6 +141,241 @@ export interface CalendarEventWritable extends CalendarEventBase {
   alarms?: Array<Alarm<ISODateString | number>>;
 }
 
+export type EventField =
+  | "id"
+  | "title"
+  | "description"
+  | "startDate"
+  | "endDate"
+  | "allDay"
+  | "location"
+  | "availability"
+  | "recurrence"
+  | "recurrenceRule"
+  | "calendar"
+  | "calendarId"
+  | "attendees"
+  | "alarms"
+  | "originalId"
+  | "syncId";
+
+export interface FetchEventsOptions extends PriorityOptions {
+  /** ANDROID ONLY - Only serialize these event fields. `id` is always included, `calendarId` is only returned when requested. Defaults to every field. */
+  fields?: EventField[];
+}
+
+export interface RequestOptions {
+  /** ANDROID ONLY - Identifies the call for `cancelRequest`. Several calls may share one id. */
+  requestId?: string;
+  /** ANDROID ONLY - Cancels the call when it has not settled this many milliseconds after it was made. */
+  timeout?: number;
+}
+
+export interface FetchAllEventsOptions extends FetchEventsOptions, RequestOptions {
+  /** ANDROID ONLY - `"local"` expands recurring events in memory instead of reading the provider's instances table. Rules the expander does not support fall back to the provider. Defaults to `"provider"`. */
+  expansion?: "provider" | "local";
+  /** ANDROID ONLY - `"columnar"` returns one array per field instead of one object per event. Defaults to `"objects"`. */
+  format?: "objects" | "columnar";
+}
+
+/** Events as parallel arrays: the values of event `i` are at index `i` of every array. */
+export interface ColumnarEvents {
+  length: number;
+  id: string[];
+  calendarId?: string[];
+  title?: string[];
+  description?: string[];
+  /** Epoch milliseconds. */
+  startDate?: number[];
+  /** Epoch milliseconds. */
+  endDate?: number[];
+  allDay?: boolean[];
+  location?: string[];
+  availability?: string[];
+  recurrence?: (string | null)[];
+  recurrenceRule?: (RecurrenceRule | null)[];
+  attendees?: Attendee[][];
+  alarms?: Array<Alarm<ISODateString | number>>[];
+  originalId?: (string | null)[];
+  syncId?: (string | null)[];
+  /** Calendars of the events, by calendar id. */
+  calendars?: { [calendarId: string]: Calendar };
+}
+
+export interface EventsPageOptions extends FetchEventsOptions, RequestOptions {
+  /** Maximum number of events in the page. Defaults to 100. */
+  limit?: number;
+  /** The `cursorToken` returned with the previous page. Omit it to fetch the first page. */
+  cursorToken?: string | null;
+}
+
+export interface SearchEventsOptions extends FetchEventsOptions, RequestOptions {
+  /** Maximum number of events returned. Defaults to 100. */
+  limit?: number;
+  /** Number of matching events to skip. Defaults to 0. */
+  offset?: number;
+}
+
+export interface EventsPage {
+  /** The events of this page, ordered by start date. */
+  events: CalendarEventReadable[];
+  /** Opaque token to pass back to fetch the next page, null when there are no more events. */
+  cursorToken: string | null;
+}
+
+export interface FreeBusyOptions extends PriorityOptions, RequestOptions {
+  /** Round busy ranges out to multiples of this many minutes from the start of the range. Defaults to exact ranges. */
+  granularity?: number;
+}
+
+export interface BusyRange {
+  startDate: ISODateString;
+  endDate: ISODateString;
+}
+
+export interface WorkingHours {
+  /** Start of the working day, "HH:mm". */
+  startTime: string;
+  /** End of the working day, "HH:mm". An end at or before the start ends the next day. */
+  endTime: string;
+  /** Working days, e.g. `["MO", "TU", "WE", "TH", "FR"]`. Defaults to every day. */
+  daysOfWeek?: string[];
+}
+
+export interface AvailableSlotsOptions extends PriorityOptions, RequestOptions {
+  /** Only return slots within these hours. Defaults to the whole range. */
+  workingHours?: WorkingHours;
+  /** Time zone of the working hours and all-day events, e.g. "Europe/Paris". Unknown IDs are rejected. Defaults to the device's. */
+  timeZone?: string;
+  /** Free time to keep before and after each busy event, in minutes. */
+  bufferMinutes?: number;
+  /** Maximum number of slots returned. Defaults to 100. */
+  maxResults?: number;
+}
+
+export interface EventChanges {
+  /** Ids of events created since the token was issued, or of every event when `reset` is true. */
+  added: string[];
+  /** Ids of events modified since the token was issued. */
+  updated: string[];
+  /** Ids of events removed since the token was issued. */
+  deleted: string[];
+  /** Token to pass to the next call. */
+  token: string;
+  /** True when the token was unknown, e.g. after an app restart, and `added` lists every event. */
+  reset: boolean;
+}
+
+export interface BulkProgress {
+  /** "save" or "remove" */
+  operation: "save" | "remove";
+  /** Number of events processed so far. */
+  completed: number;
+  /** Total number of events. */
+  total: number;
+}
+
+export interface BulkOptions extends Options {
+  /**
+   * Number of events written per provider transaction, at most 500. Defaults to 50. A transaction also ends
+   * once it holds 500 operations, counting one per event, attendee and alarm.
+   */
+  batchSize?: number;
+  /** Called after each batch of events has been written. */
+  onProgress?: (progress: BulkProgress) => void;
+}
+
+export interface BulkResult {
+  /** The saved event's id, or the id of the removed event. Null when a save failed. */
+  id: string | null;
+  /** Whether this event was saved or removed. */
+  success: boolean;
+  /** Why the event could not be saved or removed. */
+  error?: string;
+}
+
+export interface CalendarChange {
+  /** Number of provider notifications coalesced into this change. */
+  notifications: number;
+}
+
+export interface CalendarChangeSubscription {
+  /** Stops delivering changes to this listener. */
+  remove(): void;
+}
+
+export interface CalendarCacheStats {
+  /** Calendar lookups answered from the cache. */
+  hits: number;
+  /** Calendar lookups that had to query the calendars table. */
+  misses: number;
+  /** Times the cache was dropped because calendars changed. */
+  invalidations: number;
+  /** Number of calendars currently cached. */
+  size: number;
+}
+
+export interface EventCacheStats {
+  /** Days of requested ranges answered from the cache. */
+  hits: number;
+  /** Days of requested ranges that had to be read from the calendar. */
+  misses: number;
+  /** Days dropped to stay within the budget. */
+  evictions: number;
+  /** Times the cache was dropped because the calendar changed. */
+  invalidations: number;
+  /** Estimated memory used, in bytes. */
+  bytes: number;
+  /** Number of days currently cached. */
+  days: number;
+}
+
+export interface PerformanceMetric {
+  /** Number of measurements. */
+  count: number;
+  totalMillis: number;
+  meanMillis: number;
+  maxMillis: number;
+  /** Rows returned, serialized or written by the measured calls. */
+  rows: number;
+  /** Number of measurements per bucket of `histogramBounds`, plus a last bucket for slower ones. */
+  histogram: number[];
+}
+
+export interface PerformanceStats {
+  enabled: boolean;
+  /** When the stats were last reset, in ISO format. */
+  since: ISODateString;
+  /** Upper bounds of the histogram buckets, in milliseconds. */
+  histogramBounds: number[];
+  /**
+   * Metrics by name: `call.<method>` and `wait.<method>` for the time bridge methods run and wait on the
+   * module's threads, `queue.<priority>` for the waits of each priority, `query.<table>` and `provider.<operation>` for provider calls, `serialize.<what>` for serialization.
+   */
+  metrics: { [name: string]: PerformanceMetric };
+  calendarCache: CalendarCacheStats;
+  eventCache: EventCacheStats;
+  /** `fetchAllEvents` and `findEventById` calls answered by an identical call already running. */
+  coalescedReads: number;
+  /** Bridge calls waiting for a thread. */
+  queuedTasks: number;
+  /** Bridge calls running. */
+  activeTasks: number;
+  /** Queue depth and waits of each priority, counted even while stats are disabled. */
+  priorities: { [priority in "interactive" | "normal" | "background"]: PriorityStats };
+}
+
+export interface PriorityStats {
+  /** Calls of this priority waiting for a thread. */
+  queued: number;
+  /** Most calls of this priority ever waiting at once. */
+  maxQueued: number;
+  /** Calls of this priority that have started. */
+  started: number;
+  meanWaitMillis: number;
+  maxWaitMillis: number;
+}
+
 export interface CalendarOptions {
   /** The calendar title */
   title: string;
@@ -183,33 +432,116 @@ export default class ReactNativeCalendarEvents {
   static requestPermissions(readOnly?: boolean): Promise<AuthorizationStatus>;
 
   /** Finds all the calendars on the device. */
-  static findCalendars(): Promise<Calendar[]>;
+  static findCalendars(options?: RequestOptions & PriorityOptions): Promise<Calendar[]>;
   /** Create a calendar.
    * @param calendar - Calendar to create
+   * @param options - ANDROID ONLY - The priority of the write
    */
-  static saveCalendar(calendar: CalendarOptions): Promise<string>;
+  static saveCalendar(calendar: CalendarOptions, options?: PriorityOptions): Promise<string>;
   /**
    * Removes a calendar.
    * @param id - The calendar id
+   * @param options - ANDROID ONLY - The priority of the write
    * @returns - Promise resolving to boolean to indicate if removal succeeded.
    */
-  static removeCalendar(id: string): Promise<boolean>;
+  static removeCalendar(id: string, options?: PriorityOptions): Promise<boolean>;
   /**
    * Find calendar  by id.
    * @param id - Calendar ID
+   * @param [options] - Fields to return.
    */
-  static findEventById(id: string): Promise<CalendarEventReadable | null>;
+  static findEventById(
+    id: string,
+    options?: FetchEventsOptions & RequestOptions
+  ): Promise<CalendarEventReadable | null>;
   /**
    * Fetch all calendar events.
    * @param startDate - Date string in ISO format
    * @param endDate - Date string in ISO format
    * @param [calendarIds] - List of calendar id strings to specify calendar events. Defaults to all calendars if empty.
+   * @param [options] - Fields to return and how to expand recurring events.
    */
   static fetchAllEvents(
     startDate: ISODateString,
     endDate: ISODateString,
-    calendarIds?: string[]
+    calendarIds: string[] | undefined,
+    options: FetchAllEventsOptions & { format: "columnar" }
+  ): Promise<ColumnarEvents>;
+  static fetchAllEvents(
+    startDate: ISODateString,
+    endDate: ISODateString,
+    calendarIds?: string[],
+    options?: FetchAllEventsOptions
   ): Promise<CalendarEventReadable[]>;
+  /**
+   * ANDROID ONLY - Fetch calendar events one page at a time.
+   * @param startDate - Date string in ISO format
+   * @param endDate - Date string in ISO format
+   * @param [calendarIds] - List of calendar id strings to specify calendar events. Defaults to all calendars if empty.
+   * @param [options] - Page size, continuation token and fields to return.
+   */
+  static fetchEventsPage(
+    startDate: ISODateString,
+    endDate: ISODateString,
+    calendarIds?: string[],
+    options?: EventsPageOptions
+  ): Promise<EventsPage>;
+  /**
+   * ANDROID ONLY - Search the events of a date range by text.
+   * @param query - Text matched against titles, descriptions, locations and attendees
+   * @param startDate - Date string in ISO format
+   * @param endDate - Date string in ISO format
+   * @param [calendarIds] - List of calendar id strings to specify calendar events. Defaults to all calendars if empty.
+   * @param [options] - Page of the matches and fields to return.
+   */
+  static searchEvents(
+    query: string,
+    startDate: ISODateString,
+    endDate: ISODateString,
+    calendarIds?: string[],
+    options?: SearchEventsOptions
+  ): Promise<CalendarEventReadable[]>;
+  /**
+   * ANDROID ONLY - Ids of the events added, updated and deleted since a previous call.
+   * @param [token] - Token returned by the previous call, null for the first one
+   * @param [calendarIds] - List of calendar id strings to specify calendar events. Defaults to all calendars if empty.
+   * @param [options] - Cancellation and priority of the call.
+   */
+  static fetchEventsChangedSince(
+    token?: string | null,
+    calendarIds?: string[],
+    options?: RequestOptions & PriorityOptions
+  ): Promise<EventChanges>;
+  /**
+   * ANDROID ONLY - Busy time between two dates, merged from every event not marked free.
+   * @param startDate - Date string in ISO format
+   * @param endDate - Date string in ISO format
+   * @param [calendarIds] - List of calendar id strings. Defaults to all calendars if empty.
+   * @param [options] - Granularity of the returned ranges.
+   * @returns - Promise resolving to ordered, non-overlapping busy ranges.
+   */
+  static getFreeBusy(
+    startDate: ISODateString,
+    endDate: ISODateString,
+    calendarIds?: string[],
+    options?: FreeBusyOptions
+  ): Promise<BusyRange[]>;
+  /**
+   * ANDROID ONLY - Free slots of a given length, free in every given calendar.
+   * @param startDate - Date string in ISO format
+   * @param endDate - Date string in ISO format
+   * @param calendarIds - List of calendar id strings. All calendars if empty.
+   * @param durationMinutes - Length of each slot.
+   * @param [options] - Working hours, time zone, buffer and maximum number of slots.
+   * @returns - Promise resolving to ordered slots.
+   */
+  static findAvailableSlots(
+    startDate: ISODateString,
+    endDate: ISODateString,
+    calendarIds: string[],
+    durationMinutes: number,
+    options?: AvailableSlotsOptions
+  ): Promise<BusyRange[]>;
   /**
    * Creates or updates a calendar event. To update an event, the event id must be defined.
    * @param title - The title of the event
@@ -229,4 +561,71 @@ export default class ReactNativeCalendarEvents {
    * @returns - Promise resolving to boolean to indicate if removal succeeded.
    */
   static removeEvent(id: string, options?: Options): Promise<boolean>;
+  /**
+   * ANDROID ONLY - Creates or updates many calendar events, in batches.
+   * @param events - Event details, each including its `title`
+   * @param [options] - Options applied to every saved event, plus batching options.
+   * @returns - Promise resolving to one result per event, in the same order.
+   */
+  static saveEvents(
+    events: Array<CalendarEventWritable & { title: string }>,
+    options?: BulkOptions
+  ): Promise<BulkResult[]>;
+  /**
+   * ANDROID ONLY - Removes many calendar events, in batches.
+   * @param ids - The event ids
+   * @param [options] - Options applied to every removed event, plus batching options.
+   * @returns - Promise resolving to one result per event, in the same order.
+   */
+  static removeEvents(ids: string[], options?: BulkOptions): Promise<BulkResult[]>;
+  /**
+   * ANDROID ONLY - Calls listener whenever events change on the device, instead of polling for them.
+   * Bursts of changes, e.g. during a sync, are delivered as one call.
+   * @param listener - Called with the coalesced change
+   * @returns - Promise resolving to a subscription, call its `remove` to stop listening.
+   */
+  static addCalendarChangeListener(
+    listener: (change: CalendarChange) => void
+  ): Promise<CalendarChangeSubscription>;
+  /**
+   * ANDROID ONLY - Counters of the calendar cache used when serializing events.
+   */
+  static getCalendarCacheStats(): Promise<CalendarCacheStats>;
+  /**
+   * ANDROID ONLY - Memory budget of the cache of `fetchAllEvents` ranges, in bytes. 0, the default, disables it.
+   */
+  static setEventCacheBudget(maxBytes: number): void;
+  /**
+   * ANDROID ONLY - Counters of the cache of `fetchAllEvents` ranges.
+   */
+  static getEventCacheStats(): Promise<EventCacheStats>;
+  /**
+   * ANDROID ONLY - Cancels the `fetchAllEvents`, `fetchEventsPage`, `searchEvents`, `getFreeBusy`, `findAvailableSlots`,
+   * `findEventById` and `findCalendars` calls made with this `requestId` that have not settled yet. They reject with the code `"request cancelled"`.
+   */
+  static cancelRequest(requestId: string): void;
+  /**
+   * ANDROID ONLY - Reads a range into the cache of `fetchAllEvents` ranges in the background, while no other call is running.
+   * Resolves to true once the range is cached, false when cancelled, skipped or when the cache is disabled.
+   * @param startDate - Date string in ISO format
+   * @param endDate - Date string in ISO format
+   * @param [calendarIds] - List of calendar id strings to specify calendar events. Defaults to all calendars if empty.
+   */
+  static prefetchEvents(startDate: ISODateString, endDate: ISODateString, calendarIds?: string[]): Promise<boolean>;
+  /**
+   * ANDROID ONLY - Stops the prefetches started so far.
+   */
+  static cancelPrefetch(): void;
+  /**
+   * ANDROID ONLY - Turn performance stats and trace sections on or off. Off by default.
+   */
+  static setPerformanceStatsEnabled(enabled: boolean): void;
+  /**
+   * ANDROID ONLY - Timings and counters collected since the last reset while stats were enabled.
+   */
+  static getPerformanceStats(): Promise<PerformanceStats>;
+  /**
+   * ANDROID ONLY - Clear collected performance stats.
+   */
+  static resetPerformanceStats(): void;
 }